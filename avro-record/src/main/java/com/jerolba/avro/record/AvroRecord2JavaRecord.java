@@ -16,22 +16,19 @@
 package com.jerolba.avro.record;
 
 import static com.jerolba.avro.record.AliasField.getFieldName;
+import static com.jerolba.avro.record.RecordFactory.recordFactory;
 import static org.apache.avro.Schema.Type.ARRAY;
 import static org.apache.avro.Schema.Type.RECORD;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.RecordComponent;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Function;
-import java.util.stream.Stream;
 
 import org.apache.avro.Schema;
 import org.apache.avro.Schema.Field;
@@ -44,7 +41,7 @@ public class AvroRecord2JavaRecord<T> {
 
     private final RecordInfo recordInfo;
 
-    private record RecordInfo(Constructor<?> constructor, List<Function<GenericRecord, Object>> mappers) {
+    private record RecordInfo(Function<Object[], Object> factory, List<Function<GenericRecord, Object>> mappers) {
     }
 
     public AvroRecord2JavaRecord(Class<T> recordClass, Schema schema) {
@@ -64,22 +61,7 @@ public class AvroRecord2JavaRecord<T> {
             Field field = schema.getField(getFieldName(recordComponent));
             mappers.add(buildMapperForField(recordComponent, field));
         }
-        return new RecordInfo(findConstructor(recordClass), mappers);
-    }
-
-    private Constructor<?> findConstructor(Class<?> recordClass) {
-        Object[] componentsTypes = Stream.of(recordClass.getRecordComponents())
-                .map(RecordComponent::getType)
-                .toArray();
-        Constructor<?>[] declaredConstructors = recordClass.getDeclaredConstructors();
-        for (var c : declaredConstructors) {
-            Class<?>[] parameterTypes = c.getParameterTypes();
-            if (Arrays.equals(componentsTypes, parameterTypes, (c1, c2) -> c1.equals(c2) ? 0 : 1)) {
-                c.setAccessible(true);
-                return c;
-            }
-        }
-        throw new RuntimeException(recordClass.getName() + " record has an invalid constructor");
+        return new RecordInfo(recordFactory(recordClass), mappers);
     }
 
     private Function<GenericRecord, Object> buildMapperForField(RecordComponent recordComponent, Field avroField) {
@@ -160,12 +142,7 @@ public class AvroRecord2JavaRecord<T> {
         for (int i = 0; i < values.length; i++) {
             values[i] = mappers.get(i).apply(record);
         }
-        try {
-            return recordInfo.constructor().newInstance(values);
-        } catch (InstantiationException | IllegalAccessException | IllegalArgumentException
-                | InvocationTargetException e) {
-            throw new RuntimeException(e);
-        }
+        return recordInfo.factory().apply(values);
     }
 
     private Function<Object, Object> getSimpleTypeMapper(Class<?> type) {
@@ -24,10 +24,13 @@ import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
 import org.apache.avro.file.DataFileReader;
 import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericRecord;
@@ -35,8 +38,15 @@ import org.apache.avro.io.DatumReader;
 
 public class AvroRecordReader<T> {
 
+    private record ReadMapperKey(Class<?> recordClass, long schemaFingerprint, boolean generatedMapper) {
+    }
+
+    private static final RecordMappingCache<ReadMapperKey, Function<GenericRecord, ?>> READ_MAPPERS =
+            new RecordMappingCache<>();
+
     private final String path;
     private final Class<T> recordClass;
+    private final boolean generatedMapper;
 
     /**
      * Constructs a new AvroRecordReader to read records of the specified type from
@@ -47,8 +57,25 @@ public class AvroRecordReader<T> {
      * @throws IOException if an I/O error occurs while opening the file
      */
     public AvroRecordReader(String path, Class<T> recordClass) throws IOException {
+        this(path, recordClass, false);
+    }
+
+    /**
+     * Constructs a new AvroRecordReader to read records of the specified type from
+     * the specified Avro file, optionally mapping them with a class generated at
+     * runtime for the record class and the file schema instead of the reflection
+     * based mapper. If the mapper of the record was generated at compile time and
+     * the file has the same schema, it is always used.
+     *
+     * @param path            the path to the Avro file
+     * @param recordClass     the class of the records to be read
+     * @param generatedMapper whether to generate the mapper class
+     * @throws IOException if an I/O error occurs while opening the file
+     */
+    public AvroRecordReader(String path, Class<T> recordClass, boolean generatedMapper) throws IOException {
         this.path = path;
         this.recordClass = recordClass;
+        this.generatedMapper = generatedMapper;
     }
 
     /**
@@ -97,6 +124,43 @@ public class AvroRecordReader<T> {
         }
     }
 
+    /**
+     * Returns a publisher of the records in this AvroRecordReader, reading at most
+     * {@link RecordPublisher#DEFAULT_READ_AHEAD} records ahead of the demand of
+     * each subscriber.
+     *
+     * @return a publisher of the records in this AvroRecordReader
+     * @see RecordPublisher
+     */
+    public Flow.Publisher<T> publisher() {
+        return publisher(RecordPublisher.DEFAULT_READ_AHEAD);
+    }
+
+    /**
+     * Returns a publisher of the records in this AvroRecordReader. Each
+     * subscription opens the Avro file and reads it in a background thread,
+     * reading at most the specified number of records ahead of the demand of the
+     * subscriber. The file is closed when the subscription is cancelled.
+     *
+     * @param readAhead the maximum number of records read ahead of the demand
+     * @return a publisher of the records in this AvroRecordReader
+     * @see RecordPublisher
+     */
+    public Flow.Publisher<T> publisher(int readAhead) {
+        return new RecordPublisher<>("avro-record-publisher", this::buildIterator, readAhead);
+    }
+
+    private <R> Function<GenericRecord, R> buildMapper(Class<R> recordClass, Schema schema) {
+        CompiledRecordMapper<R> compiled = CompiledMappers.find(recordClass);
+        if (compiled != null && compiled.schema().equals(schema)) {
+            return compiled::read;
+        }
+        if (generatedMapper) {
+            return RecordMapperGenerator.readMapper(recordClass, schema);
+        }
+        return new AvroRecord2JavaRecord<>(recordClass, schema)::mapMainRecord;
+    }
+
     private RecordIterator<T> buildIterator() throws IOException {
         DatumReader<GenericRecord> datumReader = new GenericDatumReader<>();
         DataFileReader<GenericRecord> dataFileReader = new DataFileReader<>(new File(path), datumReader);
@@ -106,7 +170,7 @@ public class AvroRecordReader<T> {
     private class RecordIterator<R> implements Iterator<R>, AutoCloseable {
 
         private final DataFileReader<GenericRecord> reader;
-        private final AvroRecord2JavaRecord<R> mapper;
+        private final Function<GenericRecord, R> mapper;
 
         /**
          * Constructs a new RecordIterator to iterate over the records in the specified
@@ -116,10 +180,12 @@ public class AvroRecordReader<T> {
          * @param reader      the DataFileReader to read the records from
          * @throws IOException if an I/O error occurs while reading the file
          */
+        @SuppressWarnings("unchecked")
         RecordIterator(Class<R> recordClass, DataFileReader<GenericRecord> reader) throws IOException {
             this.reader = reader;
             Schema schema = reader.getSchema();
-            mapper = new AvroRecord2JavaRecord<>(recordClass, schema);
+            var key = new ReadMapperKey(recordClass, SchemaNormalization.parsingFingerprint64(schema), generatedMapper);
+            mapper = (Function<GenericRecord, R>) READ_MAPPERS.get(key, k -> buildMapper(recordClass, schema));
         }
 
         /**
@@ -147,7 +213,7 @@ public class AvroRecordReader<T> {
             if (!hasNext()) {
                 throw new NoSuchElementException();
             }
-            return mapper.mapMainRecord(reader.next());
+            return mapper.apply(reader.next());
         }
 
         /**
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import org.apache.avro.Schema;
@@ -30,8 +31,17 @@ import org.apache.avro.io.DatumWriter;
 
 public class AvroRecordWriter<T> {
 
+    private record WriteMapperKey(Class<?> recordClass, boolean generatedMapper) {
+    }
+
+    private record WriteMapping(Schema schema, Function<?, GenericRecord> mapper) {
+    }
+
+    private static final RecordMappingCache<WriteMapperKey, WriteMapping> WRITE_MAPPERS =
+            new RecordMappingCache<>();
+
     private final Schema schema;
-    private final JavaRecord2AvroRecord<T> mapper;
+    private final Function<T, GenericRecord> mapper;
 
     /**
      * Constructs a new AvroRecordWriter to write records of the specified type to
@@ -42,9 +52,42 @@ public class AvroRecordWriter<T> {
      *                     records
      */
     public AvroRecordWriter(Class<T> recordClass) throws IOException {
-        JavaRecord2Schema toSchema = new JavaRecord2Schema();
-        schema = toSchema.build(recordClass);
-        mapper = new JavaRecord2AvroRecord<>(recordClass, schema);
+        this(recordClass, false);
+    }
+
+    /**
+     * Constructs a new AvroRecordWriter to write records of the specified type to
+     * an Avro file, optionally mapping them with a class generated at runtime for
+     * the record class instead of the reflection based mapper. If the mapper of the
+     * record was generated at compile time, it is always used.
+     *
+     * @param recordClass     the class of the records to be written
+     * @param generatedMapper whether to generate the mapper class
+     * @throws IOException if an I/O error occurs while building the schema for the
+     *                     records
+     */
+    @SuppressWarnings("unchecked")
+    public AvroRecordWriter(Class<T> recordClass, boolean generatedMapper) throws IOException {
+        WriteMapping mapping = WRITE_MAPPERS.get(new WriteMapperKey(recordClass, generatedMapper),
+                key -> buildMapping(recordClass, generatedMapper));
+        this.schema = mapping.schema();
+        this.mapper = (Function<T, GenericRecord>) mapping.mapper();
+    }
+
+    private static <T> WriteMapping buildMapping(Class<T> recordClass, boolean generatedMapper) {
+        CompiledRecordMapper<T> compiled = CompiledMappers.find(recordClass);
+        if (compiled != null) {
+            Function<T, GenericRecord> mapper = compiled::write;
+            return new WriteMapping(compiled.schema(), mapper);
+        }
+        Schema schema = new JavaRecord2Schema().build(recordClass);
+        Function<T, GenericRecord> mapper;
+        if (generatedMapper) {
+            mapper = RecordMapperGenerator.writeMapper(recordClass, schema);
+        } else {
+            mapper = new JavaRecord2AvroRecord<>(recordClass, schema)::mapRecord;
+        }
+        return new WriteMapping(schema, mapper);
     }
 
     /**
@@ -102,7 +145,7 @@ public class AvroRecordWriter<T> {
     private void writeAll(DataFileWriter<GenericRecord> writer, Stream<T> stream) throws IOException {
         Iterator<T> it = stream.iterator();
         while (it.hasNext()) {
-            writer.append(mapper.mapRecord(it.next()));
+            writer.append(mapper.apply(it.next()));
         }
     }
 
@@ -0,0 +1,69 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.avro.record;
+
+import java.util.Optional;
+
+import com.jerolba.record.annotation.GenerateMapper;
+
+/**
+ *
+ * Locates the mapper generated at compile time for a record annotated with
+ * {@link GenerateMapper}. The generated class is in the package of the record
+ * and its name is the binary name of the record, with nested class separators
+ * replaced by underscores, followed by {@value #SUFFIX}.
+ *
+ * Generated mappers are stateless, so the mapper of each record class is
+ * located once and shared by all readers and writers.
+ *
+ */
+public final class CompiledMappers {
+
+    static final String SUFFIX = "AvroMapper";
+
+    private static final RecordMappingCache<Class<?>, Optional<CompiledRecordMapper<?>>> MAPPERS =
+            new RecordMappingCache<>();
+
+    private CompiledMappers() {
+    }
+
+    /**
+     * Returns the compiled mapper of the record class, or null if the record is
+     * not annotated or the annotation processor was not executed.
+     *
+     * @param <T>         the type of the record
+     * @param recordClass the record class
+     * @return the compiled mapper or null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CompiledRecordMapper<T> find(Class<T> recordClass) {
+        if (!recordClass.isAnnotationPresent(GenerateMapper.class)) {
+            return null;
+        }
+        return (CompiledRecordMapper<T>) MAPPERS.get(recordClass, CompiledMappers::load).orElse(null);
+    }
+
+    private static Optional<CompiledRecordMapper<?>> load(Class<?> recordClass) {
+        String name = recordClass.getName().replace('$', '_') + SUFFIX;
+        try {
+            Class<?> mapperClass = Class.forName(name, true, recordClass.getClassLoader());
+            return Optional.of((CompiledRecordMapper<?>) mapperClass.getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+
+}
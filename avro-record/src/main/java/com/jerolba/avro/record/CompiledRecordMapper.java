@@ -0,0 +1,83 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.avro.record;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+
+/**
+ *
+ * Mapper between a record and Avro records generated at compile time for the
+ * records annotated with {@link com.jerolba.record.annotation.GenerateMapper}.
+ *
+ * @param <T> the type of the record
+ */
+public interface CompiledRecordMapper<T> {
+
+    /**
+     * Returns the Avro schema of the record, equivalent to the one built by
+     * {@link JavaRecord2Schema}.
+     *
+     * @return the Avro schema of the record
+     */
+    Schema schema();
+
+    /**
+     * Converts a record into an Avro record with the schema of the mapper.
+     *
+     * @param record the record to convert
+     * @return the Avro record
+     */
+    GenericRecord write(T record);
+
+    /**
+     * Converts an Avro record with the schema of the mapper into a record.
+     *
+     * @param record the Avro record to convert
+     * @return the record
+     */
+    T read(GenericRecord record);
+
+    /**
+     * Returns a function that creates an instance of the record, or of a record
+     * reachable from its components, from the values of its components in
+     * declaration order, calling its canonical constructor directly. It is used by
+     * readers that decode the values themselves, like the Parquet reader.
+     *
+     * @param recordClass the record class
+     * @return the constructor function, or null if the class is not mapped
+     */
+    default Function<Object[], Object> constructor(Class<?> recordClass) {
+        return null;
+    }
+
+    /**
+     * Returns the accessors of the components of the record, or of a record
+     * reachable from its components, in declaration order, calling the accessor
+     * methods directly. It is used by writers that encode the values themselves,
+     * like the Parquet writer.
+     *
+     * @param recordClass the record class
+     * @return the accessor functions, or null if the class is not mapped
+     */
+    default List<Function<Object, Object>> accessors(Class<?> recordClass) {
+        return null;
+    }
+
+}
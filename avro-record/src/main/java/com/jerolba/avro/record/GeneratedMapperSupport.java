@@ -0,0 +1,211 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.avro.record;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData.EnumSymbol;
+
+/**
+ *
+ * Value conversions invoked by the mappers generated at runtime by
+ * {@link RecordMapperGenerator} or at compile time by the annotation processor.
+ * Generated classes live in the package of the record they map, so these
+ * methods must be public, but they are not part of the API of the library.
+ *
+ * Methods are static and small, so they are inlined in the generated code, and
+ * the element mappers received as arguments are constants of the generated
+ * class, which allows the JIT to resolve their call sites.
+ *
+ */
+public final class GeneratedMapperSupport {
+
+    private GeneratedMapperSupport() {
+    }
+
+    public static Schema notNullSchema(Schema schema) {
+        if (schema.isUnion()) {
+            for (Schema type : schema.getTypes()) {
+                if (!type.isNullable()) {
+                    return type;
+                }
+            }
+        }
+        return schema;
+    }
+
+    public static EnumSymbol[] enumSymbols(Schema schema, Class<?> enumType) {
+        Object[] enums = enumType.getEnumConstants();
+        EnumSymbol[] values = new EnumSymbol[enums.length];
+        for (int i = 0; i < enums.length; i++) {
+            values[i] = new EnumSymbol(schema, ((Enum<?>) enums[i]).name());
+        }
+        return values;
+    }
+
+    public static String toStr(Object v) {
+        return v == null ? null : v.toString();
+    }
+
+    public static int toInt(Object v) {
+        return ((Number) v).intValue();
+    }
+
+    public static long toLong(Object v) {
+        return ((Number) v).longValue();
+    }
+
+    public static double toDouble(Object v) {
+        return ((Number) v).doubleValue();
+    }
+
+    public static float toFloat(Object v) {
+        return ((Number) v).floatValue();
+    }
+
+    public static short toShort(Object v) {
+        return ((Number) v).shortValue();
+    }
+
+    public static byte toByte(Object v) {
+        return ((Number) v).byteValue();
+    }
+
+    public static boolean toBoolean(Object v) {
+        return (Boolean) v;
+    }
+
+    public static Integer toBoxedInt(Object v) {
+        return v == null ? null : ((Number) v).intValue();
+    }
+
+    public static Long toBoxedLong(Object v) {
+        return v == null ? null : ((Number) v).longValue();
+    }
+
+    public static Double toBoxedDouble(Object v) {
+        return v == null ? null : ((Number) v).doubleValue();
+    }
+
+    public static Float toBoxedFloat(Object v) {
+        return v == null ? null : ((Number) v).floatValue();
+    }
+
+    public static Short toBoxedShort(Object v) {
+        return v == null ? null : ((Number) v).shortValue();
+    }
+
+    public static Byte toBoxedByte(Object v) {
+        return v == null ? null : ((Number) v).byteValue();
+    }
+
+    public static Boolean toBoxedBoolean(Object v) {
+        return (Boolean) v;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static Enum<?> toEnum(Class enumType, Object v) {
+        return v == null ? null : Enum.valueOf(enumType, v.toString());
+    }
+
+    public static Object toEnumSymbol(Object v, EnumSymbol[] symbols) {
+        return v == null ? null : symbols[((Enum<?>) v).ordinal()];
+    }
+
+    public static List<Object> copyList(Object v) {
+        if (v == null) {
+            return null;
+        }
+        return new ArrayList<>((Collection<?>) v);
+    }
+
+    public static List<Object> mapList(Object v, Function<Object, Object> elementMapper) {
+        if (v == null) {
+            return null;
+        }
+        Collection<?> src = (Collection<?>) v;
+        List<Object> res = new ArrayList<>(src.size());
+        for (Object e : src) {
+            res.add(e == null ? null : elementMapper.apply(e));
+        }
+        return res;
+    }
+
+    public static List<Object> toStrList(Object v) {
+        if (v == null) {
+            return null;
+        }
+        Collection<?> src = (Collection<?>) v;
+        List<Object> res = new ArrayList<>(src.size());
+        for (Object e : src) {
+            res.add(e == null ? null : e.toString());
+        }
+        return res;
+    }
+
+    public static List<Object> toShortList(Object v) {
+        if (v == null) {
+            return null;
+        }
+        Collection<?> src = (Collection<?>) v;
+        List<Object> res = new ArrayList<>(src.size());
+        for (Object e : src) {
+            res.add(e == null ? null : ((Number) e).shortValue());
+        }
+        return res;
+    }
+
+    public static List<Object> toByteList(Object v) {
+        if (v == null) {
+            return null;
+        }
+        Collection<?> src = (Collection<?>) v;
+        List<Object> res = new ArrayList<>(src.size());
+        for (Object e : src) {
+            res.add(e == null ? null : ((Number) e).byteValue());
+        }
+        return res;
+    }
+
+    public static List<Object> toEnumList(Class<?> enumType, Object v) {
+        if (v == null) {
+            return null;
+        }
+        Collection<?> src = (Collection<?>) v;
+        List<Object> res = new ArrayList<>(src.size());
+        for (Object e : src) {
+            res.add(toEnum(enumType, e));
+        }
+        return res;
+    }
+
+    public static List<Object> toEnumSymbolList(Object v, EnumSymbol[] symbols) {
+        if (v == null) {
+            return null;
+        }
+        Collection<?> src = (Collection<?>) v;
+        List<Object> res = new ArrayList<>(src.size());
+        for (Object e : src) {
+            res.add(toEnumSymbol(e, symbols));
+        }
+        return res;
+    }
+
+}
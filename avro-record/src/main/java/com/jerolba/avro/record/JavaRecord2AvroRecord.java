@@ -16,12 +16,8 @@
 package com.jerolba.avro.record;
 
 import static com.jerolba.avro.record.AliasField.getFieldName;
-import static java.lang.invoke.MethodType.methodType;
+import static com.jerolba.avro.record.RecordAccessor.recordAccessor;
 
-import java.lang.invoke.CallSite;
-import java.lang.invoke.LambdaMetafactory;
-import java.lang.invoke.MethodHandle;
-import java.lang.invoke.MethodHandles;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.RecordComponent;
 import java.util.ArrayList;
@@ -184,7 +180,7 @@ public class JavaRecord2AvroRecord<T> {
             if (listType.isEnum()) {
                 return collectionEnumMapper(listType);
             }
-            throw new RecordTypeConversionException("Unsuported type in collection: " + listType.getName());
+            throw new RecordTypeConversionException("Unsupported type in collection: " + listType.getName());
         }
 
         private FieldMap collectionSimpleMapper() {
@@ -240,7 +236,7 @@ public class JavaRecord2AvroRecord<T> {
             Object[] enums = enumType.getEnumConstants();
             values = new EnumSymbol[enums.length];
             for (int i = 0; i < enums.length; i++) {
-                values[i] = new EnumSymbol(schema, enums[i].toString());
+                values[i] = new EnumSymbol(schema, ((Enum<?>) enums[i]).name());
             }
         }
 
@@ -249,18 +245,4 @@ public class JavaRecord2AvroRecord<T> {
         }
     }
 
-    private static Function<Object, Object> recordAccessor(Class<?> targetClass, RecordComponent recordComponent)
-            throws Throwable {
-        MethodHandles.Lookup lookup = MethodHandles.lookup();
-        MethodHandle findVirtual = lookup.findVirtual(targetClass, recordComponent.getName(),
-                methodType(recordComponent.getType()));
-        CallSite site = LambdaMetafactory.metafactory(lookup,
-                "apply",
-                methodType(Function.class),
-                methodType(Object.class, Object.class),
-                findVirtual,
-                methodType(recordComponent.getType(), targetClass));
-        return (Function<Object, Object>) site.getTarget().invokeExact();
-    }
-
 }
\ No newline at end of file
@@ -38,17 +38,34 @@ import org.apache.avro.SchemaBuilder.TypeBuilder;
 
 public class JavaRecord2Schema {
 
+    private static final RecordMappingCache<Class<?>, Schema> SCHEMAS = new RecordMappingCache<>();
+
+    /**
+     * Builds the Avro schema of a record class. Schemas are cached by record
+     * class, and must not be modified.
+     *
+     * @param recordClass the record class
+     * @return the Avro schema of the record
+     */
     public Schema build(Class<?> recordClass) {
+        return SCHEMAS.get(recordClass, this::buildSchema);
+    }
+
+    private Schema buildSchema(Class<?> recordClass) {
+        CompiledRecordMapper<?> compiled = CompiledMappers.find(recordClass);
+        if (compiled != null) {
+            return compiled.schema();
+        }
         Set<Class<?>> visited = new HashSet<>();
         return build(recordClass, visited);
     }
 
-    private Schema build(Class<?> recordClass, Set<Class<?>> visited) {
+    Schema build(Class<?> recordClass, Set<Class<?>> visited) {
         if (!recordClass.isRecord()) {
             throw new RecordTypeConversionException(recordClass.getName() + " must be a java Record");
         }
         if (visited.contains(recordClass)) {
-            throw new RecordTypeConversionException("Recusive records are not supported");
+            throw new RecordTypeConversionException("Recursive records are not supported");
         }
         visited.add(recordClass);
 
@@ -92,7 +109,7 @@ public class JavaRecord2Schema {
 
     private String[] enumSymbols(Class<?> type) {
         Object[] enumConstants = type.getEnumConstants();
-        return Stream.of(enumConstants).map(Object::toString).toArray(String[]::new);
+        return Stream.of(enumConstants).map(e -> ((Enum<?>) e).name()).toArray(String[]::new);
     }
 
     private Function<BaseFieldTypeBuilder<Schema>, FieldDefault<Schema, ?>> buildTypeDef(Class<?> type) {
@@ -0,0 +1,55 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.avro.record;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.RecordComponent;
+import java.util.function.Function;
+
+public final class RecordAccessor {
+
+    private RecordAccessor() {
+    }
+
+    /**
+     * Builds a function that reads the value of a record component, using a
+     * lambda generated with {@link LambdaMetafactory} instead of reflection.
+     *
+     * @param targetClass     the record class
+     * @param recordComponent the record component to read
+     * @return a function that given a record returns the component value
+     * @throws Throwable if the accessor can not be generated
+     */
+    public static Function<Object, Object> recordAccessor(Class<?> targetClass, RecordComponent recordComponent)
+            throws Throwable {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle findVirtual = lookup.findVirtual(targetClass, recordComponent.getName(),
+                methodType(recordComponent.getType()));
+        CallSite site = LambdaMetafactory.metafactory(lookup,
+                "apply",
+                methodType(Function.class),
+                methodType(Object.class, Object.class),
+                findVirtual,
+                methodType(recordComponent.getType(), targetClass));
+        return (Function<Object, Object>) site.getTarget().invokeExact();
+    }
+
+}
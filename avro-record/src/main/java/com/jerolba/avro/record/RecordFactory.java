@@ -0,0 +1,70 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.avro.record;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+public final class RecordFactory {
+
+    private static final RecordMappingCache<Class<?>, Function<Object[], Object>> FACTORIES =
+            new RecordMappingCache<>();
+
+    private RecordFactory() {
+    }
+
+    /**
+     * Builds a function that creates an instance of a record from the values of
+     * its components, in declaration order. The function is a hidden class
+     * generated by {@link RecordMapperGenerator} that calls the canonical
+     * constructor directly, so the JIT can inline it like hand written code.
+     * Factories are cached by record class.
+     *
+     * Exceptions thrown by the constructor are propagated unchanged, not wrapped
+     * in a {@code RuntimeException}. A value of the wrong type fails with a
+     * {@link ClassCastException}, and a null value for a primitive component
+     * with a {@link NullPointerException}.
+     *
+     * @param recordClass the record class
+     * @return a function that given the component values returns a new record
+     */
+    public static Function<Object[], Object> recordFactory(Class<?> recordClass) {
+        return FACTORIES.get(recordClass, RecordFactory::buildFactory);
+    }
+
+    private static Function<Object[], Object> buildFactory(Class<?> recordClass) {
+        checkConstructor(recordClass);
+        return RecordMapperGenerator.factory(recordClass);
+    }
+
+    private static void checkConstructor(Class<?> recordClass) {
+        Object[] componentsTypes = Stream.of(recordClass.getRecordComponents())
+                .map(RecordComponent::getType)
+                .toArray();
+        Constructor<?>[] declaredConstructors = recordClass.getDeclaredConstructors();
+        for (var c : declaredConstructors) {
+            Class<?>[] parameterTypes = c.getParameterTypes();
+            if (Arrays.equals(componentsTypes, parameterTypes, (c1, c2) -> c1.equals(c2) ? 0 : 1)) {
+                return;
+            }
+        }
+        throw new RuntimeException(recordClass.getName() + " record has an invalid constructor");
+    }
+
+}
@@ -0,0 +1,563 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.avro.record;
+
+import static com.jerolba.avro.record.AliasField.getFieldName;
+import static com.jerolba.avro.record.GeneratedMapperSupport.enumSymbols;
+import static com.jerolba.avro.record.GeneratedMapperSupport.notNullSchema;
+import static java.lang.invoke.MethodType.methodType;
+import static org.objectweb.asm.Opcodes.AALOAD;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_STATIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ACC_SYNTHETIC;
+import static org.objectweb.asm.Opcodes.ACONST_NULL;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ARETURN;
+import static org.objectweb.asm.Opcodes.ASTORE;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.DCONST_0;
+import static org.objectweb.asm.Opcodes.DUP;
+import static org.objectweb.asm.Opcodes.FCONST_0;
+import static org.objectweb.asm.Opcodes.GETSTATIC;
+import static org.objectweb.asm.Opcodes.ICONST_0;
+import static org.objectweb.asm.Opcodes.IFNONNULL;
+import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.LCONST_0;
+import static org.objectweb.asm.Opcodes.NEW;
+import static org.objectweb.asm.Opcodes.PUTSTATIC;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.SWAP;
+import static org.objectweb.asm.Opcodes.V17;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodHandles.Lookup.ClassOption;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericData.EnumSymbol;
+import org.apache.avro.generic.GenericRecord;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+/**
+ *
+ * Generates, for a record class and an Avro schema, a hidden class that maps
+ * between {@link GenericRecord} and the Java record with straight-line code: a
+ * direct call to the canonical constructor with the converted field values, or
+ * a direct call to each accessor, without lists of per-field lambdas nor
+ * intermediate arrays of values. Primitive components are converted from and
+ * to the boxed values held by the GenericRecord without any other boxing.
+ *
+ * The hidden class is defined in the package and nest of the record class, so
+ * it can invoke its constructor whatever its visibility. Objects needed by the
+ * generated code (the Avro schema, enum symbols and the mappers of nested
+ * records) are passed as class data and held in static final fields, which the
+ * JIT treats as constants.
+ *
+ * It also generates the record factories of {@link RecordFactory}, which call
+ * the canonical constructor with the values of an array.
+ *
+ */
+final class RecordMapperGenerator {
+
+    private static final String OBJECT = Type.getInternalName(Object.class);
+    private static final String FUNCTION = Type.getInternalName(Function.class);
+    private static final String GENERIC_RECORD = Type.getInternalName(GenericRecord.class);
+    private static final String AVRO_RECORD = Type.getInternalName(GenericData.Record.class);
+    private static final String SUPPORT = Type.getInternalName(GeneratedMapperSupport.class);
+    private static final String APPLY_DESC = "(Ljava/lang/Object;)Ljava/lang/Object;";
+    private static final String CONVERSION_DESC = "(Ljava/lang/Object;)";
+
+    private static final Set<String> SIMPLE_MAPPER = Set.of("int", "java.lang.Integer", "long", "java.lang.Long",
+            "double", "java.lang.Double", "float", "java.lang.Float", "boolean", "java.lang.Boolean",
+            "java.lang.String");
+
+    private RecordMapperGenerator() {
+    }
+
+    /**
+     * Generates a mapper that converts a GenericRecord with the specified schema
+     * into an instance of the record class.
+     *
+     * @param <T>         the type of the record
+     * @param recordClass the record class
+     * @param schema      the schema of the GenericRecords to convert
+     * @return a function that maps a GenericRecord into a record
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Function<GenericRecord, T> readMapper(Class<T> recordClass, Schema schema) {
+        return (Function<GenericRecord, T>) new ReaderGenerator(recordClass, schema).define();
+    }
+
+    /**
+     * Generates a mapper that converts an instance of the record class into a
+     * GenericRecord with the specified schema.
+     *
+     * @param <T>         the type of the record
+     * @param recordClass the record class
+     * @param schema      the schema of the GenericRecords to create
+     * @return a function that maps a record into a GenericRecord
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Function<T, GenericRecord> writeMapper(Class<T> recordClass, Schema schema) {
+        return (Function<T, GenericRecord>) new WriterGenerator(recordClass, schema).define();
+    }
+
+    /**
+     * Generates a factory that creates an instance of the record class from the
+     * values of its components in declaration order, calling the canonical
+     * constructor directly. Primitive components are unboxed from the values of
+     * their wrapper type.
+     *
+     * @param recordClass the record class
+     * @return a function that given the component values returns a new record
+     */
+    @SuppressWarnings("unchecked")
+    static Function<Object[], Object> factory(Class<?> recordClass) {
+        return (Function<Object[], Object>) new FactoryGenerator(recordClass).define();
+    }
+
+    private abstract static class MapperGenerator {
+
+        protected final Class<?> recordClass;
+        protected final Schema schema;
+        protected final String className;
+        private final ClassWriter classWriter;
+        private final List<Object> constants = new ArrayList<>();
+        private final List<String> constantTypes = new ArrayList<>();
+
+        MapperGenerator(Class<?> recordClass, Schema schema, String suffix) {
+            this.recordClass = recordClass;
+            this.schema = schema;
+            this.className = Type.getInternalName(recordClass) + suffix;
+            this.classWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
+
+                @Override
+                protected String getCommonSuperClass(String type1, String type2) {
+                    return OBJECT;
+                }
+
+            };
+        }
+
+        protected abstract void generateApply(MethodVisitor mv);
+
+        Object define() {
+            ClassWriter cw = classWriter;
+            cw.visit(V17, ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC, className, null, OBJECT, new String[] { FUNCTION });
+
+            MethodVisitor init = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+            init.visitCode();
+            init.visitVarInsn(ALOAD, 0);
+            init.visitMethodInsn(INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+            init.visitInsn(RETURN);
+            init.visitMaxs(0, 0);
+            init.visitEnd();
+
+            MethodVisitor apply = cw.visitMethod(ACC_PUBLIC, "apply", APPLY_DESC, null, null);
+            apply.visitCode();
+            generateApply(apply);
+            apply.visitMaxs(0, 0);
+            apply.visitEnd();
+
+            generateConstants(cw);
+            cw.visitEnd();
+            try {
+                Lookup lookup = MethodHandles.privateLookupIn(recordClass, MethodHandles.lookup());
+                Lookup hidden = lookup.defineHiddenClassWithClassData(cw.toByteArray(), List.copyOf(constants), true,
+                        ClassOption.NESTMATE);
+                return hidden.findConstructor(hidden.lookupClass(), methodType(void.class)).invoke();
+            } catch (Throwable e) {
+                throw new RecordTypeConversionException("Can not generate mapper for " + recordClass.getName(), e);
+            }
+        }
+
+        private void generateConstants(ClassWriter cw) {
+            MethodVisitor mv = cw.visitMethod(ACC_STATIC, "<clinit>", "()V", null, null);
+            mv.visitCode();
+            if (!constants.isEmpty()) {
+                mv.visitMethodInsn(INVOKESTATIC, "java/lang/invoke/MethodHandles", "lookup",
+                        "()Ljava/lang/invoke/MethodHandles$Lookup;", false);
+                mv.visitVarInsn(ASTORE, 0);
+            }
+            for (int i = 0; i < constants.size(); i++) {
+                String desc = constantTypes.get(i);
+                cw.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, "c" + i, desc, null, null).visitEnd();
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitLdcInsn("_");
+                mv.visitLdcInsn(Type.getType(Object.class));
+                mv.visitLdcInsn(i);
+                mv.visitMethodInsn(INVOKESTATIC, "java/lang/invoke/MethodHandles", "classDataAt",
+                        "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;I)"
+                                + "Ljava/lang/Object;",
+                        false);
+                mv.visitTypeInsn(CHECKCAST, Type.getType(desc).getInternalName());
+                mv.visitFieldInsn(PUTSTATIC, className, "c" + i, desc);
+            }
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        /**
+         * Emits the load of a constant object, registering it as class data of the
+         * generated class.
+         */
+        protected void loadConstant(MethodVisitor mv, Object value, Class<?> type) {
+            int idx = constants.size();
+            constants.add(value);
+            constantTypes.add(Type.getDescriptor(type));
+            mv.visitFieldInsn(GETSTATIC, className, "c" + idx, Type.getDescriptor(type));
+        }
+
+        protected void returnNullIfNullArgument(MethodVisitor mv) {
+            Label notNull = new Label();
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitJumpInsn(IFNONNULL, notNull);
+            mv.visitInsn(ACONST_NULL);
+            mv.visitInsn(ARETURN);
+            mv.visitLabel(notNull);
+        }
+
+        protected static void invokeSupport(MethodVisitor mv, String name, String desc) {
+            mv.visitMethodInsn(INVOKESTATIC, SUPPORT, name, desc, false);
+        }
+
+        protected static void checkCast(MethodVisitor mv, Class<?> type) {
+            if (!type.equals(Object.class)) {
+                mv.visitTypeInsn(CHECKCAST, Type.getInternalName(type));
+            }
+        }
+
+    }
+
+    private static class ReaderGenerator extends MapperGenerator {
+
+        ReaderGenerator(Class<?> recordClass, Schema schema) {
+            super(recordClass, schema, "$$AvroReader");
+            if (!recordClass.isRecord()) {
+                throw new IllegalArgumentException(recordClass.getName() + " is not a Java Record");
+            }
+        }
+
+        @Override
+        protected void generateApply(MethodVisitor mv) {
+            returnNullIfNullArgument(mv);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitTypeInsn(CHECKCAST, GENERIC_RECORD);
+            mv.visitVarInsn(ASTORE, 2);
+
+            String recordName = Type.getInternalName(recordClass);
+            mv.visitTypeInsn(NEW, recordName);
+            mv.visitInsn(DUP);
+            StringBuilder constructorDesc = new StringBuilder("(");
+            for (RecordComponent component : recordClass.getRecordComponents()) {
+                Field field = schema.getField(getFieldName(component));
+                loadComponentValue(mv, component, field);
+                constructorDesc.append(Type.getDescriptor(component.getType()));
+            }
+            constructorDesc.append(")V");
+            mv.visitMethodInsn(INVOKESPECIAL, recordName, "<init>", constructorDesc.toString(), false);
+            mv.visitInsn(ARETURN);
+        }
+
+        private void loadComponentValue(MethodVisitor mv, RecordComponent component, Field field) {
+            Class<?> type = component.getType();
+            if (field == null) {
+                loadMissingValue(mv, type);
+                return;
+            }
+            Schema fieldSchema = notNullSchema(field.schema());
+            if (fieldSchema.getType() == Schema.Type.RECORD) {
+                loadConstant(mv, readMapper(type, fieldSchema), Function.class);
+                loadField(mv, field);
+                mv.visitMethodInsn(INVOKEINTERFACE, FUNCTION, "apply", APPLY_DESC, true);
+                checkCast(mv, type);
+                return;
+            }
+            java.lang.reflect.Type genericType = component.getGenericType();
+            if (genericType instanceof TypeVariable<?>) {
+                throw new RecordTypeConversionException("Generic type <" + genericType + "> not supported in records");
+            }
+            if (genericType instanceof ParameterizedType paramType) {
+                loadCollection(mv, paramType, field, fieldSchema);
+                checkCast(mv, type);
+                return;
+            }
+            if (type.isEnum()) {
+                mv.visitLdcInsn(Type.getType(type));
+                loadField(mv, field);
+                invokeSupport(mv, "toEnum", "(Ljava/lang/Class;Ljava/lang/Object;)Ljava/lang/Enum;");
+                checkCast(mv, type);
+                return;
+            }
+            loadField(mv, field);
+            String conversion = switch (type.getName()) {
+            case "java.lang.String" -> "toStr";
+            case "int" -> "toInt";
+            case "long" -> "toLong";
+            case "double" -> "toDouble";
+            case "float" -> "toFloat";
+            case "short" -> "toShort";
+            case "byte" -> "toByte";
+            case "boolean" -> "toBoolean";
+            case "java.lang.Integer" -> "toBoxedInt";
+            case "java.lang.Long" -> "toBoxedLong";
+            case "java.lang.Double" -> "toBoxedDouble";
+            case "java.lang.Float" -> "toBoxedFloat";
+            case "java.lang.Short" -> "toBoxedShort";
+            case "java.lang.Byte" -> "toBoxedByte";
+            case "java.lang.Boolean" -> "toBoxedBoolean";
+            default -> throw new RecordTypeConversionException(type + " type not supported");
+            };
+            invokeSupport(mv, conversion, CONVERSION_DESC + Type.getDescriptor(type));
+        }
+
+        private void loadCollection(MethodVisitor mv, ParameterizedType paramType, Field field, Schema fieldSchema) {
+            Class<?> parametizedClass = (Class<?>) paramType.getRawType();
+            if (fieldSchema.getType() != Schema.Type.ARRAY) {
+                throw new RecordTypeConversionException(
+                        "Invalid parquet type " + field.schema().getType() + ", expected Array");
+            }
+            if (!Collection.class.isAssignableFrom(parametizedClass)) {
+                throw new RecordTypeConversionException("Invalid collection type " + paramType.getRawType());
+            }
+            java.lang.reflect.Type listType = paramType.getActualTypeArguments()[0];
+            if (!(listType instanceof Class<?> elementType)) {
+                throw new RecordTypeConversionException("Invalid type " + parametizedClass + " as " + listType);
+            }
+            Schema elementSchema = fieldSchema.getElementType();
+            if (elementSchema.getType() == Schema.Type.RECORD) {
+                loadField(mv, field);
+                loadConstant(mv, readMapper(elementType, elementSchema), Function.class);
+                invokeSupport(mv, "mapList", "(Ljava/lang/Object;Ljava/util/function/Function;)Ljava/util/List;");
+                return;
+            }
+            if (elementType.isEnum()) {
+                mv.visitLdcInsn(Type.getType(elementType));
+                loadField(mv, field);
+                invokeSupport(mv, "toEnumList", "(Ljava/lang/Class;Ljava/lang/Object;)Ljava/util/List;");
+                return;
+            }
+            String conversion = switch (elementType.getName()) {
+            case "java.lang.String" -> "toStrList";
+            case "java.lang.Integer", "java.lang.Long", "java.lang.Double", "java.lang.Float",
+                    "java.lang.Boolean" -> "copyList";
+            case "java.lang.Short" -> "toShortList";
+            case "java.lang.Byte" -> "toByteList";
+            default -> throw new RecordTypeConversionException(elementType + " type not supported");
+            };
+            loadField(mv, field);
+            invokeSupport(mv, conversion, "(Ljava/lang/Object;)Ljava/util/List;");
+        }
+
+        private void loadField(MethodVisitor mv, Field field) {
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitLdcInsn(field.pos());
+            mv.visitMethodInsn(INVOKEINTERFACE, GENERIC_RECORD, "get", "(I)Ljava/lang/Object;", true);
+        }
+
+        private void loadMissingValue(MethodVisitor mv, Class<?> type) {
+            switch (type.getName()) {
+            case "byte", "short", "int", "boolean" -> mv.visitInsn(ICONST_0);
+            case "long" -> mv.visitInsn(LCONST_0);
+            case "double" -> mv.visitInsn(DCONST_0);
+            case "float" -> mv.visitInsn(FCONST_0);
+            case "java.lang.Byte" -> boxed(mv, ICONST_0, Byte.class, "B");
+            case "java.lang.Short" -> boxed(mv, ICONST_0, Short.class, "S");
+            case "java.lang.Integer" -> boxed(mv, ICONST_0, Integer.class, "I");
+            case "java.lang.Long" -> boxed(mv, LCONST_0, Long.class, "J");
+            case "java.lang.Double" -> boxed(mv, DCONST_0, Double.class, "D");
+            case "java.lang.Float" -> boxed(mv, FCONST_0, Float.class, "F");
+            case "java.lang.Boolean" -> boxed(mv, ICONST_0, Boolean.class, "Z");
+            default -> mv.visitInsn(ACONST_NULL);
+            }
+        }
+
+        private static void boxed(MethodVisitor mv, int zero, Class<?> boxedType, String primitiveDesc) {
+            mv.visitInsn(zero);
+            String owner = Type.getInternalName(boxedType);
+            mv.visitMethodInsn(INVOKESTATIC, owner, "valueOf", "(" + primitiveDesc + ")L" + owner + ";", false);
+        }
+
+    }
+
+    private static class FactoryGenerator extends MapperGenerator {
+
+        FactoryGenerator(Class<?> recordClass) {
+            super(recordClass, null, "$$Factory");
+            if (!recordClass.isRecord()) {
+                throw new IllegalArgumentException(recordClass.getName() + " is not a Java Record");
+            }
+        }
+
+        @Override
+        protected void generateApply(MethodVisitor mv) {
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitTypeInsn(CHECKCAST, "[Ljava/lang/Object;");
+            mv.visitVarInsn(ASTORE, 2);
+
+            String recordName = Type.getInternalName(recordClass);
+            mv.visitTypeInsn(NEW, recordName);
+            mv.visitInsn(DUP);
+            StringBuilder constructorDesc = new StringBuilder("(");
+            RecordComponent[] components = recordClass.getRecordComponents();
+            for (int i = 0; i < components.length; i++) {
+                Class<?> type = components[i].getType();
+                mv.visitVarInsn(ALOAD, 2);
+                mv.visitLdcInsn(i);
+                mv.visitInsn(AALOAD);
+                if (type.isPrimitive()) {
+                    unbox(mv, type);
+                } else {
+                    checkCast(mv, type);
+                }
+                constructorDesc.append(Type.getDescriptor(type));
+            }
+            constructorDesc.append(")V");
+            mv.visitMethodInsn(INVOKESPECIAL, recordName, "<init>", constructorDesc.toString(), false);
+            mv.visitInsn(ARETURN);
+        }
+
+        private static void unbox(MethodVisitor mv, Class<?> type) {
+            Class<?> boxedType = MethodType.methodType(type).wrap().returnType();
+            String owner = Type.getInternalName(boxedType);
+            mv.visitTypeInsn(CHECKCAST, owner);
+            mv.visitMethodInsn(INVOKEVIRTUAL, owner, type.getName() + "Value", "()" + Type.getDescriptor(type),
+                    false);
+        }
+
+    }
+
+    private static class WriterGenerator extends MapperGenerator {
+
+        WriterGenerator(Class<?> recordClass, Schema schema) {
+            super(recordClass, schema, "$$AvroWriter");
+            if (!recordClass.isRecord()) {
+                throw new RecordTypeConversionException(recordClass.getName() + " is not a Java Record");
+            }
+        }
+
+        @Override
+        protected void generateApply(MethodVisitor mv) {
+            returnNullIfNullArgument(mv);
+            String recordName = Type.getInternalName(recordClass);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitTypeInsn(CHECKCAST, recordName);
+            mv.visitVarInsn(ASTORE, 2);
+
+            mv.visitTypeInsn(NEW, AVRO_RECORD);
+            mv.visitInsn(DUP);
+            loadConstant(mv, schema, Schema.class);
+            mv.visitMethodInsn(INVOKESPECIAL, AVRO_RECORD, "<init>", "(Lorg/apache/avro/Schema;)V", false);
+            mv.visitVarInsn(ASTORE, 3);
+
+            for (RecordComponent component : recordClass.getRecordComponents()) {
+                Field field = schema.getField(getFieldName(component));
+                if (field == null) {
+                    throw new RecordTypeConversionException("Field " + getFieldName(component) + " not found in "
+                            + schema.getFullName());
+                }
+                mv.visitVarInsn(ALOAD, 3);
+                mv.visitLdcInsn(field.pos());
+                mv.visitVarInsn(ALOAD, 2);
+                mv.visitMethodInsn(INVOKEVIRTUAL, recordName, component.getName(),
+                        "()" + Type.getDescriptor(component.getType()), false);
+                convertComponentValue(mv, component, notNullSchema(field.schema()));
+                mv.visitMethodInsn(INVOKEVIRTUAL, AVRO_RECORD, "put", "(ILjava/lang/Object;)V", false);
+            }
+            mv.visitVarInsn(ALOAD, 3);
+            mv.visitInsn(ARETURN);
+        }
+
+        private void convertComponentValue(MethodVisitor mv, RecordComponent component, Schema fieldSchema) {
+            Class<?> type = component.getType();
+            if (type.isRecord()) {
+                loadConstant(mv, writeMapper(type, fieldSchema), Function.class);
+                mv.visitInsn(SWAP);
+                mv.visitMethodInsn(INVOKEINTERFACE, FUNCTION, "apply", APPLY_DESC, true);
+                return;
+            }
+            if (fieldSchema.getType() == Schema.Type.ARRAY
+                    && component.getGenericType() instanceof ParameterizedType paramType) {
+                convertCollection(mv, (Class<?>) paramType.getActualTypeArguments()[0], fieldSchema);
+                return;
+            }
+            if (type.isEnum()) {
+                loadConstant(mv, enumSymbols(fieldSchema, type), EnumSymbol[].class);
+                invokeSupport(mv, "toEnumSymbol",
+                        "(Ljava/lang/Object;[Lorg/apache/avro/generic/GenericData$EnumSymbol;)Ljava/lang/Object;");
+                return;
+            }
+            switch (type.getName()) {
+            case "int", "short", "byte" -> box(mv, Integer.class, "I");
+            case "long" -> box(mv, Long.class, "J");
+            case "double" -> box(mv, Double.class, "D");
+            case "float" -> box(mv, Float.class, "F");
+            case "boolean" -> box(mv, Boolean.class, "Z");
+            case "java.lang.Short", "java.lang.Byte" -> invokeSupport(mv, "toBoxedInt",
+                    "(Ljava/lang/Object;)Ljava/lang/Integer;");
+            default -> {
+                if (!SIMPLE_MAPPER.contains(type.getName())) {
+                    throw new RecordTypeConversionException(type + " type not supported");
+                }
+            }
+            }
+        }
+
+        private void convertCollection(MethodVisitor mv, Class<?> elementType, Schema fieldSchema) {
+            Schema elementSchema = fieldSchema.getElementType();
+            if (elementType.isRecord()) {
+                loadConstant(mv, writeMapper(elementType, elementSchema), Function.class);
+                invokeSupport(mv, "mapList", "(Ljava/lang/Object;Ljava/util/function/Function;)Ljava/util/List;");
+            } else if (SIMPLE_MAPPER.contains(elementType.getTypeName())) {
+                invokeSupport(mv, "copyList", "(Ljava/lang/Object;)Ljava/util/List;");
+            } else if (elementType.isEnum()) {
+                loadConstant(mv, enumSymbols(elementSchema, elementType), EnumSymbol[].class);
+                invokeSupport(mv, "toEnumSymbolList",
+                        "(Ljava/lang/Object;[Lorg/apache/avro/generic/GenericData$EnumSymbol;)Ljava/util/List;");
+            } else {
+                throw new RecordTypeConversionException("Unsupported type in collection: " + elementType.getName());
+            }
+        }
+
+        private static void box(MethodVisitor mv, Class<?> boxedType, String primitiveDesc) {
+            String owner = Type.getInternalName(boxedType);
+            mv.visitMethodInsn(INVOKESTATIC, owner, "valueOf", "(" + primitiveDesc + ")L" + owner + ";", false);
+        }
+
+    }
+
+}
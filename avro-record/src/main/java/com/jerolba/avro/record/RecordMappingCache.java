@@ -0,0 +1,124 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.avro.record;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.Function;
+
+/**
+ *
+ * Bounded thread-safe cache of the schemas and mappers built for record
+ * classes, so readers and writers of the same record type reuse them instead
+ * of inspecting the record again with reflection. When the cache is full the
+ * least recently used entry is evicted.
+ *
+ * Values are built outside of the lock, so concurrent misses of the same key
+ * may build it more than once, but only the first one is kept. Cached values
+ * must be immutable or thread-safe.
+ *
+ * Keys and values are strongly referenced. The caches held in static fields
+ * keep the record classes of their entries, and so their class loaders,
+ * reachable until the entries are evicted or the cache is cleared. Weak keys
+ * would not release them, because the cached mappers reference the class of
+ * their key. Applications that unload record classes, like those redeployed in
+ * an application server, should load this library in the same class loader as
+ * the records, or expect up to {@code maxSize} stale entries per cache.
+ *
+ * @param <K> the type of the keys, usually the record class and a schema
+ *            fingerprint
+ * @param <V> the type of the cached values
+ */
+public final class RecordMappingCache<K, V> {
+
+    /**
+     * Default maximum number of entries of a cache.
+     */
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private final Map<K, V> cache;
+
+    /**
+     * Creates a cache with {@link #DEFAULT_MAX_SIZE} entries at most.
+     */
+    public RecordMappingCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a cache with the specified maximum number of entries.
+     *
+     * @param maxSize the maximum number of entries
+     */
+    public RecordMappingCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Invalid cache size " + maxSize);
+        }
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+
+        };
+    }
+
+    /**
+     * Returns the value of the key, building and caching it if not present.
+     *
+     * @param key     the key of the value
+     * @param builder the function that builds the value of the key
+     * @return the cached or built value
+     */
+    public V get(K key, Function<? super K, ? extends V> builder) {
+        synchronized (cache) {
+            V value = cache.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        V value = builder.apply(key);
+        synchronized (cache) {
+            V previous = cache.putIfAbsent(key, value);
+            return previous != null ? previous : value;
+        }
+    }
+
+    /**
+     * Returns the number of entries in the cache.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+}
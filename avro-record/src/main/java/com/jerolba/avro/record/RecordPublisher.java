@@ -0,0 +1,219 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.avro.record;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *
+ * {@link Flow.Publisher} of the records of a file, honoring the demand of its
+ * subscribers. Each subscription opens the file and reads it in a background
+ * thread, buffering at most a bounded number of records ahead of the demand.
+ * The thread blocks while the buffer is full, so a slow subscriber never makes
+ * the reader hold more records in memory than the read-ahead.
+ *
+ * Records are delivered serially, either from the reading thread or from the
+ * thread requesting more records. The file is closed when all records are
+ * read, when reading fails, or as soon as the subscription is cancelled.
+ *
+ * @param <T> the type of the records
+ */
+public final class RecordPublisher<T> implements Flow.Publisher<T> {
+
+    /**
+     * Default maximum number of records read ahead of the demand.
+     */
+    public static final int DEFAULT_READ_AHEAD = 1024;
+
+    private final String threadName;
+    private final Callable<? extends Iterator<T>> opener;
+    private final int readAhead;
+
+    /**
+     * Creates a publisher that reads the records of each subscription from a new
+     * iterator. If the iterator is {@link AutoCloseable}, it is closed when the
+     * subscription terminates.
+     *
+     * @param threadName the name of the reading threads
+     * @param opener     the function that opens the file and returns an iterator
+     *                   over its records
+     * @param readAhead  the maximum number of records read ahead of the demand
+     */
+    public RecordPublisher(String threadName, Callable<? extends Iterator<T>> opener, int readAhead) {
+        if (readAhead <= 0) {
+            throw new IllegalArgumentException("Invalid read ahead " + readAhead);
+        }
+        this.threadName = threadName;
+        this.opener = opener;
+        this.readAhead = readAhead;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+        RecordSubscription subscription = new RecordSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.start();
+    }
+
+    private class RecordSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> subscriber;
+        private final BlockingQueue<T> buffer = new ArrayBlockingQueue<>(readAhead);
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled = false;
+        private volatile boolean done = false;
+        private volatile Throwable error;
+        private volatile Throwable invalidRequest;
+
+        RecordSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        void start() {
+            if (!cancelled) {
+                Thread thread = new Thread(this::produce, threadName);
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Invalid request of " + n + " records");
+            } else {
+                requested.accumulateAndGet(n, (current, added) -> {
+                    long sum = current + added;
+                    return sum < 0 ? Long.MAX_VALUE : sum;
+                });
+            }
+            drain();
+        }
+
+        /**
+         * Stops reading and closes the file. The buffer is cleared so the reading
+         * thread, if blocked on a full buffer, wakes up and sees the cancellation.
+         */
+        @Override
+        public void cancel() {
+            cancelled = true;
+            buffer.clear();
+        }
+
+        /**
+         * Reads the records into the buffer until all are read or the subscription is
+         * cancelled, closing the file before signaling the end of the records.
+         */
+        private void produce() {
+            Iterator<T> iterator = null;
+            try {
+                iterator = opener.call();
+                while (!cancelled && iterator.hasNext()) {
+                    buffer.put(iterator.next());
+                    drain();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error = e;
+            } catch (Throwable e) {
+                error = e;
+            } finally {
+                if (iterator instanceof AutoCloseable closeable) {
+                    try {
+                        closeable.close();
+                    } catch (Exception e) {
+                        if (error == null) {
+                            error = e;
+                        }
+                    }
+                }
+                done = true;
+                drain();
+            }
+        }
+
+        /**
+         * Delivers the buffered records while there is demand, and the terminal
+         * signal once the buffer is drained. Only one thread delivers at a time, and
+         * the signals of concurrent calls are delivered by that thread. A failure of
+         * the subscriber handling a record cancels the subscription and is signaled
+         * as an error.
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            while (true) {
+                long demand = requested.get();
+                long emitted = 0;
+                while (true) {
+                    if (cancelled) {
+                        buffer.clear();
+                        return;
+                    }
+                    if (invalidRequest != null) {
+                        terminate(invalidRequest);
+                        return;
+                    }
+                    boolean finished = done;
+                    T record = emitted == demand ? null : buffer.poll();
+                    if (record == null) {
+                        if (finished && buffer.isEmpty()) {
+                            terminate(error);
+                            return;
+                        }
+                        break;
+                    }
+                    try {
+                        subscriber.onNext(record);
+                    } catch (Throwable e) {
+                        terminate(e);
+                        return;
+                    }
+                    emitted++;
+                }
+                if (emitted > 0 && demand != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void terminate(Throwable failure) {
+            cancel();
+            if (failure == null) {
+                subscriber.onComplete();
+            } else {
+                subscriber.onError(failure);
+            }
+        }
+
+    }
+
+}
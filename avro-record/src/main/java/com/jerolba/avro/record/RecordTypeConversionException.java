@@ -23,4 +23,8 @@ public class RecordTypeConversionException extends RuntimeException {
         super(message);
     }
 
+    public RecordTypeConversionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
 }
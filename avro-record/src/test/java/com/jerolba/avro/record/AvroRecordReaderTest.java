@@ -22,8 +22,12 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import org.apache.avro.Schema;
@@ -543,6 +547,42 @@ class AvroRecordReaderTest {
             }
         }
 
+        @Test
+        void publisher() throws Exception {
+            AvroRecordReader<Data> reader = new AvroRecordReader<>("/tmp/dataToRead.avro", Data.class);
+            List<Data> readed = new ArrayList<>();
+            CompletableFuture<Void> completed = new CompletableFuture<>();
+            reader.publisher(1).subscribe(new Flow.Subscriber<Data>() {
+
+                private Flow.Subscription subscription;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onNext(Data item) {
+                    readed.add(item);
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    completed.completeExceptionally(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    completed.complete(null);
+                }
+
+            });
+            completed.get(10, TimeUnit.SECONDS);
+            assertEquals(List.of(new Data("foo", 1), new Data("bar", 2), new Data("baz", 3)), readed);
+        }
+
     }
 
     @Nested
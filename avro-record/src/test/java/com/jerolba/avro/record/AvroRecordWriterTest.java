@@ -17,10 +17,13 @@ package com.jerolba.avro.record;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -29,6 +32,8 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import com.jerolba.record.annotation.Alias;
+import com.jerolba.record.annotation.GenerateMapper;
+import com.jerolba.record.annotation.NotNull;
 
 public class AvroRecordWriterTest {
 
@@ -358,6 +363,120 @@ public class AvroRecordWriterTest {
 
     }
 
+    @Nested
+    class GeneratedMappers {
+
+        public record Child(String id, Short size) {
+        }
+
+        private record Generated(String name, int intPrimitive, Integer intObject, long longPrimitive,
+                double doublePrimitive, float floatPrimitive, boolean booleanPrimitive, byte bytePrimitive,
+                Byte byteObject, OrgType orgType, Child child, List<Child> children, List<String> names,
+                List<OrgType> orgTypes) {
+        }
+
+        @Test
+        void writeAndReadGenerated() throws IOException {
+            var rec = new Generated("Amazon", 1, 2, 3L, 4.0, 5.0F, true, (byte) 6, (byte) 7, OrgType.BAR,
+                    new Child("foo", (short) 8), List.of(new Child("bar", null)), List.of("FOO", "BAR"),
+                    List.of(OrgType.BAZ));
+            var empty = new Generated(null, 1, null, 3L, 4.0, 5.0F, false, (byte) 6, null, null, null, null, null,
+                    null);
+            String path = "/tmp/generatedMappers.avro";
+            new AvroRecordWriter<>(Generated.class, true).write(path, List.of(rec, empty));
+
+            var generated = new AvroRecordReader<>(path, Generated.class, true).toList();
+            assertEquals(List.of(rec, empty), generated);
+            var reflection = new AvroRecordReader<>(path, Generated.class).toList();
+            assertEquals(List.of(rec, empty), reflection);
+        }
+
+        public record WithMissing(String name, long missingPrimitive, Integer missingObject) {
+        }
+
+        @Test
+        void readMissingFields() throws IOException {
+            String path = "/tmp/generatedMissingFields.avro";
+            new AvroRecordWriter<>(Child.class, true).write(path, List.of(new Child("foo", (short) 1)));
+
+            var reader = new AvroRecordReader<>(path, WithMissing.class, true);
+            assertEquals(List.of(new WithMissing(null, 0L, 0)), reader.toList());
+        }
+
+    }
+
+    @Nested
+    class CompiledMapping {
+
+        public record CompiledChild(String id, Short size, OrgType orgType) {
+        }
+
+        @GenerateMapper
+        public record Compiled(@Alias("nm") String name, int intPrimitive, @NotNull Integer intObject,
+                byte bytePrimitive, Long longObject, OrgType orgType, CompiledChild child,
+                List<CompiledChild> children, List<String> names, List<OrgType> orgTypes) {
+        }
+
+        @Test
+        void compiledSchemaIsEquivalent() {
+            CompiledRecordMapper<Compiled> compiled = CompiledMappers.find(Compiled.class);
+            assertNotNull(compiled);
+            assertEquals(new JavaRecord2Schema().build(Compiled.class, new HashSet<>()), compiled.schema());
+        }
+
+        public enum Labeled {
+            ONE, TWO;
+
+            @Override
+            public String toString() {
+                return name().toLowerCase();
+            }
+        }
+
+        @GenerateMapper
+        public record WithLabel(String name, Labeled labeled) {
+        }
+
+        @Test
+        void enumSymbolsAreConstantNames() throws IOException {
+            CompiledRecordMapper<WithLabel> compiled = CompiledMappers.find(WithLabel.class);
+            assertNotNull(compiled);
+            assertEquals(new JavaRecord2Schema().build(WithLabel.class, new HashSet<>()), compiled.schema());
+
+            var rec = new WithLabel("foo", Labeled.TWO);
+            var writerTest = new AvroWriterTest<>("/tmp/compiledEnumNames.avro", WithLabel.class);
+            writerTest.write(rec);
+            assertEquals(rec, writerTest.getReadIterator().next());
+        }
+
+        @Test
+        void enumSymbolsOnlyChangeForCustomToString() {
+            var schema = new JavaRecord2Schema().build(Compiled.class, new HashSet<>());
+            var orgTypeSchema = GeneratedMapperSupport.notNullSchema(schema.getField("orgType").schema());
+            assertEquals(Arrays.stream(OrgType.values()).map(Object::toString).toList(),
+                    orgTypeSchema.getEnumSymbols());
+
+            var labeledSchema = new JavaRecord2Schema().build(WithLabel.class, new HashSet<>());
+            assertEquals(List.of("ONE", "TWO"),
+                    GeneratedMapperSupport.notNullSchema(labeledSchema.getField("labeled").schema()).getEnumSymbols());
+        }
+
+        @Test
+        void writeAndReadCompiled() throws IOException {
+            var rec = new Compiled("Amazon", 1, 2, (byte) 3, 4L, OrgType.BAR, new CompiledChild("foo", (short) 5,
+                    OrgType.FOO), List.of(new CompiledChild("bar", null, null)), List.of("FOO", "BAR"),
+                    List.of(OrgType.BAZ));
+            var empty = new Compiled(null, 1, 2, (byte) 3, null, null, null, null, null, null);
+            var writerTest = new AvroWriterTest<>("/tmp/compiledMapper.avro", Compiled.class);
+            writerTest.write(rec, empty);
+
+            var it = writerTest.getReadIterator();
+            assertEquals(rec, it.next());
+            assertEquals(empty, it.next());
+        }
+
+    }
+
     private class AvroWriterTest<T> {
 
         private final String path;
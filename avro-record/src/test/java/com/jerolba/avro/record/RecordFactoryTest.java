@@ -0,0 +1,87 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.avro.record;
+
+import static com.jerolba.avro.record.RecordFactory.recordFactory;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class RecordFactoryTest {
+
+    private record Primitives(int intValue, long longValue, double doubleValue, float floatValue,
+            boolean booleanValue, byte byteValue, short shortValue, char charValue) {
+    }
+
+    record WithObjects(String name, Integer intValue, List<String> names) {
+    }
+
+    record Validated(int value) {
+
+        Validated {
+            if (value < 0) {
+                throw new IllegalArgumentException("Negative value " + value);
+            }
+        }
+
+    }
+
+    @Test
+    void primitiveComponents() {
+        var factory = recordFactory(Primitives.class);
+        Object[] values = { 1, 2L, 3.0, 4.0F, true, (byte) 5, (short) 6, 'a' };
+        assertEquals(new Primitives(1, 2L, 3.0, 4.0F, true, (byte) 5, (short) 6, 'a'), factory.apply(values));
+    }
+
+    @Test
+    void objectComponents() {
+        var factory = recordFactory(WithObjects.class);
+        assertEquals(new WithObjects("foo", 1, List.of("bar")), factory.apply(new Object[] { "foo", 1, List.of("bar") }));
+        assertEquals(new WithObjects(null, null, null), factory.apply(new Object[] { null, null, null }));
+    }
+
+    @Test
+    void factoriesAreCached() {
+        assertSame(recordFactory(WithObjects.class), recordFactory(WithObjects.class));
+    }
+
+    @Test
+    void constructorExceptionsAreNotWrapped() {
+        var factory = recordFactory(Validated.class);
+        assertEquals(new Validated(1), factory.apply(new Object[] { 1 }));
+        var e = assertThrows(IllegalArgumentException.class, () -> factory.apply(new Object[] { -1 }));
+        assertEquals("Negative value -1", e.getMessage());
+    }
+
+    @Test
+    void nullPrimitiveComponent() {
+        var factory = recordFactory(Primitives.class);
+        Object[] values = { null, 2L, 3.0, 4.0F, true, (byte) 5, (short) 6, 'a' };
+        assertThrows(NullPointerException.class, () -> factory.apply(values));
+    }
+
+    @Test
+    void invalidComponentType() {
+        var factory = recordFactory(Primitives.class);
+        Object[] values = { 1L, 2L, 3.0, 4.0F, true, (byte) 5, (short) 6, 'a' };
+        assertThrows(ClassCastException.class, () -> factory.apply(values));
+    }
+
+}
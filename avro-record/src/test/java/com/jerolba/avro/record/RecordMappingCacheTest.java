@@ -0,0 +1,74 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.avro.record;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.avro.Schema;
+import org.junit.jupiter.api.Test;
+
+class RecordMappingCacheTest {
+
+    @Test
+    void reuseBuiltValues() {
+        RecordMappingCache<String, Object> cache = new RecordMappingCache<>();
+        AtomicInteger builds = new AtomicInteger();
+        Object first = cache.get("foo", key -> new Object[] { builds.incrementAndGet() });
+        Object second = cache.get("foo", key -> new Object[] { builds.incrementAndGet() });
+        assertSame(first, second);
+        assertEquals(1, builds.get());
+    }
+
+    @Test
+    void evictLeastRecentlyUsed() {
+        RecordMappingCache<Integer, String> cache = new RecordMappingCache<>(2);
+        cache.get(1, Object::toString);
+        cache.get(2, Object::toString);
+        cache.get(1, key -> "rebuilt");
+        cache.get(3, Object::toString);
+        assertEquals(2, cache.size());
+        assertEquals("1", cache.get(1, key -> "rebuilt"));
+        assertEquals("rebuilt", cache.get(2, key -> "rebuilt"));
+    }
+
+    @Test
+    void failedBuildsAreNotCached() {
+        RecordMappingCache<Integer, String> cache = new RecordMappingCache<>(2);
+        assertThrows(RecordTypeConversionException.class, () -> cache.get(1, key -> {
+            throw new RecordTypeConversionException("invalid");
+        }));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void invalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new RecordMappingCache<>(0));
+    }
+
+    public record Cached(String name, int value) {
+    }
+
+    @Test
+    void schemasAreCachedByRecordClass() {
+        Schema schema = new JavaRecord2Schema().build(Cached.class);
+        assertSame(schema, new JavaRecord2Schema().build(Cached.class));
+    }
+
+}
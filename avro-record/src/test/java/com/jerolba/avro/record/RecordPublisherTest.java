@@ -0,0 +1,248 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.avro.record;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class RecordPublisherTest {
+
+    private static class CountingIterator implements Iterator<Integer>, AutoCloseable {
+
+        private final int size;
+        private volatile int read = 0;
+        private volatile boolean closed = false;
+
+        CountingIterator(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return read < size;
+        }
+
+        @Override
+        public Integer next() {
+            return read++;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+    }
+
+    private static class TestSubscriber implements Flow.Subscriber<Integer> {
+
+        private final long batch;
+        private final List<Integer> received = new ArrayList<>();
+        private final CountDownLatch terminated = new CountDownLatch(1);
+        Flow.Subscription subscription;
+        private volatile boolean completed = false;
+        private volatile Throwable error;
+
+        TestSubscriber(long batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(batch);
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            received.add(item);
+            if (received.size() % batch == 0) {
+                subscription.request(batch);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            terminated.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue(terminated.await(10, TimeUnit.SECONDS));
+        }
+
+    }
+
+    @Test
+    void publishAllRecordsInOrder() throws InterruptedException {
+        CountingIterator iterator = new CountingIterator(100_000);
+        var publisher = new RecordPublisher<>("test-publisher", () -> iterator, 16);
+        TestSubscriber subscriber = new TestSubscriber(7);
+        publisher.subscribe(subscriber);
+        subscriber.await();
+        assertTrue(subscriber.completed);
+        assertEquals(IntStream.range(0, 100_000).boxed().toList(), subscriber.received);
+        assertTrue(iterator.closed);
+    }
+
+    @Test
+    void unboundedDemand() throws InterruptedException {
+        var publisher = new RecordPublisher<>("test-publisher", () -> new CountingIterator(10_000), 16);
+        TestSubscriber subscriber = new TestSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(subscriber);
+        subscriber.await();
+        assertEquals(10_000, subscriber.received.size());
+    }
+
+    @Test
+    void readAheadIsBounded() throws InterruptedException {
+        CountingIterator iterator = new CountingIterator(1_000_000);
+        var publisher = new RecordPublisher<>("test-publisher", () -> iterator, 10);
+        TestSubscriber subscriber = new TestSubscriber(5) {
+
+            @Override
+            public void onNext(Integer item) {
+            }
+
+        };
+        publisher.subscribe(subscriber);
+        Thread.sleep(200);
+        assertTrue(iterator.read <= 5 + 10 + 1);
+        subscriber.subscription.cancel();
+    }
+
+    @Test
+    void cancelClosesIterator() throws InterruptedException {
+        CountingIterator iterator = new CountingIterator(1_000_000);
+        var publisher = new RecordPublisher<>("test-publisher", () -> iterator, 10);
+        TestSubscriber subscriber = new TestSubscriber(100) {
+
+            @Override
+            public void onNext(Integer item) {
+                super.onNext(item);
+                if (item == 1000) {
+                    subscription.cancel();
+                }
+            }
+
+        };
+        publisher.subscribe(subscriber);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!iterator.closed && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(iterator.closed);
+        assertEquals(1001, subscriber.received.size());
+        assertFalse(subscriber.completed);
+    }
+
+    @Test
+    void invalidRequest() throws InterruptedException {
+        CountingIterator iterator = new CountingIterator(100);
+        var publisher = new RecordPublisher<>("test-publisher", () -> iterator, 10);
+        TestSubscriber subscriber = new TestSubscriber(0);
+        publisher.subscribe(subscriber);
+        subscriber.await();
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+    }
+
+    @Test
+    void openError() throws InterruptedException {
+        var publisher = new RecordPublisher<Integer>("test-publisher", () -> {
+            throw new IOException("Can not open file");
+        }, 10);
+        TestSubscriber subscriber = new TestSubscriber(10);
+        publisher.subscribe(subscriber);
+        subscriber.await();
+        assertTrue(subscriber.error instanceof IOException);
+    }
+
+    @Test
+    void readingError() throws InterruptedException {
+        CountingIterator iterator = new CountingIterator(100) {
+
+            @Override
+            public Integer next() {
+                Integer next = super.next();
+                if (next == 50) {
+                    throw new StackOverflowError();
+                }
+                return next;
+            }
+
+        };
+        var publisher = new RecordPublisher<>("test-publisher", () -> iterator, 10);
+        TestSubscriber subscriber = new TestSubscriber(10);
+        publisher.subscribe(subscriber);
+        subscriber.await();
+        assertFalse(subscriber.completed);
+        assertTrue(subscriber.error instanceof StackOverflowError);
+        assertEquals(IntStream.range(0, 50).boxed().toList(), subscriber.received);
+        assertTrue(iterator.closed);
+    }
+
+    @Test
+    void subscriberError() throws InterruptedException {
+        CountingIterator iterator = new CountingIterator(1_000_000);
+        var publisher = new RecordPublisher<>("test-publisher", () -> iterator, 10);
+        TestSubscriber subscriber = new TestSubscriber(100) {
+
+            @Override
+            public void onNext(Integer item) {
+                super.onNext(item);
+                if (item == 500) {
+                    throw new IllegalStateException("Can not handle record");
+                }
+            }
+
+        };
+        publisher.subscribe(subscriber);
+        subscriber.await();
+        assertTrue(subscriber.error instanceof IllegalStateException);
+        assertEquals(501, subscriber.received.size());
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!iterator.closed && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(iterator.closed);
+    }
+
+    @Test
+    void invalidReadAhead() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RecordPublisher<>("test-publisher", () -> new CountingIterator(10), 0));
+    }
+
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.record.annotation;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ *
+ * Marks a record to generate at compile time its Avro schema and the mappers
+ * between the record and Avro records, which are used instead of building
+ * them with reflection at runtime.
+ *
+ * The class is generated by
+ * {@code com.jerolba.record.processor.GenerateMapperProcessor}, that must be
+ * added explicitly to the annotation processor path of the project, like
+ * {@code annotationProcessor 'com.jerolba:data-record'} in Gradle or
+ * {@code <annotationProcessorPaths>} in the Maven compiler plugin. Do not
+ * rely on its discovery from the compile classpath, where it is a dependency of
+ * avro-record and parquet-record: Gradle ignores processors of the compile
+ * classpath, javac 21 and 22 warn when running them, and since JDK 23 javac
+ * does not run them unless {@code -proc:full} is set. Records are mapped with
+ * reflection if the class is not generated.
+ *
+ */
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface GenerateMapper {
+
+}
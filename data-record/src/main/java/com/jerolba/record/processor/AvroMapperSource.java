@@ -0,0 +1,425 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.record.processor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+
+import com.jerolba.record.annotation.Alias;
+import com.jerolba.record.annotation.NotNull;
+
+/**
+ *
+ * Builds the source of the mapper class of a record: its Avro schema, with the
+ * same structure that JavaRecord2Schema builds at runtime, and a pair of static
+ * methods per record type reachable from the main record, converting it from
+ * and to a GenericRecord with direct calls to the accessors and the canonical
+ * constructor. The constructor and accessors of each record type are also
+ * exposed as functions, for the Parquet reader and writer that decode and
+ * encode the values themselves.
+ *
+ */
+class AvroMapperSource {
+
+    private static final String SUPPORT = "com.jerolba.avro.record.GeneratedMapperSupport";
+    private static final String SCHEMA = "org.apache.avro.Schema";
+    private static final String GENERIC_RECORD = "org.apache.avro.generic.GenericRecord";
+    private static final String AVRO_RECORD = "org.apache.avro.generic.GenericData.Record";
+    private static final String ENUM_SYMBOL = "org.apache.avro.generic.GenericData.EnumSymbol";
+
+    private final Types types;
+    private final TypeMirror collectionType;
+    private final TypeElement recordElement;
+    private final Map<String, Integer> recordIndexes = new HashMap<>();
+    private final List<RecordMapping> records = new ArrayList<>();
+    private final List<String> constants = new ArrayList<>();
+    private final Set<String> definedEnums = new HashSet<>();
+    private final Set<TypeElement> visiting = new HashSet<>();
+    private final Set<Integer> listMappers = new TreeSet<>();
+
+    private record RecordMapping(String typeName, List<String> readValues, List<String> writeValues,
+            List<String> accessors, List<String> componentTypes) {
+    }
+
+    private record TypeMapping(String schema, boolean composite, UnaryOperator<String> read,
+            UnaryOperator<String> write) {
+    }
+
+    AvroMapperSource(ProcessingEnvironment processingEnv, TypeElement recordElement) {
+        this.types = processingEnv.getTypeUtils();
+        this.collectionType = types.erasure(processingEnv.getElementUtils().getTypeElement("java.util.Collection")
+                .asType());
+        this.recordElement = recordElement;
+    }
+
+    String generate(String className) {
+        String schema = recordSchema(recordElement, "SCHEMA");
+        int lastDot = className.lastIndexOf('.');
+        String packageName = lastDot < 0 ? null : className.substring(0, lastDot);
+        String simpleName = className.substring(lastDot + 1);
+        String typeName = recordElement.getQualifiedName().toString();
+
+        StringBuilder sb = new StringBuilder();
+        if (packageName != null) {
+            sb.append("package ").append(packageName).append(";\n\n");
+        }
+        sb.append("@javax.annotation.processing.Generated(\"").append(GenerateMapperProcessor.class.getName())
+                .append("\")\n");
+        sb.append("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })\n");
+        sb.append("public final class ").append(simpleName).append(" implements com.jerolba.avro.record.")
+                .append("CompiledRecordMapper<").append(typeName).append("> {\n\n");
+        sb.append("    public static final ").append(SCHEMA).append(" SCHEMA = new ").append(SCHEMA)
+                .append(".Parser().parse(\"").append(schema.replace("\\", "\\\\").replace("\"", "\\\""))
+                .append("\");\n");
+        for (String constant : constants) {
+            sb.append("    private static final ").append(constant).append(";\n");
+        }
+        sb.append("\n    @Override\n");
+        sb.append("    public ").append(SCHEMA).append(" schema() {\n");
+        sb.append("        return SCHEMA;\n");
+        sb.append("    }\n\n");
+        sb.append("    @Override\n");
+        sb.append("    public ").append(GENERIC_RECORD).append(" write(").append(typeName).append(" record) {\n");
+        sb.append("        return write0(record);\n");
+        sb.append("    }\n\n");
+        sb.append("    @Override\n");
+        sb.append("    public ").append(typeName).append(" read(").append(GENERIC_RECORD).append(" record) {\n");
+        sb.append("        return read0(record);\n");
+        sb.append("    }\n");
+        generateConstructors(sb);
+        generateAccessors(sb);
+        for (int i = 0; i < records.size(); i++) {
+            generateMappers(sb, i, records.get(i));
+        }
+        for (int i : listMappers) {
+            generateListMappers(sb, i, records.get(i));
+        }
+        sb.append("\n}\n");
+        return sb.toString();
+    }
+
+    private void generateConstructors(StringBuilder sb) {
+        sb.append("\n    @Override\n");
+        sb.append("    public java.util.function.Function<Object[], Object> constructor(Class<?> recordClass) {\n");
+        for (RecordMapping mapping : records) {
+            sb.append("        if (recordClass == ").append(mapping.typeName()).append(".class) {\n");
+            sb.append("            return v -> new ").append(mapping.typeName()).append("(");
+            List<String> componentTypes = mapping.componentTypes();
+            for (int pos = 0; pos < componentTypes.size(); pos++) {
+                sb.append(pos == 0 ? "" : ", ").append("(").append(componentTypes.get(pos)).append(") v[").append(pos)
+                        .append("]");
+            }
+            sb.append(");\n");
+            sb.append("        }\n");
+        }
+        sb.append("        return null;\n");
+        sb.append("    }\n");
+    }
+
+    private void generateAccessors(StringBuilder sb) {
+        sb.append("\n    @Override\n");
+        sb.append("    public java.util.List<java.util.function.Function<Object, Object>> accessors(")
+                .append("Class<?> recordClass) {\n");
+        for (RecordMapping mapping : records) {
+            sb.append("        if (recordClass == ").append(mapping.typeName()).append(".class) {\n");
+            sb.append("            return java.util.List.of(");
+            sb.append(mapping.accessors().stream()
+                    .map(a -> "\n                    r -> ((" + mapping.typeName() + ") r)." + a + "()")
+                    .collect(Collectors.joining(",")));
+            sb.append(");\n");
+            sb.append("        }\n");
+        }
+        sb.append("        return null;\n");
+        sb.append("    }\n");
+    }
+
+    private void generateMappers(StringBuilder sb, int idx, RecordMapping mapping) {
+        sb.append("\n    private static ").append(GENERIC_RECORD).append(" write").append(idx).append("(")
+                .append(mapping.typeName()).append(" r) {\n");
+        sb.append("        if (r == null) {\n");
+        sb.append("            return null;\n");
+        sb.append("        }\n");
+        sb.append("        ").append(AVRO_RECORD).append(" g = new ").append(AVRO_RECORD).append("(SCHEMA_")
+                .append(idx).append(");\n");
+        List<String> writeValues = mapping.writeValues();
+        for (int pos = 0; pos < writeValues.size(); pos++) {
+            sb.append("        g.put(").append(pos).append(", ").append(writeValues.get(pos)).append(");\n");
+        }
+        sb.append("        return g;\n");
+        sb.append("    }\n\n");
+
+        sb.append("    private static ").append(mapping.typeName()).append(" read").append(idx).append("(")
+                .append(GENERIC_RECORD).append(" g) {\n");
+        sb.append("        if (g == null) {\n");
+        sb.append("            return null;\n");
+        sb.append("        }\n");
+        sb.append("        return new ").append(mapping.typeName()).append("(");
+        sb.append(mapping.readValues().stream().map(v -> "\n                " + v).collect(Collectors.joining(",")));
+        sb.append(");\n");
+        sb.append("    }\n");
+    }
+
+    private void generateListMappers(StringBuilder sb, int idx, RecordMapping mapping) {
+        sb.append("\n    private static java.util.List<Object> write").append(idx).append("List(Object v) {\n");
+        appendListLoop(sb, "write" + idx + "((" + mapping.typeName() + ") e)");
+        sb.append("    }\n\n");
+        sb.append("    private static java.util.List<Object> read").append(idx).append("List(Object v) {\n");
+        appendListLoop(sb, "read" + idx + "((" + GENERIC_RECORD + ") e)");
+        sb.append("    }\n");
+    }
+
+    private void appendListLoop(StringBuilder sb, String elementMapping) {
+        sb.append("        if (v == null) {\n");
+        sb.append("            return null;\n");
+        sb.append("        }\n");
+        sb.append("        java.util.Collection<?> src = (java.util.Collection<?>) v;\n");
+        sb.append("        java.util.List<Object> res = new java.util.ArrayList<>(src.size());\n");
+        sb.append("        for (Object e : src) {\n");
+        sb.append("            res.add(").append(elementMapping).append(");\n");
+        sb.append("        }\n");
+        sb.append("        return res;\n");
+    }
+
+    private String recordSchema(TypeElement element, String schemaExpression) {
+        String fullName = element.getQualifiedName().toString();
+        if (visiting.contains(element)) {
+            throw new UnsupportedRecordException("Recursive records are not supported", element);
+        }
+        if (recordIndexes.containsKey(fullName)) {
+            return quote(fullName);
+        }
+        checkAccessible(element);
+        String name = element.getSimpleName().toString();
+        String namespace = fullName.substring(0, fullName.length() - name.length() - 1);
+
+        int idx = records.size();
+        recordIndexes.put(fullName, idx);
+        records.add(null);
+        constants.add(SCHEMA + " SCHEMA_" + idx + " = " + schemaExpression);
+        visiting.add(element);
+
+        List<String> fields = new ArrayList<>();
+        List<String> readValues = new ArrayList<>();
+        List<String> writeValues = new ArrayList<>();
+        List<String> accessors = new ArrayList<>();
+        List<String> componentTypes = new ArrayList<>();
+        List<? extends RecordComponentElement> components = element.getRecordComponents();
+        for (int pos = 0; pos < components.size(); pos++) {
+            RecordComponentElement component = components.get(pos);
+            String fieldName = fieldName(component);
+            TypeMirror type = component.asType();
+            String fieldSchema = SUPPORT + ".notNullSchema(SCHEMA_" + idx + ".getField(\"" + fieldName
+                    + "\").schema())";
+            TypeMapping mapping = mapType(type, fieldSchema, namespace, element);
+            String typeSchema = mapping.schema();
+            if (!type.getKind().isPrimitive() && component.getAnnotation(NotNull.class) == null) {
+                typeSchema = mapping.composite() ? "[\"null\"," + typeSchema + "]" : "[" + typeSchema + ",\"null\"]";
+            }
+            fields.add("{\"name\":" + quote(fieldName) + ",\"type\":" + typeSchema + "}");
+            readValues.add(mapping.read().apply("g.get(" + pos + ")"));
+            writeValues.add(mapping.write().apply("r." + component.getSimpleName() + "()"));
+            accessors.add(component.getSimpleName().toString());
+            componentTypes.add(types.erasure(type).toString());
+        }
+        visiting.remove(element);
+        records.set(idx, new RecordMapping(fullName, readValues, writeValues, accessors, componentTypes));
+        return "{\"type\":\"record\",\"name\":" + quote(name) + ",\"namespace\":" + quote(namespace)
+                + ",\"fields\":[" + String.join(",", fields) + "]}";
+    }
+
+    private TypeMapping mapType(TypeMirror type, String schemaExpression, String namespace, Element ctx) {
+        switch (type.getKind()) {
+        case INT:
+            return simple("int", "toInt", UnaryOperator.identity());
+        case LONG:
+            return simple("long", "toLong", UnaryOperator.identity());
+        case DOUBLE:
+            return simple("double", "toDouble", UnaryOperator.identity());
+        case FLOAT:
+            return simple("float", "toFloat", UnaryOperator.identity());
+        case BOOLEAN:
+            return simple("boolean", "toBoolean", UnaryOperator.identity());
+        case SHORT:
+            return simple("int", "toShort", v -> "(int) " + v);
+        case BYTE:
+            return simple("int", "toByte", v -> "(int) " + v);
+        case TYPEVAR:
+            throw new UnsupportedRecordException(type + " generic types not supported", ctx);
+        case DECLARED:
+            return mapDeclaredType((DeclaredType) type, schemaExpression, namespace, ctx);
+        default:
+            throw new UnsupportedRecordException(type + " type not supported", ctx);
+        }
+    }
+
+    private TypeMapping mapDeclaredType(DeclaredType type, String schemaExpression, String namespace, Element ctx) {
+        TypeElement element = (TypeElement) type.asElement();
+        String typeName = element.getQualifiedName().toString();
+        switch (typeName) {
+        case "java.lang.String":
+            return simple("string", "toStr", UnaryOperator.identity());
+        case "java.lang.Integer":
+            return simple("int", "toBoxedInt", UnaryOperator.identity());
+        case "java.lang.Long":
+            return simple("long", "toBoxedLong", UnaryOperator.identity());
+        case "java.lang.Double":
+            return simple("double", "toBoxedDouble", UnaryOperator.identity());
+        case "java.lang.Float":
+            return simple("float", "toBoxedFloat", UnaryOperator.identity());
+        case "java.lang.Boolean":
+            return simple("boolean", "toBoxedBoolean", UnaryOperator.identity());
+        case "java.lang.Short":
+            return simple("int", "toBoxedShort", v -> SUPPORT + ".toBoxedInt(" + v + ")");
+        case "java.lang.Byte":
+            return simple("int", "toBoxedByte", v -> SUPPORT + ".toBoxedInt(" + v + ")");
+        default:
+        }
+        if (element.getKind() == ElementKind.ENUM) {
+            String symbols = enumSymbols(element, schemaExpression);
+            return new TypeMapping(enumSchema(element, namespace), false,
+                    v -> "(" + typeName + ") " + SUPPORT + ".toEnum(" + typeName + ".class, " + v + ")",
+                    v -> SUPPORT + ".toEnumSymbol(" + v + ", " + symbols + ")");
+        }
+        if (element.getKind() == ElementKind.RECORD) {
+            String schema = recordSchema(element, schemaExpression);
+            int idx = recordIndexes.get(typeName);
+            return new TypeMapping(schema, true,
+                    v -> "read" + idx + "((" + GENERIC_RECORD + ") " + v + ")",
+                    v -> "write" + idx + "(" + v + ")");
+        }
+        if (type.getTypeArguments().isEmpty()) {
+            throw new UnsupportedRecordException(typeName + " is not a Java record", ctx);
+        }
+        if (!types.isAssignable(types.erasure(type), collectionType)) {
+            throw new UnsupportedRecordException("Invalid collection type " + typeName, ctx);
+        }
+        TypeMirror elementType = type.getTypeArguments().get(0);
+        if (elementType.getKind() != TypeKind.DECLARED) {
+            throw new UnsupportedRecordException("Invalid type " + typeName + " as " + elementType, ctx);
+        }
+        String cast = "(" + type + ") (Object) ";
+        TypeMapping items = mapCollectionElement((DeclaredType) elementType, schemaExpression + ".getElementType()",
+                ctx);
+        return new TypeMapping("{\"type\":\"array\",\"items\":" + items.schema() + "}", true,
+                v -> cast + items.read().apply(v), items.write());
+    }
+
+    private TypeMapping mapCollectionElement(DeclaredType type, String schemaExpression, Element ctx) {
+        TypeElement element = (TypeElement) type.asElement();
+        String typeName = element.getQualifiedName().toString();
+        switch (typeName) {
+        case "java.lang.String":
+            return list("string", "toStrList");
+        case "java.lang.Integer":
+            return list("int", "copyList");
+        case "java.lang.Long":
+            return list("long", "copyList");
+        case "java.lang.Double":
+            return list("double", "copyList");
+        case "java.lang.Float":
+            return list("float", "copyList");
+        case "java.lang.Boolean":
+            return list("boolean", "copyList");
+        default:
+        }
+        if (element.getKind() == ElementKind.ENUM) {
+            String symbols = enumSymbols(element, schemaExpression);
+            return new TypeMapping(enumSchema(element, null), false,
+                    v -> SUPPORT + ".toEnumList(" + typeName + ".class, " + v + ")",
+                    v -> SUPPORT + ".toEnumSymbolList(" + v + ", " + symbols + ")");
+        }
+        if (element.getKind() == ElementKind.RECORD) {
+            String schema = recordSchema(element, schemaExpression);
+            int idx = recordIndexes.get(typeName);
+            listMappers.add(idx);
+            return new TypeMapping(schema, true, v -> "read" + idx + "List(" + v + ")",
+                    v -> "write" + idx + "List(" + v + ")");
+        }
+        throw new UnsupportedRecordException("Unsupported type in collection: " + typeName, ctx);
+    }
+
+    private static TypeMapping simple(String schema, String readConversion, UnaryOperator<String> write) {
+        return new TypeMapping(quote(schema), false, v -> SUPPORT + "." + readConversion + "(" + v + ")", write);
+    }
+
+    private static TypeMapping list(String itemsSchema, String readConversion) {
+        return new TypeMapping(quote(itemsSchema), false, v -> SUPPORT + "." + readConversion + "(" + v + ")",
+                v -> SUPPORT + ".copyList(" + v + ")");
+    }
+
+    /**
+     * Enums of fields inherit the namespace of their record, and enums of
+     * collection items have no namespace, as they are built by JavaRecord2Schema.
+     */
+    private String enumSchema(TypeElement element, String namespace) {
+        String name = element.getSimpleName().toString();
+        String fullName = namespace == null ? name : namespace + "." + name;
+        if (!definedEnums.add(fullName)) {
+            return quote(fullName);
+        }
+        checkAccessible(element);
+        String symbols = element.getEnclosedElements().stream()
+                .filter(e -> e.getKind() == ElementKind.ENUM_CONSTANT)
+                .map(e -> quote(e.getSimpleName().toString()))
+                .collect(Collectors.joining(","));
+        String space = namespace == null ? ",\"namespace\":\"\"" : "";
+        return "{\"type\":\"enum\",\"name\":" + quote(name) + space + ",\"symbols\":[" + symbols + "]}";
+    }
+
+    private String enumSymbols(TypeElement element, String schemaExpression) {
+        String name = "ENUM_" + constants.size();
+        constants.add(ENUM_SYMBOL + "[] " + name + " = " + SUPPORT + ".enumSymbols(" + schemaExpression + ", "
+                + element.getQualifiedName() + ".class)");
+        return name;
+    }
+
+    private static void checkAccessible(TypeElement element) {
+        for (Element e = element; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new UnsupportedRecordException(element.getSimpleName()
+                        + " must not be private to generate its mapper", element);
+            }
+        }
+    }
+
+    private static String fieldName(RecordComponentElement component) {
+        Alias alias = component.getAnnotation(Alias.class);
+        return alias != null ? alias.value() : component.getSimpleName().toString();
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.record.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+
+import com.jerolba.record.annotation.GenerateMapper;
+
+/**
+ *
+ * Annotation processor that generates, for each record annotated with
+ * {@link GenerateMapper}, a class with its Avro schema and the mappers between
+ * the record and Avro records. The generated class is located at runtime by the
+ * Avro and Parquet readers and writers, avoiding the reflection and lambda
+ * generation needed to build them.
+ *
+ * The processor is registered as a service of data-record, but it only runs
+ * when data-record is on the annotation processor path of the compilation, as
+ * described in {@link GenerateMapper}.
+ *
+ */
+@SupportedAnnotationTypes("com.jerolba.record.annotation.GenerateMapper")
+public class GenerateMapperProcessor extends AbstractProcessor {
+
+    static final String SUFFIX = "AvroMapper";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateMapper.class)) {
+            if (element.getKind() != ElementKind.RECORD) {
+                error(element.getSimpleName() + " must be a java Record", element);
+                continue;
+            }
+            TypeElement recordElement = (TypeElement) element;
+            try {
+                AvroMapperSource source = new AvroMapperSource(processingEnv, recordElement);
+                String className = mapperClassName(recordElement);
+                JavaFileObject file = processingEnv.getFiler().createSourceFile(className, recordElement);
+                try (Writer writer = file.openWriter()) {
+                    writer.write(source.generate(className));
+                }
+            } catch (UnsupportedRecordException e) {
+                error(e.getMessage(), e.getElement());
+            } catch (IOException e) {
+                error("Can not generate mapper: " + e.getMessage(), recordElement);
+            }
+        }
+        return true;
+    }
+
+    private String mapperClassName(TypeElement recordElement) {
+        String binaryName = processingEnv.getElementUtils().getBinaryName(recordElement).toString();
+        return binaryName.replace('$', '_') + SUFFIX;
+    }
+
+    private void error(String message, Element element) {
+        processingEnv.getMessager().printMessage(Kind.ERROR, message, element);
+    }
+
+}
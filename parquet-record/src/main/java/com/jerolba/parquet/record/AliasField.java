@@ -0,0 +1,48 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import java.lang.reflect.RecordComponent;
+
+import com.jerolba.record.annotation.Alias;
+
+class AliasField {
+
+    static String getFieldName(RecordComponent recordComponent) {
+        Alias annotation = recordComponent.getAnnotation(Alias.class);
+        if (annotation == null) {
+            return recordComponent.getName();
+        }
+        return annotation.value();
+    }
+
+    static RecordComponent findComponent(Class<?> recordClass, String name) {
+        RecordComponent alias = null;
+        for (RecordComponent component : recordClass.getRecordComponents()) {
+            if (component.getName().equals(name)) {
+                return component;
+            }
+            if (getFieldName(component).equals(name)) {
+                alias = component;
+            }
+        }
+        if (alias == null) {
+            throw new IllegalArgumentException(recordClass.getName() + " has no component " + name);
+        }
+        return alias;
+    }
+
+}
@@ -0,0 +1,194 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+/**
+ *
+ * Input file whose last bytes, containing the footer, are served from memory.
+ * The underlying file is only opened when a stream reads before the cached
+ * tail, so opening a reader only to inspect the footer does not touch the
+ * file.
+ *
+ */
+class CachedTailInputFile implements InputFile {
+
+    private final InputFile inputFile;
+    private final long length;
+    private final byte[] tail;
+
+    CachedTailInputFile(InputFile inputFile, long length, byte[] tail) {
+        this.inputFile = inputFile;
+        this.length = length;
+        this.tail = tail;
+    }
+
+    @Override
+    public long getLength() throws IOException {
+        return length;
+    }
+
+    @Override
+    public SeekableInputStream newStream() throws IOException {
+        return new CachedTailInputStream();
+    }
+
+    private class CachedTailInputStream extends SeekableInputStream {
+
+        private final long tailStart = length - tail.length;
+        private SeekableInputStream stream;
+        private long pos = 0;
+
+        @Override
+        public long getPos() throws IOException {
+            return pos;
+        }
+
+        @Override
+        public void seek(long newPos) throws IOException {
+            pos = newPos;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (pos >= length) {
+                return -1;
+            }
+            if (pos >= tailStart) {
+                return tail[(int) (pos++ - tailStart)] & 0xFF;
+            }
+            int value = streamAtPos().read();
+            if (value >= 0) {
+                pos++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (pos >= length) {
+                return -1;
+            }
+            if (pos >= tailStart) {
+                int count = (int) Math.min(len, length - pos);
+                System.arraycopy(tail, (int) (pos - tailStart), b, off, count);
+                pos += count;
+                return count;
+            }
+            int count = streamAtPos().read(b, off, (int) Math.min(len, tailStart - pos));
+            if (count > 0) {
+                pos += count;
+            }
+            return count;
+        }
+
+        @Override
+        public int read(ByteBuffer buf) throws IOException {
+            if (!buf.hasRemaining()) {
+                return 0;
+            }
+            if (pos >= length) {
+                return -1;
+            }
+            if (pos >= tailStart) {
+                int count = (int) Math.min(buf.remaining(), length - pos);
+                buf.put(tail, (int) (pos - tailStart), count);
+                pos += count;
+                return count;
+            }
+            int limit = buf.limit();
+            buf.limit(buf.position() + (int) Math.min(buf.remaining(), tailStart - pos));
+            try {
+                int count = streamAtPos().read(buf);
+                if (count > 0) {
+                    pos += count;
+                }
+                return count;
+            } finally {
+                buf.limit(limit);
+            }
+        }
+
+        @Override
+        public void readFully(byte[] b) throws IOException {
+            readFully(b, 0, b.length);
+        }
+
+        @Override
+        public void readFully(byte[] b, int start, int len) throws IOException {
+            int offset = start;
+            int remaining = len;
+            while (remaining > 0) {
+                int count = read(b, offset, remaining);
+                if (count < 0) {
+                    throw new EOFException("Reached the end of stream with " + remaining + " bytes left to read");
+                }
+                offset += count;
+                remaining -= count;
+            }
+        }
+
+        @Override
+        public void readFully(ByteBuffer buf) throws IOException {
+            while (buf.hasRemaining()) {
+                if (read(buf) < 0) {
+                    throw new EOFException("Reached the end of stream with " + buf.remaining()
+                            + " bytes left to read");
+                }
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = Math.max(0, Math.min(n, length - pos));
+            pos += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(Integer.MAX_VALUE, length - pos);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (stream != null) {
+                stream.close();
+            }
+        }
+
+        private SeekableInputStream streamAtPos() throws IOException {
+            if (stream == null) {
+                stream = inputFile.newStream();
+            }
+            if (stream.getPos() != pos) {
+                stream.seek(pos);
+            }
+            return stream;
+        }
+
+    }
+
+}
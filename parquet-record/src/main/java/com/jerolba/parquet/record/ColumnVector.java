@@ -0,0 +1,127 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import java.util.BitSet;
+
+/**
+ *
+ * The values of a column in a row group, decoded as a primitive array with a
+ * bitmap of the null positions. The array element of a null position holds the
+ * default value of its type.
+ *
+ * Only the accessor matching the type of the record component is valid:
+ * {@link #ints()} for {@code int}, {@code short} and {@code byte} components,
+ * {@link #longs()}, {@link #floats()}, {@link #doubles()} and
+ * {@link #booleans()} for the others.
+ *
+ */
+public final class ColumnVector {
+
+    private final String name;
+    private final Object values;
+    private final BitSet nulls;
+    private final int size;
+
+    ColumnVector(String name, Object values, BitSet nulls, int size) {
+        this.name = name;
+        this.values = values;
+        this.nulls = nulls;
+        this.size = size;
+    }
+
+    /**
+     *
+     * Returns the name of the record component backed by the column.
+     *
+     * @return the record component name
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     *
+     * Returns the number of values of the column, one for each row of the row
+     * group.
+     *
+     * @return the number of values
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     *
+     * Returns the bitmap of null positions. The returned bitmap must not be
+     * modified.
+     *
+     * @return a bitmap with the positions of null values set
+     */
+    public BitSet nulls() {
+        return nulls;
+    }
+
+    /**
+     *
+     * Returns {@code true} if the value at the specified position is null.
+     *
+     * @param index the position of the value
+     * @return whether the value is null
+     */
+    public boolean isNull(int index) {
+        return nulls.get(index);
+    }
+
+    /**
+     *
+     * Returns {@code true} if the column has any null value.
+     *
+     * @return whether the column has null values
+     */
+    public boolean hasNulls() {
+        return !nulls.isEmpty();
+    }
+
+    public int[] ints() {
+        return values(int[].class);
+    }
+
+    public long[] longs() {
+        return values(long[].class);
+    }
+
+    public float[] floats() {
+        return values(float[].class);
+    }
+
+    public double[] doubles() {
+        return values(double[].class);
+    }
+
+    public boolean[] booleans() {
+        return values(boolean[].class);
+    }
+
+    private <A> A values(Class<A> arrayType) {
+        if (!arrayType.isInstance(values)) {
+            throw new IllegalStateException("Column " + name + " values are of type "
+                    + values.getClass().getComponentType() + ", not " + arrayType.getComponentType());
+        }
+        return arrayType.cast(values);
+    }
+
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import static com.jerolba.parquet.record.AliasField.findComponent;
+import static com.jerolba.parquet.record.AliasField.getFieldName;
+
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ *
+ * The path of the Parquet column backing a record component, referenced by a
+ * dot separated path of component names when it is inside nested records.
+ *
+ * @param name       the dot separated component path
+ * @param columnPath the names of the column and its parent groups in the file
+ * @param type       the type of the record component
+ */
+record ComponentPath(String name, String[] columnPath, Class<?> type) {
+
+    static ComponentPath resolve(Class<?> recordClass, String name) {
+        Class<?> type = recordClass;
+        List<String> path = new ArrayList<>();
+        for (String part : name.split("\\.")) {
+            if (!type.isRecord()) {
+                throw new IllegalArgumentException("Invalid component path " + name + ", " + type.getName()
+                        + " is not a Java Record");
+            }
+            RecordComponent component = findComponent(type, part);
+            path.add(getFieldName(component));
+            type = component.getType();
+            if (Collection.class.isAssignableFrom(type)) {
+                throw new IllegalArgumentException("Component " + name + " is inside a collection");
+            }
+        }
+        return new ComponentPath(name, path.toArray(String[]::new), type);
+    }
+
+    String columnName() {
+        return String.join(".", columnPath);
+    }
+
+}
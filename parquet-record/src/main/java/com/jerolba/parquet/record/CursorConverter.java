@@ -0,0 +1,365 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import static com.jerolba.avro.record.RecordFactory.recordFactory;
+import static com.jerolba.parquet.record.AliasField.getFieldName;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.lang.reflect.RecordComponent;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Type.Repetition;
+
+import com.jerolba.avro.record.RecordTypeConversionException;
+
+/**
+ *
+ * Converts a Parquet row into the reusable state of a {@link RecordCursor}.
+ * Numeric and boolean components are kept unboxed in primitive slots, and
+ * string and enum components as the {@link Binary} read from the page. Nested
+ * records and collections are converted as in {@link JavaRecordConverter}. The
+ * record is only built on demand from the current state.
+ *
+ */
+class CursorConverter extends GroupConverter {
+
+    private enum Kind {
+        INTEGRAL, FLOATING, BINARY, OBJECT, CONSTANT
+    }
+
+    private final RecordComponent[] components;
+    private final Function<Object[], Object> factory;
+    private final Converter[] converters;
+    private final Kind[] kinds;
+    private final boolean[] repeated;
+    private final boolean[] present;
+    private final long[] integrals;
+    private final double[] floatings;
+    private final Binary[] binaries;
+    private final Object[] objects;
+    private final CharBuffer[] chars;
+    private final CharsetDecoder decoder = UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    CursorConverter(Class<?> recordClass, GroupType schema, Map<String, String> constants) {
+        if (!recordClass.isRecord()) {
+            throw new IllegalArgumentException(recordClass.getName() + " is not a Java Record");
+        }
+        this.components = recordClass.getRecordComponents();
+        int count = components.length;
+        this.kinds = new Kind[count];
+        this.repeated = new boolean[count];
+        this.present = new boolean[count];
+        this.integrals = new long[count];
+        this.floatings = new double[count];
+        this.binaries = new Binary[count];
+        this.objects = new Object[count];
+        this.chars = new CharBuffer[count];
+        this.converters = new Converter[schema.getFieldCount()];
+        for (int i = 0; i < count; i++) {
+            RecordComponent component = components[i];
+            String fieldName = getFieldName(component);
+            if (!schema.containsField(fieldName)) {
+                kinds[i] = Kind.CONSTANT;
+                if (constants.containsKey(fieldName)) {
+                    objects[i] = JavaRecordConverter.constantValue(component.getType(), constants.get(fieldName));
+                } else {
+                    objects[i] = JavaRecordConverter.missingValue(component.getType());
+                }
+                continue;
+            }
+            int fieldIndex = schema.getFieldIndex(fieldName);
+            converters[fieldIndex] = slotConverter(i, component, schema.getType(fieldIndex));
+        }
+        for (int i = 0; i < converters.length; i++) {
+            if (converters[i] == null) {
+                converters[i] = NoOpConverter.of(schema.getType(i));
+            }
+        }
+        this.factory = recordFactory(recordClass);
+    }
+
+    private Converter slotConverter(int slot, RecordComponent component, Type field) {
+        Class<?> type = component.getType();
+        if (field.isRepetition(Repetition.REPEATED)) {
+            kinds[slot] = Kind.OBJECT;
+            repeated[slot] = true;
+            Class<?> elementType = JavaRecordConverter.collectionType(component, field);
+            return JavaRecordConverter.valueConverter(elementType, field, value -> addToCollection(slot, value));
+        }
+        if (!field.isPrimitive() || Collection.class.isAssignableFrom(type)) {
+            kinds[slot] = Kind.OBJECT;
+            return JavaRecordConverter.componentConverter(component, field, value -> objects[slot] = value);
+        }
+        PrimitiveTypeName fileType = field.asPrimitiveType().getPrimitiveTypeName();
+        kinds[slot] = kindOf(type, fileType);
+        return switch (kinds[slot]) {
+        case INTEGRAL -> new IntegralConverter(slot);
+        case FLOATING -> new FloatingConverter(slot);
+        default -> new BinaryConverter(slot);
+        };
+    }
+
+    private static Kind kindOf(Class<?> type, PrimitiveTypeName fileType) {
+        Kind kind;
+        if (type.isEnum() || type.equals(String.class)) {
+            kind = fileType == PrimitiveTypeName.BINARY ? Kind.BINARY : null;
+        } else {
+            kind = switch (type.getName()) {
+            case "int", "java.lang.Integer", "short", "java.lang.Short", "byte", "java.lang.Byte" ->
+                fileType == PrimitiveTypeName.INT32 ? Kind.INTEGRAL : null;
+            case "long", "java.lang.Long" ->
+                fileType == PrimitiveTypeName.INT64 || fileType == PrimitiveTypeName.INT32 ? Kind.INTEGRAL : null;
+            case "boolean", "java.lang.Boolean" -> fileType == PrimitiveTypeName.BOOLEAN ? Kind.INTEGRAL : null;
+            case "float", "java.lang.Float" -> fileType == PrimitiveTypeName.FLOAT ? Kind.FLOATING : null;
+            case "double", "java.lang.Double" ->
+                fileType == PrimitiveTypeName.DOUBLE || fileType == PrimitiveTypeName.FLOAT ? Kind.FLOATING : null;
+            default -> throw new RecordTypeConversionException(type + " type not supported");
+            };
+        }
+        if (kind == null) {
+            throw new RecordTypeConversionException(
+                    "Parquet type " + fileType + " can not be converted to " + type.getName());
+        }
+        return kind;
+    }
+
+    @Override
+    public Converter getConverter(int fieldIndex) {
+        return converters[fieldIndex];
+    }
+
+    @Override
+    public void start() {
+        Arrays.fill(present, false);
+        for (int i = 0; i < kinds.length; i++) {
+            if (kinds[i] == Kind.OBJECT) {
+                objects[i] = null;
+            }
+        }
+    }
+
+    @Override
+    public void end() {
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addToCollection(int slot, Object value) {
+        List<Object> collection = (List<Object>) objects[slot];
+        if (collection == null) {
+            collection = new ArrayList<>();
+            objects[slot] = collection;
+        }
+        collection.add(value);
+    }
+
+    boolean isNull(int slot) {
+        return switch (kinds[slot]) {
+        case OBJECT -> objects[slot] == null && !repeated[slot];
+        case CONSTANT -> objects[slot] == null;
+        default -> !present[slot];
+        };
+    }
+
+    long integral(int slot) {
+        if (kinds[slot] == Kind.INTEGRAL) {
+            return integrals[slot];
+        }
+        if (kinds[slot] == Kind.CONSTANT && objects[slot] instanceof Number number) {
+            return number.longValue();
+        }
+        if (kinds[slot] == Kind.CONSTANT && objects[slot] instanceof Boolean bool) {
+            return bool ? 1 : 0;
+        }
+        throw new IllegalStateException("Component " + components[slot].getName() + " of type "
+                + components[slot].getType().getName() + " is not an integral number");
+    }
+
+    double floating(int slot) {
+        if (kinds[slot] == Kind.FLOATING) {
+            return floatings[slot];
+        }
+        if (kinds[slot] == Kind.CONSTANT && objects[slot] instanceof Number number) {
+            return number.doubleValue();
+        }
+        throw new IllegalStateException("Component " + components[slot].getName() + " of type "
+                + components[slot].getType().getName() + " is not a floating point number");
+    }
+
+    CharSequence chars(int slot) {
+        if (kinds[slot] == Kind.CONSTANT && !(objects[slot] instanceof Number)) {
+            return objects[slot] == null ? null : objects[slot].toString();
+        }
+        if (kinds[slot] != Kind.BINARY) {
+            throw new IllegalStateException("Component " + components[slot].getName() + " of type "
+                    + components[slot].getType().getName() + " is not a String or Enum");
+        }
+        if (!present[slot]) {
+            return null;
+        }
+        ByteBuffer bytes = binaries[slot].toByteBuffer();
+        CharBuffer buffer = chars[slot];
+        if (buffer == null || buffer.capacity() < bytes.remaining()) {
+            buffer = CharBuffer.allocate(Math.max(16, bytes.remaining()));
+            chars[slot] = buffer;
+        }
+        buffer.clear();
+        decoder.reset();
+        decoder.decode(bytes, buffer, true);
+        decoder.flush(buffer);
+        return buffer.flip();
+    }
+
+    Object materialize() {
+        Object[] values = new Object[components.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = value(i);
+        }
+        return factory.apply(values);
+    }
+
+    private Object value(int slot) {
+        Class<?> type = components[slot].getType();
+        return switch (kinds[slot]) {
+        case CONSTANT -> objects[slot];
+        case OBJECT -> repeated[slot] && objects[slot] == null ? new ArrayList<>() : objects[slot];
+        default -> present[slot] ? scalarValue(slot, type) : JavaRecordConverter.nullValue(type);
+        };
+    }
+
+    private Object scalarValue(int slot, Class<?> type) {
+        if (type.isEnum()) {
+            return SimpleTypeConverters.enumValue(type, binaries[slot].toStringUsingUTF8());
+        }
+        return switch (type.getName()) {
+        case "java.lang.String" -> binaries[slot].toStringUsingUTF8();
+        case "int", "java.lang.Integer" -> (int) integrals[slot];
+        case "short", "java.lang.Short" -> (short) integrals[slot];
+        case "byte", "java.lang.Byte" -> (byte) integrals[slot];
+        case "long", "java.lang.Long" -> integrals[slot];
+        case "boolean", "java.lang.Boolean" -> integrals[slot] != 0;
+        case "float", "java.lang.Float" -> (float) floatings[slot];
+        default -> floatings[slot];
+        };
+    }
+
+    private class IntegralConverter extends PrimitiveConverter {
+
+        private final int slot;
+
+        IntegralConverter(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public void addInt(int value) {
+            integrals[slot] = value;
+            present[slot] = true;
+        }
+
+        @Override
+        public void addLong(long value) {
+            integrals[slot] = value;
+            present[slot] = true;
+        }
+
+        @Override
+        public void addBoolean(boolean value) {
+            integrals[slot] = value ? 1 : 0;
+            present[slot] = true;
+        }
+
+    }
+
+    private class FloatingConverter extends PrimitiveConverter {
+
+        private final int slot;
+
+        FloatingConverter(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public void addFloat(float value) {
+            floatings[slot] = value;
+            present[slot] = true;
+        }
+
+        @Override
+        public void addDouble(double value) {
+            floatings[slot] = value;
+            present[slot] = true;
+        }
+
+    }
+
+    /**
+     * Keeps the binary value without decoding it. Values stored in a dictionary
+     * are taken from the decoded dictionary of the row group.
+     */
+    private class BinaryConverter extends PrimitiveConverter {
+
+        private final int slot;
+        private Dictionary dictionary;
+
+        BinaryConverter(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public void addBinary(Binary value) {
+            binaries[slot] = value;
+            present[slot] = true;
+        }
+
+        @Override
+        public boolean hasDictionarySupport() {
+            return true;
+        }
+
+        @Override
+        public void setDictionary(Dictionary dictionary) {
+            this.dictionary = dictionary;
+        }
+
+        @Override
+        public void addValueFromDictionary(int dictionaryId) {
+            binaries[slot] = dictionary.decodeToBinary(dictionaryId);
+            present[slot] = true;
+        }
+
+    }
+
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import java.util.Map;
+
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.RecordMaterializer;
+import org.apache.parquet.schema.MessageType;
+
+/**
+ *
+ * Materializes each Parquet row into the reused state of a
+ * {@link RecordCursor}, instead of creating a record per row.
+ *
+ */
+class CursorMaterializer extends RecordMaterializer<CursorConverter> {
+
+    private final CursorConverter root;
+
+    CursorMaterializer(Class<?> recordClass, MessageType requestedSchema, Map<String, String> constants) {
+        this.root = new CursorConverter(recordClass, requestedSchema, constants);
+    }
+
+    @Override
+    public CursorConverter getCurrentRecord() {
+        return root;
+    }
+
+    @Override
+    public GroupConverter getRootConverter() {
+        return root;
+    }
+
+}
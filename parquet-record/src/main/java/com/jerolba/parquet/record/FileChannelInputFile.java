@@ -0,0 +1,193 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+/**
+ *
+ * {@link InputFile} that reads the file with positional reads of a
+ * {@link FileChannel}. Data is read directly into the buffer provided by the
+ * caller, which can be a direct buffer, without an intermediate copy.
+ *
+ * Positional reads do not modify the state of the channel, so the stream
+ * position is only kept by the stream and reads from different streams do not
+ * interfere with each other.
+ *
+ */
+public class FileChannelInputFile implements InputFile {
+
+    private final File file;
+
+    /**
+     *
+     * Constructs a FileChannelInputFile with the specified file.
+     *
+     * @param file the file to read from
+     */
+    public FileChannelInputFile(File file) {
+        this.file = file;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    /**
+     *
+     * Returns the length of the file.
+     *
+     * @return the length of the file
+     * @throws IOException if an error occurs while getting the length of the file
+     */
+    @Override
+    public long getLength() throws IOException {
+        return file.length();
+    }
+
+    /**
+     *
+     * Creates a new stream for reading from the file.
+     *
+     * @return a new SeekableInputStream for reading from the file
+     * @throws IOException if an error occurs while creating the stream
+     */
+    @Override
+    public SeekableInputStream newStream() throws IOException {
+        return new ChannelSeekableInputStream(FileChannel.open(file.toPath(), StandardOpenOption.READ));
+    }
+
+    private static class ChannelSeekableInputStream extends SeekableInputStream {
+
+        private final FileChannel channel;
+        private final long length;
+        private final ByteBuffer singleByte = ByteBuffer.allocate(1);
+        private long position = 0;
+        private long markedPos = 0;
+
+        ChannelSeekableInputStream(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.length = channel.size();
+        }
+
+        @Override
+        public int read() throws IOException {
+            singleByte.clear();
+            if (read(singleByte) <= 0) {
+                return -1;
+            }
+            return singleByte.get(0) & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            return read(ByteBuffer.wrap(b, off, len));
+        }
+
+        @Override
+        public long skip(long skipCount) throws IOException {
+            if (skipCount <= 0 || position >= length) {
+                return 0;
+            }
+            long skipped = Math.min(skipCount, length - position);
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(Integer.MAX_VALUE, Math.max(0, length - position));
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        @Override
+        public synchronized void mark(int readlimit) {
+            markedPos = position;
+        }
+
+        @Override
+        public synchronized void reset() throws IOException {
+            position = markedPos;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public long getPos() throws IOException {
+            return position;
+        }
+
+        @Override
+        public void seek(long newPos) throws IOException {
+            if (newPos < 0) {
+                throw new EOFException("Invalid position " + newPos);
+            }
+            position = newPos;
+        }
+
+        @Override
+        public void readFully(byte[] bytes) throws IOException {
+            readFully(ByteBuffer.wrap(bytes));
+        }
+
+        @Override
+        public void readFully(byte[] bytes, int start, int len) throws IOException {
+            readFully(ByteBuffer.wrap(bytes, start, len));
+        }
+
+        @Override
+        public int read(ByteBuffer byteBuffer) throws IOException {
+            if (!byteBuffer.hasRemaining()) {
+                return 0;
+            }
+            int readedBytes = channel.read(byteBuffer, position);
+            if (readedBytes > 0) {
+                position += readedBytes;
+            }
+            return readedBytes;
+        }
+
+        @Override
+        public void readFully(ByteBuffer byteBuffer) throws IOException {
+            while (byteBuffer.hasRemaining()) {
+                int readedBytes = channel.read(byteBuffer, position);
+                if (readedBytes < 0) {
+                    throw new EOFException("Missing " + byteBuffer.remaining() + " bytes left to read from File");
+                }
+                position += readedBytes;
+            }
+        }
+
+    }
+}
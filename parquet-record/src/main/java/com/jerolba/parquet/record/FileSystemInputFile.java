@@ -51,6 +51,10 @@ public class FileSystemInputFile implements InputFile {
         this.file = file;
     }
 
+    File getFile() {
+        return file;
+    }
+
     /**
      *
      * Returns the length of the file.
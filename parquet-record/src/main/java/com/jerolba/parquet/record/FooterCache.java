@@ -0,0 +1,147 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+import com.jerolba.avro.record.RecordMappingCache;
+
+/**
+ *
+ * Size bounded cache of the footers of Parquet files, keyed by file path,
+ * length and modification time, so a file that is opened again is not read
+ * from the tail to get its footer. A modified file gets a new entry, and the
+ * least recently used entries are evicted.
+ *
+ * The cache can be shared between readers with
+ * {@link ParquetRecordReaderConfig.Builder#withFooterCache(FooterCache)}. Only
+ * files read from the local file system are cached: {@link FileSystemInputFile},
+ * {@link FileChannelInputFile} and {@link MappedFileInputFile}.
+ *
+ */
+public final class FooterCache {
+
+    private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+    private static final int TAIL_SIZE = 8;
+
+    private record Key(String path, long length, long lastModified) {
+    }
+
+    private final RecordMappingCache<Key, byte[]> tails;
+
+    /**
+     *
+     * Creates a new {@code FooterCache} that keeps the footers of up to the
+     * specified number of files.
+     *
+     * @param maxFiles the maximum number of files
+     */
+    public FooterCache(int maxFiles) {
+        this.tails = new RecordMappingCache<>(maxFiles);
+    }
+
+    /**
+     *
+     * Returns the number of cached footers.
+     *
+     * @return the number of cached footers
+     */
+    public int size() {
+        return tails.size();
+    }
+
+    /**
+     *
+     * Removes all cached footers.
+     */
+    public void clear() {
+        tails.clear();
+    }
+
+    /**
+     * Returns an input file that serves the footer of the file from the cache,
+     * reading it from the file the first time. Files not read from the local file
+     * system are returned as they are.
+     *
+     * @param inputFile the input file
+     * @return the input file backed by the cache
+     * @throws IOException if an I/O error occurs
+     */
+    InputFile wrap(InputFile inputFile) throws IOException {
+        File file = localFile(inputFile);
+        if (file == null) {
+            return inputFile;
+        }
+        long length = file.length();
+        Key key = new Key(file.getAbsolutePath(), length, file.lastModified());
+        try {
+            byte[] tail = tails.get(key, k -> readTail(inputFile, length));
+            return new CachedTailInputFile(inputFile, length, tail);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    static File localFile(InputFile inputFile) {
+        if (inputFile instanceof FileSystemInputFile fileSystem) {
+            return fileSystem.getFile();
+        }
+        if (inputFile instanceof FileChannelInputFile fileChannel) {
+            return fileChannel.getFile();
+        }
+        if (inputFile instanceof MappedFileInputFile mapped) {
+            return mapped.getFile();
+        }
+        return null;
+    }
+
+    /**
+     * Reads the footer, its length and the magic number at the end of the file.
+     * If the file is not a valid Parquet file, only the last bytes are kept and
+     * the Parquet reader reports the error.
+     */
+    private static byte[] readTail(InputFile inputFile, long length) {
+        try (SeekableInputStream stream = inputFile.newStream()) {
+            if (length < TAIL_SIZE) {
+                return new byte[0];
+            }
+            byte[] last = new byte[TAIL_SIZE];
+            stream.seek(length - TAIL_SIZE);
+            stream.readFully(last);
+            int footerLength = ByteBuffer.wrap(last).order(ByteOrder.LITTLE_ENDIAN).getInt();
+            boolean valid = Arrays.equals(last, 4, TAIL_SIZE, MAGIC, 0, MAGIC.length);
+            if (!valid || footerLength <= 0 || footerLength > length - TAIL_SIZE - MAGIC.length) {
+                return last;
+            }
+            byte[] tail = new byte[footerLength + TAIL_SIZE];
+            stream.seek(length - tail.length);
+            stream.readFully(tail);
+            return tail;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,354 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import static com.jerolba.avro.record.RecordFactory.recordFactory;
+import static com.jerolba.parquet.record.AliasField.getFieldName;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.LogicalTypeAnnotation.ListLogicalTypeAnnotation;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Type.Repetition;
+
+import com.jerolba.avro.record.CompiledRecordMapper;
+import com.jerolba.avro.record.RecordMappingCache;
+import com.jerolba.avro.record.RecordTypeConversionException;
+
+/**
+ *
+ * Converts a Parquet group into a Java record. Each column value is written
+ * directly in the slot of the constructor argument of its record component, and
+ * the record is instantiated when the group ends. Records with a mapper
+ * generated at compile time are instantiated calling their constructor
+ * directly.
+ *
+ * The mapping between the record components and the fields of the group is
+ * resolved with reflection once per record class and group, and cached as a
+ * {@link ConverterPlan}. Each converter only allocates its mutable state.
+ *
+ */
+class JavaRecordConverter extends GroupConverter {
+
+    /**
+     * Creates the converter of a value, delivering the converted values to the
+     * consumer. Converters are stateful, so a new one is built for each reader.
+     */
+    @FunctionalInterface
+    interface ConverterBuilder {
+
+        Converter build(Consumer<Object> consumer);
+
+    }
+
+    /**
+     * Mapping of a record class to a Parquet group: the slot of the record
+     * component of each field, or -1 if the field is not mapped, the builders of
+     * the field converters, the default value of each slot, and the record
+     * components missing in the group, which can take their value from
+     * constants.
+     */
+    record ConverterPlan(Function<Object[], Object> factory, int[] fieldSlots, boolean[] repeatedFields,
+            ConverterBuilder[] fieldBuilders, Object[] defaultValues, RecordComponent[] missingComponents,
+            int[] repeatedSlots) {
+
+        Object[] defaultValues(Map<String, String> constants) {
+            if (constants.isEmpty()) {
+                return defaultValues;
+            }
+            Object[] values = defaultValues.clone();
+            for (int i = 0; i < values.length; i++) {
+                RecordComponent component = missingComponents[i];
+                if (component != null && constants.containsKey(getFieldName(component))) {
+                    values[i] = constantValue(component.getType(), constants.get(getFieldName(component)));
+                }
+            }
+            return values;
+        }
+
+    }
+
+    private record PlanKey(Class<?> recordClass, GroupType schema, CompiledRecordMapper<?> compiled) {
+    }
+
+    private static final RecordMappingCache<PlanKey, ConverterPlan> PLANS = new RecordMappingCache<>();
+
+    private final Function<Object[], Object> factory;
+    private final Converter[] converters;
+    private final Object[] defaultValues;
+    private final Object[] values;
+    private final int[] repeatedSlots;
+    private final Consumer<Object> consumer;
+    private Object currentRecord;
+
+    JavaRecordConverter(Class<?> recordClass, GroupType schema, Consumer<Object> consumer) {
+        this(recordClass, schema, consumer, Map.of(), null);
+    }
+
+    /**
+     * Creates a converter where the components that are not present in the file
+     * schema take their value from the specified constants, like the partition
+     * values of a file in a partitioned dataset.
+     *
+     * @param recordClass the class of the record
+     * @param schema      the Parquet group of the record
+     * @param consumer    the consumer of the converted records
+     * @param constants   the values by field name of the components not present
+     *                    in the file
+     * @param compiled    the mapper generated at compile time for the main
+     *                    record, supplying the constructors of the records, or
+     *                    null
+     */
+    JavaRecordConverter(Class<?> recordClass, GroupType schema, Consumer<Object> consumer,
+            Map<String, String> constants, CompiledRecordMapper<?> compiled) {
+        this(plan(recordClass, schema, compiled), consumer, constants);
+    }
+
+    private JavaRecordConverter(ConverterPlan plan, Consumer<Object> consumer, Map<String, String> constants) {
+        this.consumer = consumer;
+        this.factory = plan.factory();
+        this.repeatedSlots = plan.repeatedSlots();
+        this.defaultValues = plan.defaultValues(constants);
+        this.values = new Object[defaultValues.length];
+        int[] fieldSlots = plan.fieldSlots();
+        this.converters = new Converter[fieldSlots.length];
+        for (int i = 0; i < fieldSlots.length; i++) {
+            int slot = fieldSlots[i];
+            Consumer<Object> fieldConsumer;
+            if (slot < 0) {
+                fieldConsumer = null;
+            } else if (plan.repeatedFields()[i]) {
+                fieldConsumer = value -> addToCollection(slot, value);
+            } else {
+                fieldConsumer = value -> values[slot] = value;
+            }
+            converters[i] = plan.fieldBuilders()[i].build(fieldConsumer);
+        }
+    }
+
+    /**
+     * Returns the cached mapping of the record class to the Parquet group,
+     * building it if not present.
+     *
+     * @param recordClass the class of the record
+     * @param schema      the Parquet group of the record
+     * @param compiled    the mapper generated at compile time for the main
+     *                    record, or null
+     * @return the mapping of the record to the group
+     */
+    static ConverterPlan plan(Class<?> recordClass, GroupType schema, CompiledRecordMapper<?> compiled) {
+        return PLANS.get(new PlanKey(recordClass, schema, compiled),
+                key -> buildPlan(recordClass, schema, compiled));
+    }
+
+    private static ConverterPlan buildPlan(Class<?> recordClass, GroupType schema, CompiledRecordMapper<?> compiled) {
+        if (!recordClass.isRecord()) {
+            throw new IllegalArgumentException(recordClass.getName() + " is not a Java Record");
+        }
+        RecordComponent[] components = recordClass.getRecordComponents();
+        Object[] defaultValues = new Object[components.length];
+        RecordComponent[] missingComponents = new RecordComponent[components.length];
+        int fieldCount = schema.getFieldCount();
+        int[] fieldSlots = new int[fieldCount];
+        boolean[] repeatedFields = new boolean[fieldCount];
+        ConverterBuilder[] fieldBuilders = new ConverterBuilder[fieldCount];
+        Arrays.fill(fieldSlots, -1);
+        List<Integer> repeated = new ArrayList<>();
+        for (int i = 0; i < components.length; i++) {
+            RecordComponent component = components[i];
+            String fieldName = getFieldName(component);
+            if (!schema.containsField(fieldName)) {
+                missingComponents[i] = component;
+                defaultValues[i] = missingValue(component.getType());
+                continue;
+            }
+            int fieldIndex = schema.getFieldIndex(fieldName);
+            Type field = schema.getType(fieldIndex);
+            fieldSlots[fieldIndex] = i;
+            if (field.isRepetition(Repetition.REPEATED)) {
+                repeated.add(i);
+                repeatedFields[fieldIndex] = true;
+                fieldBuilders[fieldIndex] = valueBuilder(collectionType(component, field), field, compiled);
+            } else {
+                fieldBuilders[fieldIndex] = componentBuilder(component, field, compiled);
+            }
+            defaultValues[i] = nullValue(component.getType());
+        }
+        for (int i = 0; i < fieldCount; i++) {
+            if (fieldBuilders[i] == null) {
+                Type field = schema.getType(i);
+                fieldBuilders[i] = consumer -> NoOpConverter.of(field);
+            }
+        }
+        int[] repeatedSlots = repeated.stream().mapToInt(Integer::intValue).toArray();
+        return new ConverterPlan(constructor(recordClass, compiled), fieldSlots, repeatedFields, fieldBuilders,
+                defaultValues, missingComponents, repeatedSlots);
+    }
+
+    @Override
+    public Converter getConverter(int fieldIndex) {
+        return converters[fieldIndex];
+    }
+
+    @Override
+    public void start() {
+        System.arraycopy(defaultValues, 0, values, 0, values.length);
+    }
+
+    @Override
+    public void end() {
+        for (int slot : repeatedSlots) {
+            if (values[slot] == null) {
+                values[slot] = new ArrayList<>();
+            }
+        }
+        currentRecord = factory.apply(values);
+        consumer.accept(currentRecord);
+    }
+
+    Object getCurrentRecord() {
+        return currentRecord;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addToCollection(int slot, Object value) {
+        List<Object> collection = (List<Object>) values[slot];
+        if (collection == null) {
+            collection = new ArrayList<>();
+            values[slot] = collection;
+        }
+        collection.add(value);
+    }
+
+    static Converter componentConverter(RecordComponent component, Type field, Consumer<Object> consumer) {
+        return componentBuilder(component, field, null).build(consumer);
+    }
+
+    static ConverterBuilder componentBuilder(RecordComponent component, Type field,
+            CompiledRecordMapper<?> compiled) {
+        java.lang.reflect.Type genericType = component.getGenericType();
+        if (genericType instanceof TypeVariable<?> && field.isPrimitive()) {
+            throw new RecordTypeConversionException("Generic type <" + genericType + "> not supported in records");
+        }
+        if (Collection.class.isAssignableFrom(component.getType())) {
+            Class<?> elementType = collectionType(component, field);
+            if (!(field.getLogicalTypeAnnotation() instanceof ListLogicalTypeAnnotation)) {
+                throw new RecordTypeConversionException("Invalid parquet type " + field + ", expected List");
+            }
+            return ListConverter.builder(elementType, field.asGroupType(), compiled);
+        }
+        return valueBuilder(component.getType(), field, compiled);
+    }
+
+    static Converter valueConverter(Class<?> type, Type field, Consumer<Object> consumer) {
+        return valueBuilder(type, field, null).build(consumer);
+    }
+
+    static ConverterBuilder valueBuilder(Class<?> type, Type field, CompiledRecordMapper<?> compiled) {
+        if (field.isPrimitive()) {
+            return consumer -> SimpleTypeConverters.of(type, field.asPrimitiveType(), consumer);
+        }
+        ConverterPlan plan = plan(type, field.asGroupType(), compiled);
+        return consumer -> new JavaRecordConverter(plan, consumer, Map.of());
+    }
+
+    /**
+     * Returns the constructor of the record generated at compile time if
+     * available, or a factory invoking it through a method handle otherwise.
+     */
+    static Function<Object[], Object> constructor(Class<?> recordClass, CompiledRecordMapper<?> compiled) {
+        Function<Object[], Object> constructor = compiled == null ? null : compiled.constructor(recordClass);
+        return constructor != null ? constructor : recordFactory(recordClass);
+    }
+
+    static Class<?> collectionType(RecordComponent component, Type field) {
+        if (!(component.getGenericType() instanceof ParameterizedType paramType)) {
+            throw new RecordTypeConversionException("Invalid collection type " + component.getGenericType());
+        }
+        Class<?> parametizedClass = (Class<?>) paramType.getRawType();
+        if (!Collection.class.isAssignableFrom(parametizedClass)) {
+            throw new RecordTypeConversionException("Invalid collection type " + paramType.getRawType());
+        }
+        java.lang.reflect.Type listType = paramType.getActualTypeArguments()[0];
+        if (!(listType instanceof Class<?>)) {
+            throw new RecordTypeConversionException("Invalid type " + parametizedClass + " as " + listType);
+        }
+        return (Class<?>) listType;
+    }
+
+    static Object nullValue(Class<?> type) {
+        return switch (type.getName()) {
+        case "byte" -> (byte) 0;
+        case "short" -> (short) 0;
+        case "int" -> 0;
+        case "long" -> 0L;
+        case "double" -> 0.0;
+        case "float" -> 0.0F;
+        case "boolean" -> false;
+        default -> null;
+        };
+    }
+
+    static Object constantValue(Class<?> type, String value) {
+        if (value == null) {
+            return nullValue(type);
+        }
+        try {
+            if (type.isEnum()) {
+                return SimpleTypeConverters.enumValue(type, value);
+            }
+            return switch (type.getName()) {
+            case "byte", "java.lang.Byte" -> Byte.parseByte(value);
+            case "short", "java.lang.Short" -> Short.parseShort(value);
+            case "int", "java.lang.Integer" -> Integer.parseInt(value);
+            case "long", "java.lang.Long" -> Long.parseLong(value);
+            case "double", "java.lang.Double" -> Double.parseDouble(value);
+            case "float", "java.lang.Float" -> Float.parseFloat(value);
+            case "boolean", "java.lang.Boolean" -> Boolean.parseBoolean(value);
+            case "java.lang.String" -> value;
+            default -> throw new RecordTypeConversionException(type + " type not supported as constant value");
+            };
+        } catch (IllegalArgumentException e) {
+            throw new RecordTypeConversionException("Invalid value " + value + " for type " + type.getName());
+        }
+    }
+
+    static Object missingValue(Class<?> type) {
+        return switch (type.getName()) {
+        case "byte", "java.lang.Byte" -> (byte) 0;
+        case "short", "java.lang.Short" -> (short) 0;
+        case "int", "java.lang.Integer" -> 0;
+        case "long", "java.lang.Long" -> 0L;
+        case "double", "java.lang.Double" -> 0.0;
+        case "float", "java.lang.Float" -> 0.0F;
+        case "boolean", "java.lang.Boolean" -> false;
+        default -> null;
+        };
+    }
+
+}
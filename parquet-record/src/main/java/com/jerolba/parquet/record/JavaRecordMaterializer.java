@@ -0,0 +1,67 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import java.util.Map;
+
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.RecordMaterializer;
+import org.apache.parquet.schema.MessageType;
+
+import com.jerolba.avro.record.CompiledMappers;
+
+/**
+ *
+ * Materializes each Parquet row as an instance of the record class.
+ *
+ * @param <T> the type of the record
+ */
+class JavaRecordMaterializer<T> extends RecordMaterializer<T> {
+
+    private final JavaRecordConverter root;
+
+    JavaRecordMaterializer(Class<T> recordClass, MessageType requestedSchema, Map<String, String> constants) {
+        this.root = new JavaRecordConverter(recordClass, requestedSchema, record -> {
+        }, constants, CompiledMappers.find(recordClass));
+    }
+
+    /**
+     * Returns the materializer of the records, calling the record constructors
+     * generated at compile time if the record has a compiled mapper.
+     *
+     * @param recordClass     the class of the records
+     * @param requestedSchema the schema of the requested columns
+     * @param constants       the values by field name of the components not present
+     *                        in the file
+     * @return the materializer of the records
+     */
+    static <T> RecordMaterializer<T> of(Class<T> recordClass, MessageType requestedSchema,
+            Map<String, String> constants) {
+        return new JavaRecordMaterializer<>(recordClass, requestedSchema, constants);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T getCurrentRecord() {
+        return (T) root.getCurrentRecord();
+    }
+
+    @Override
+    public GroupConverter getRootConverter() {
+        return root;
+    }
+
+}
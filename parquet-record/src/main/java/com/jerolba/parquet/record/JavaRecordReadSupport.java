@@ -0,0 +1,94 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.api.InitContext;
+import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.io.api.RecordMaterializer;
+import org.apache.parquet.schema.MessageType;
+
+import com.jerolba.avro.record.RecordMappingCache;
+
+/**
+ *
+ * Parquet {@link ReadSupport} that materializes rows directly as Java records,
+ * without creating an intermediate Avro {@code GenericRecord}.
+ *
+ * Only the columns referenced by the record components are requested, so the
+ * column chunks of the remaining columns are never read from the file. The
+ * projection is cached by record class and file schema.
+ *
+ * Records annotated with {@link com.jerolba.record.annotation.GenerateMapper}
+ * are instantiated calling the constructors generated at compile time, with
+ * the values decoded by the same column converters.
+ *
+ * It can be used with any Parquet reader that accepts a {@link ReadSupport}.
+ *
+ * @param <T> the type of the records in the Parquet file
+ */
+public class JavaRecordReadSupport<T> extends ReadSupport<T> {
+
+    private record ProjectionKey(Class<?> recordClass, MessageType fileSchema) {
+    }
+
+    private static final RecordMappingCache<ProjectionKey, MessageType> PROJECTIONS = new RecordMappingCache<>();
+
+    private final Class<T> recordClass;
+    private final Map<String, String> constants;
+
+    /**
+     *
+     * Creates a new {@code JavaRecordReadSupport} for the specified record class.
+     *
+     * @param recordClass the class of the records in the Parquet file
+     */
+    public JavaRecordReadSupport(Class<T> recordClass) {
+        this(recordClass, Map.of());
+    }
+
+    /**
+     *
+     * Creates a new {@code JavaRecordReadSupport} for the specified record class,
+     * where the components not present in the file take their value from the
+     * specified constants.
+     *
+     * @param recordClass the class of the records in the Parquet file
+     * @param constants   the values by field name of the components not present
+     *                    in the file
+     */
+    JavaRecordReadSupport(Class<T> recordClass, Map<String, String> constants) {
+        this.recordClass = recordClass;
+        this.constants = constants;
+    }
+
+    @Override
+    public ReadContext init(InitContext context) {
+        MessageType fileSchema = context.getFileSchema();
+        MessageType requestedSchema = PROJECTIONS.get(new ProjectionKey(recordClass, fileSchema),
+                key -> RecordProjection.project(recordClass, fileSchema));
+        return new ReadContext(requestedSchema);
+    }
+
+    @Override
+    public RecordMaterializer<T> prepareForRead(Configuration configuration, Map<String, String> keyValueMetaData,
+            MessageType fileSchema, ReadContext readContext) {
+        return JavaRecordMaterializer.of(recordClass, readContext.getRequestedSchema(), constants);
+    }
+
+}
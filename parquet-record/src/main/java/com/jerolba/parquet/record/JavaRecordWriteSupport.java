@@ -0,0 +1,106 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import java.util.Map;
+
+import org.apache.avro.Schema;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.avro.AvroReadSupport;
+import org.apache.parquet.avro.AvroSchemaConverter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.MessageType;
+
+import com.jerolba.avro.record.CompiledMappers;
+import com.jerolba.avro.record.JavaRecord2Schema;
+import com.jerolba.avro.record.RecordMappingCache;
+
+/**
+ *
+ * Parquet {@link WriteSupport} that writes Java records directly to the
+ * {@link RecordConsumer}, without creating an intermediate Avro
+ * {@code GenericRecord}.
+ *
+ * The file schema is the same one written by parquet-avro, and the Avro schema
+ * is stored in the file metadata, so files remain readable by Avro based
+ * readers. Schemas and field writers are built once per record class and
+ * shared by all the writers of the process.
+ *
+ * Records annotated with {@link com.jerolba.record.annotation.GenerateMapper}
+ * take their schema and component accessors from the mapper generated at
+ * compile time, avoiding the reflection and lambda generation needed to build
+ * them.
+ *
+ * @param <T> the type of the records to write
+ */
+public class JavaRecordWriteSupport<T> extends WriteSupport<T> {
+
+    private record WriteMapping(Schema avroSchema, MessageType schema, RecordFieldsWriter fieldsWriter) {
+    }
+
+    private static final RecordMappingCache<Class<?>, WriteMapping> WRITE_MAPPINGS = new RecordMappingCache<>();
+
+    private final Schema avroSchema;
+    private final MessageType schema;
+    private final RecordFieldsWriter fieldsWriter;
+    private RecordConsumer recordConsumer;
+
+    /**
+     *
+     * Creates a new {@code JavaRecordWriteSupport} for the specified record class.
+     *
+     * @param recordClass the class of the records to write
+     */
+    public JavaRecordWriteSupport(Class<T> recordClass) {
+        WriteMapping mapping = WRITE_MAPPINGS.get(recordClass, JavaRecordWriteSupport::buildMapping);
+        this.avroSchema = mapping.avroSchema();
+        this.schema = mapping.schema();
+        this.fieldsWriter = mapping.fieldsWriter();
+    }
+
+    private static WriteMapping buildMapping(Class<?> recordClass) {
+        Schema avroSchema = new JavaRecord2Schema().build(recordClass);
+        MessageType schema = new AvroSchemaConverter().convert(avroSchema);
+        try {
+            RecordFieldsWriter fieldsWriter = new RecordFieldsWriter(recordClass, schema,
+                    CompiledMappers.find(recordClass));
+            return new WriteMapping(avroSchema, schema, fieldsWriter);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public WriteContext init(Configuration configuration) {
+        return new WriteContext(schema, Map.of(AvroReadSupport.AVRO_SCHEMA_METADATA_KEY, avroSchema.toString()));
+    }
+
+    @Override
+    public void prepareForWrite(RecordConsumer recordConsumer) {
+        this.recordConsumer = recordConsumer;
+    }
+
+    @Override
+    public void write(T record) {
+        recordConsumer.startMessage();
+        fieldsWriter.write(recordConsumer, record);
+        recordConsumer.endMessage();
+    }
+
+}
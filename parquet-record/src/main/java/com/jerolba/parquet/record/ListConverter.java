@@ -0,0 +1,141 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import static com.jerolba.parquet.record.AliasField.getFieldName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.Type;
+
+import com.jerolba.avro.record.CompiledRecordMapper;
+import com.jerolba.parquet.record.JavaRecordConverter.ConverterBuilder;
+
+/**
+ *
+ * Converts a Parquet LIST annotated group into a {@link List}. Supports both
+ * the two level structure written by parquet-avro by default and the standard
+ * three level structure.
+ *
+ */
+class ListConverter extends GroupConverter {
+
+    private final Converter converter;
+    private final Consumer<Object> consumer;
+    private List<Object> list;
+
+    private ListConverter(ConverterBuilder elementBuilder, boolean listElement, Consumer<Object> consumer) {
+        this.consumer = consumer;
+        if (listElement) {
+            this.converter = elementBuilder.build(value -> list.add(value));
+        } else {
+            this.converter = new ElementConverter(elementBuilder);
+        }
+    }
+
+    /**
+     * Resolves the structure of the LIST group and the converter of its elements
+     * once, returning a builder of list converters.
+     *
+     * @param elementType the Java type of the collection elements
+     * @param listType    the LIST annotated group
+     * @param compiled    the mapper generated at compile time for the main
+     *                    record, or null
+     * @return the builder of the converters of the list
+     */
+    static ConverterBuilder builder(Class<?> elementType, GroupType listType, CompiledRecordMapper<?> compiled) {
+        Type repeatedType = listType.getType(0);
+        boolean listElement = isListElement(repeatedType, listType.getName(), elementType);
+        Type elementField = listElement ? repeatedType : repeatedType.asGroupType().getType(0);
+        ConverterBuilder elementBuilder = JavaRecordConverter.valueBuilder(elementType, elementField, compiled);
+        return consumer -> new ListConverter(elementBuilder, listElement, consumer);
+    }
+
+    @Override
+    public Converter getConverter(int fieldIndex) {
+        return converter;
+    }
+
+    @Override
+    public void start() {
+        list = new ArrayList<>();
+    }
+
+    @Override
+    public void end() {
+        consumer.accept(list);
+    }
+
+    /**
+     * Returns true if the repeated field of a LIST group is the element itself
+     * (two level structure) instead of a wrapper of the element (three level
+     * structure), following the Parquet format backward compatibility rules.
+     *
+     * @param repeatedType the repeated field of the LIST group
+     * @param parentName   the name of the LIST group
+     * @param elementType  the Java type of the collection elements
+     * @return true if the repeated field is the element
+     */
+    static boolean isListElement(Type repeatedType, String parentName, Class<?> elementType) {
+        if (repeatedType.isPrimitive()) {
+            return true;
+        }
+        GroupType repeatedGroup = repeatedType.asGroupType();
+        if (repeatedGroup.getFieldCount() > 1) {
+            return true;
+        }
+        String name = repeatedGroup.getName();
+        if (name.equals("array") || name.equals(parentName + "_tuple")) {
+            return true;
+        }
+        String fieldName = repeatedGroup.getFieldName(0);
+        return elementType.isRecord() && Stream.of(elementType.getRecordComponents())
+                .anyMatch(component -> getFieldName(component).equals(fieldName));
+    }
+
+    private class ElementConverter extends GroupConverter {
+
+        private final Converter elementConverter;
+        private Object element;
+
+        ElementConverter(ConverterBuilder elementBuilder) {
+            this.elementConverter = elementBuilder.build(value -> element = value);
+        }
+
+        @Override
+        public Converter getConverter(int fieldIndex) {
+            return elementConverter;
+        }
+
+        @Override
+        public void start() {
+            element = null;
+        }
+
+        @Override
+        public void end() {
+            list.add(element);
+        }
+
+    }
+
+}
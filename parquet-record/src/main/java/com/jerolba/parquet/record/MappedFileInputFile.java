@@ -0,0 +1,262 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+/**
+ *
+ * {@link InputFile} that maps the file in memory and serves the reads from the
+ * mapped buffers, avoiding a system call and an intermediate copy for each
+ * read. Repeated scans of a file that is in the page cache are served directly
+ * from memory.
+ *
+ * Files larger than 2 GB are mapped in multiple segments. The file is mapped
+ * the first time it is accessed and the mapping is shared by all the streams
+ * created by this instance. The mapping is released when the instance is
+ * garbage collected.
+ *
+ */
+public class MappedFileInputFile implements InputFile {
+
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+
+    private final File file;
+    private ByteBuffer[] segments;
+    private long length;
+
+    /**
+     *
+     * Constructs a MappedFileInputFile with the specified file.
+     *
+     * @param file the file to read from
+     */
+    public MappedFileInputFile(File file) {
+        this.file = file;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    /**
+     *
+     * Returns the length of the mapped file.
+     *
+     * @return the length of the file
+     * @throws IOException if an error occurs while mapping the file
+     */
+    @Override
+    public long getLength() throws IOException {
+        map();
+        return length;
+    }
+
+    /**
+     *
+     * Creates a new stream for reading from the mapped file.
+     *
+     * @return a new SeekableInputStream for reading from the file
+     * @throws IOException if an error occurs while mapping the file
+     */
+    @Override
+    public SeekableInputStream newStream() throws IOException {
+        return new MappedSeekableInputStream(map(), length);
+    }
+
+    private synchronized ByteBuffer[] map() throws IOException {
+        if (segments == null) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                long size = channel.size();
+                int count = (int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_BITS);
+                ByteBuffer[] mapped = new ByteBuffer[count];
+                for (int i = 0; i < count; i++) {
+                    long position = i * SEGMENT_SIZE;
+                    mapped[i] = channel.map(MapMode.READ_ONLY, position, Math.min(SEGMENT_SIZE, size - position));
+                }
+                this.length = size;
+                this.segments = mapped;
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Stream over the mapped segments. Reads use absolute positions in the
+     * buffers, so the segments can be shared between streams without
+     * synchronization.
+     */
+    private static class MappedSeekableInputStream extends SeekableInputStream {
+
+        private final ByteBuffer[] segments;
+        private final long length;
+        private long position = 0;
+        private long markedPos = 0;
+
+        MappedSeekableInputStream(ByteBuffer[] segments, long length) {
+            this.segments = segments;
+            this.length = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position >= length) {
+                return -1;
+            }
+            int value = segments[segment(position)].get(offset(position)) & 0xFF;
+            position++;
+            return value;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= length) {
+                return -1;
+            }
+            int toRead = (int) Math.min(len, length - position);
+            copy(b, off, toRead);
+            return toRead;
+        }
+
+        @Override
+        public long skip(long skipCount) throws IOException {
+            if (skipCount <= 0 || position >= length) {
+                return 0;
+            }
+            long skipped = Math.min(skipCount, length - position);
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(Integer.MAX_VALUE, Math.max(0, length - position));
+        }
+
+        @Override
+        public void close() throws IOException {
+        }
+
+        @Override
+        public synchronized void mark(int readlimit) {
+            markedPos = position;
+        }
+
+        @Override
+        public synchronized void reset() throws IOException {
+            position = markedPos;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public long getPos() throws IOException {
+            return position;
+        }
+
+        @Override
+        public void seek(long newPos) throws IOException {
+            if (newPos < 0 || newPos > length) {
+                throw new EOFException("Invalid position " + newPos + " in file of length " + length);
+            }
+            position = newPos;
+        }
+
+        @Override
+        public void readFully(byte[] bytes) throws IOException {
+            readFully(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public void readFully(byte[] bytes, int start, int len) throws IOException {
+            checkAvailable(len);
+            copy(bytes, start, len);
+        }
+
+        @Override
+        public int read(ByteBuffer byteBuffer) throws IOException {
+            if (!byteBuffer.hasRemaining()) {
+                return 0;
+            }
+            if (position >= length) {
+                return -1;
+            }
+            int toRead = (int) Math.min(byteBuffer.remaining(), length - position);
+            copy(byteBuffer, toRead);
+            return toRead;
+        }
+
+        @Override
+        public void readFully(ByteBuffer byteBuffer) throws IOException {
+            int toRead = byteBuffer.remaining();
+            checkAvailable(toRead);
+            copy(byteBuffer, toRead);
+        }
+
+        private void checkAvailable(int len) throws EOFException {
+            if (len > length - position) {
+                throw new EOFException("Missing " + (len - (length - position)) + " bytes left to read from File");
+            }
+        }
+
+        private void copy(byte[] bytes, int start, int len) {
+            while (len > 0) {
+                ByteBuffer segment = segments[segment(position)];
+                int offset = offset(position);
+                int chunk = Math.min(len, segment.limit() - offset);
+                segment.get(offset, bytes, start, chunk);
+                position += chunk;
+                start += chunk;
+                len -= chunk;
+            }
+        }
+
+        private void copy(ByteBuffer byteBuffer, int len) {
+            while (len > 0) {
+                ByteBuffer segment = segments[segment(position)];
+                int offset = offset(position);
+                int chunk = Math.min(len, segment.limit() - offset);
+                byteBuffer.put(segment.slice(offset, chunk));
+                position += chunk;
+                len -= chunk;
+            }
+        }
+
+        private static int segment(long pos) {
+            return (int) (pos >>> SEGMENT_BITS);
+        }
+
+        private static int offset(long pos) {
+            return (int) (pos & (SEGMENT_SIZE - 1));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.Type;
+
+/**
+ *
+ * Converters that ignore the values of columns without a record component.
+ *
+ */
+final class NoOpConverter {
+
+    private static final PrimitiveConverter PRIMITIVE = new PrimitiveConverter() {
+
+        @Override
+        public void addBinary(Binary value) {
+        }
+
+        @Override
+        public void addBoolean(boolean value) {
+        }
+
+        @Override
+        public void addDouble(double value) {
+        }
+
+        @Override
+        public void addFloat(float value) {
+        }
+
+        @Override
+        public void addInt(int value) {
+        }
+
+        @Override
+        public void addLong(long value) {
+        }
+
+    };
+
+    private NoOpConverter() {
+    }
+
+    static Converter of(Type type) {
+        if (type.isPrimitive()) {
+            return PRIMITIVE;
+        }
+        return new NoOpGroupConverter(type.asGroupType());
+    }
+
+    private static class NoOpGroupConverter extends GroupConverter {
+
+        private final Converter[] converters;
+
+        NoOpGroupConverter(GroupType type) {
+            converters = new Converter[type.getFieldCount()];
+            for (int i = 0; i < converters.length; i++) {
+                converters[i] = of(type.getType(i));
+            }
+        }
+
+        @Override
+        public Converter getConverter(int fieldIndex) {
+            return converters[fieldIndex];
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void end() {
+        }
+
+    }
+
+}
@@ -0,0 +1,352 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+
+import com.jerolba.avro.record.RecordTypeConversionException;
+
+/**
+ *
+ * This class reads the columns backing a selection of components of a record
+ * class, row group by row group, decoding them straight from the column readers
+ * into primitive arrays with a bitmap of null values. No record is
+ * materialized, so aggregations over a column do not allocate per row.
+ *
+ * Only components of primitive or boxed primitive types, directly or inside
+ * nested records, can be selected. Nested record components are referenced
+ * with a dot separated path, like in {@link RecordFilter}.
+ *
+ */
+public class ParquetColumnReader {
+
+    private final InputFile inputFile;
+    private final List<SelectedColumn> selected;
+
+    /**
+     *
+     * Creates a new {@code ParquetColumnReader} instance from the specified path,
+     * record class and record component names.
+     *
+     * @param path        the path to the Parquet file
+     * @param recordClass the class of the records in the Parquet file
+     * @param components  the names of the record components to read
+     */
+    public ParquetColumnReader(String path, Class<?> recordClass, String... components) {
+        this(new FileSystemInputFile(new File(path)), recordClass, components);
+    }
+
+    /**
+     *
+     * Creates a new {@code ParquetColumnReader} instance from the specified input
+     * file, record class and record component names.
+     *
+     * @param inputFile   the input file containing the Parquet data
+     * @param recordClass the class of the records in the Parquet file
+     * @param components  the names of the record components to read
+     */
+    public ParquetColumnReader(InputFile inputFile, Class<?> recordClass, String... components) {
+        if (components.length == 0) {
+            throw new IllegalArgumentException("No record component selected");
+        }
+        this.inputFile = inputFile;
+        this.selected = new ArrayList<>();
+        for (String component : components) {
+            selected.add(SelectedColumn.resolve(recordClass, component));
+        }
+    }
+
+    /**
+     *
+     * Returns an {@link Iterator} over the row groups of the Parquet file, with
+     * the selected columns of each one.
+     *
+     * @return an iterator for the columns of the row groups
+     * @throws IOException if an I/O error occurs
+     */
+    public Iterator<RowGroupColumns> iterator() throws IOException {
+        return buildIterator();
+    }
+
+    /**
+     *
+     * Returns a {@link Stream} over the row groups of the Parquet file, with the
+     * selected columns of each one.
+     *
+     * @return a stream for the columns of the row groups
+     * @throws IOException if an I/O error occurs
+     */
+    public Stream<RowGroupColumns> stream() throws IOException {
+        ColumnsIterator iterator = buildIterator();
+        var spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(iterator::uncheckedCloseReader);
+    }
+
+    private ColumnsIterator buildIterator() throws IOException {
+        ParquetFileReader reader = ParquetFileReader.open(inputFile, ParquetReadOptions.builder().build());
+        try {
+            return new ColumnsIterator(reader);
+        } catch (RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * A record component selected to be read, with the path of its column in the
+     * file and the type of the values.
+     */
+    private record SelectedColumn(String component, String[] path, PrimitiveTypeName typeName) {
+
+        static SelectedColumn resolve(Class<?> recordClass, String component) {
+            ComponentPath componentPath = ComponentPath.resolve(recordClass, component);
+            Class<?> type = componentPath.type();
+            PrimitiveTypeName typeName = switch (type.getName()) {
+            case "int", "java.lang.Integer", "short", "java.lang.Short", "byte", "java.lang.Byte" ->
+                PrimitiveTypeName.INT32;
+            case "long", "java.lang.Long" -> PrimitiveTypeName.INT64;
+            case "float", "java.lang.Float" -> PrimitiveTypeName.FLOAT;
+            case "double", "java.lang.Double" -> PrimitiveTypeName.DOUBLE;
+            case "boolean", "java.lang.Boolean" -> PrimitiveTypeName.BOOLEAN;
+            default -> throw new IllegalArgumentException("Columnar read not supported on " + component
+                    + " of type " + type.getName());
+            };
+            return new SelectedColumn(component, componentPath.columnPath(), typeName);
+        }
+
+    }
+
+    /**
+     * This class provides an iterator for the selected columns of a Parquet file,
+     * reading it row group by row group.
+     */
+    private class ColumnsIterator implements Iterator<RowGroupColumns>, Closeable {
+
+        private final ParquetFileReader reader;
+        private final MessageType requestedSchema;
+        private final GroupConverter converter;
+        private final String createdBy;
+        private final ColumnDescriptor[] descriptors;
+        private RowGroupColumns next;
+        private boolean closed = false;
+
+        ColumnsIterator(ParquetFileReader reader) {
+            this.reader = reader;
+            MessageType fileSchema = reader.getFileMetaData().getSchema();
+            this.createdBy = reader.getFileMetaData().getCreatedBy();
+            List<String[]> paths = new ArrayList<>();
+            for (SelectedColumn column : selected) {
+                if (!fileSchema.containsPath(column.path())) {
+                    throw new RecordTypeConversionException("Column " + String.join(".", column.path())
+                            + " of component " + column.component() + " not found in the file");
+                }
+                paths.add(column.path());
+            }
+            this.requestedSchema = new MessageType(fileSchema.getName(), project(fileSchema, paths, 0));
+            reader.setRequestedSchema(requestedSchema);
+            this.converter = NoOpConverter.of(requestedSchema).asGroupConverter();
+            this.descriptors = new ColumnDescriptor[selected.size()];
+            for (int i = 0; i < descriptors.length; i++) {
+                descriptors[i] = descriptor(selected.get(i));
+            }
+        }
+
+        private ColumnDescriptor descriptor(SelectedColumn column) {
+            ColumnDescriptor descriptor = requestedSchema.getColumnDescription(column.path());
+            if (descriptor.getMaxRepetitionLevel() > 0) {
+                throw new RecordTypeConversionException("Column of component " + column.component()
+                        + " is repeated");
+            }
+            PrimitiveTypeName fileType = descriptor.getPrimitiveType().getPrimitiveTypeName();
+            if (fileType != column.typeName()) {
+                throw new RecordTypeConversionException("Column of component " + column.component() + " is "
+                        + fileType + ", not " + column.typeName());
+            }
+            return descriptor;
+        }
+
+        private List<Type> project(GroupType group, Collection<String[]> paths, int depth) {
+            List<Type> fields = new ArrayList<>();
+            for (Type field : group.getFields()) {
+                List<String[]> fieldPaths = paths.stream()
+                        .filter(path -> path[depth].equals(field.getName()))
+                        .toList();
+                if (fieldPaths.isEmpty()) {
+                    continue;
+                }
+                if (field.isPrimitive()) {
+                    fields.add(field);
+                } else {
+                    GroupType fieldGroup = field.asGroupType();
+                    fields.add(fieldGroup.withNewFields(project(fieldGroup, fieldPaths, depth + 1)));
+                }
+            }
+            return fields;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !closed) {
+                try {
+                    PageReadStore rowGroup = reader.readNextRowGroup();
+                    if (rowGroup == null) {
+                        close();
+                    } else {
+                        next = readColumns(rowGroup);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public RowGroupColumns next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            RowGroupColumns res = next;
+            next = null;
+            return res;
+        }
+
+        private RowGroupColumns readColumns(PageReadStore rowGroup) {
+            int rows = Math.toIntExact(rowGroup.getRowCount());
+            var store = new ColumnReadStoreImpl(rowGroup, converter, requestedSchema, createdBy);
+            Map<String, ColumnVector> columns = new LinkedHashMap<>();
+            for (int i = 0; i < descriptors.length; i++) {
+                String component = selected.get(i).component();
+                ColumnReader columnReader = store.getColumnReader(descriptors[i]);
+                columns.put(component, readColumn(component, columnReader, rows));
+            }
+            return new RowGroupColumns(rows, columns);
+        }
+
+        private ColumnVector readColumn(String component, ColumnReader column, int rows) {
+            int maxDefinition = column.getDescriptor().getMaxDefinitionLevel();
+            BitSet nulls = new BitSet();
+            Object values = switch (column.getDescriptor().getPrimitiveType().getPrimitiveTypeName()) {
+            case INT32 -> {
+                int[] ints = new int[rows];
+                for (int i = 0; i < rows; i++, column.consume()) {
+                    if (column.getCurrentDefinitionLevel() == maxDefinition) {
+                        ints[i] = column.getInteger();
+                    } else {
+                        nulls.set(i);
+                    }
+                }
+                yield ints;
+            }
+            case INT64 -> {
+                long[] longs = new long[rows];
+                for (int i = 0; i < rows; i++, column.consume()) {
+                    if (column.getCurrentDefinitionLevel() == maxDefinition) {
+                        longs[i] = column.getLong();
+                    } else {
+                        nulls.set(i);
+                    }
+                }
+                yield longs;
+            }
+            case FLOAT -> {
+                float[] floats = new float[rows];
+                for (int i = 0; i < rows; i++, column.consume()) {
+                    if (column.getCurrentDefinitionLevel() == maxDefinition) {
+                        floats[i] = column.getFloat();
+                    } else {
+                        nulls.set(i);
+                    }
+                }
+                yield floats;
+            }
+            case DOUBLE -> {
+                double[] doubles = new double[rows];
+                for (int i = 0; i < rows; i++, column.consume()) {
+                    if (column.getCurrentDefinitionLevel() == maxDefinition) {
+                        doubles[i] = column.getDouble();
+                    } else {
+                        nulls.set(i);
+                    }
+                }
+                yield doubles;
+            }
+            case BOOLEAN -> {
+                boolean[] booleans = new boolean[rows];
+                for (int i = 0; i < rows; i++, column.consume()) {
+                    if (column.getCurrentDefinitionLevel() == maxDefinition) {
+                        booleans[i] = column.getBoolean();
+                    } else {
+                        nulls.set(i);
+                    }
+                }
+                yield booleans;
+            }
+            default -> throw new IllegalStateException("Unexpected column type " + Arrays.toString(
+                    column.getDescriptor().getPath()));
+            };
+            return new ColumnVector(component, values, nulls, rows);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                next = null;
+                reader.close();
+            }
+        }
+
+        private void uncheckedCloseReader() {
+            try {
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,553 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.parquet.io.InputFile;
+
+/**
+ *
+ * This class reads a dataset composed of multiple Parquet files and provides
+ * access to their records through an {@link Iterator} or {@link Stream}.
+ *
+ * Files are opened and read concurrently by a pool of threads, with at most
+ * {@code parallelism} files in flight, while records are returned in the order
+ * of the files. It is designed for datasets of many small files, where opening
+ * the files one by one serializes all the footer reads. The records of each file
+ * are read ahead into a bounded buffer, so the memory used does not depend on
+ * the size of the files.
+ *
+ * @param <T> the type of the records in the Parquet files
+ *
+ */
+public class ParquetRecordDatasetReader<T> {
+
+    private static final String DEFAULT_PARTITION = "__HIVE_DEFAULT_PARTITION__";
+    private static final int FILE_READ_AHEAD = 1024;
+    private static final Object END = new Object();
+
+    private final List<DatasetFile> files;
+    private final Class<T> recordClass;
+    private final int parallelism;
+
+    private record DatasetFile(InputFile file, Map<String, String> partitionValues) {
+    }
+
+    /**
+     *
+     * Creates a new {@code ParquetRecordDatasetReader} for the specified files,
+     * using as many threads as available processors.
+     *
+     * @param files       the Parquet files of the dataset
+     * @param recordClass the class of the records in the Parquet files
+     */
+    public ParquetRecordDatasetReader(List<? extends InputFile> files, Class<T> recordClass) {
+        this(files, recordClass, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     *
+     * Creates a new {@code ParquetRecordDatasetReader} for the specified files.
+     *
+     * @param files       the Parquet files of the dataset
+     * @param recordClass the class of the records in the Parquet files
+     * @param parallelism the maximum number of files read concurrently
+     */
+    public ParquetRecordDatasetReader(List<? extends InputFile> files, Class<T> recordClass, int parallelism) {
+        this.files = files.stream().map(file -> new DatasetFile(file, Map.of())).toList();
+        this.recordClass = recordClass;
+        this.parallelism = validParallelism(parallelism);
+    }
+
+    /**
+     *
+     * Creates a new {@code ParquetRecordDatasetReader} for all the files in the
+     * specified directory and its subdirectories, ignoring the files and
+     * directories whose name starts with {@code _} or {@code .}.
+     *
+     * Subdirectories named {@code key=value} are partitions of the dataset: the
+     * record components named as the partition key that are not present in the
+     * files take the value of the partition.
+     *
+     * @param directory   the directory of the dataset
+     * @param recordClass the class of the records in the Parquet files
+     * @throws IOException if an I/O error occurs listing the directory
+     */
+    public ParquetRecordDatasetReader(Path directory, Class<T> recordClass) throws IOException {
+        this(directory, "**", recordClass, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     *
+     * Creates a new {@code ParquetRecordDatasetReader} for a dataset partitioned
+     * in {@code key=value} subdirectories, like {@code date=2023-01-01/region=EU/}.
+     * The record components named as a partition key that are not present in the
+     * files take the value of the partition.
+     *
+     * The partition filter is evaluated on each {@code key=value} directory with
+     * the partition values of its path. If the filter does not match and it only
+     * read keys already bound in the path, the directory is neither walked nor its
+     * files opened. Otherwise the filter is evaluated again in the directories
+     * below, and finally with the partition values of each directory containing
+     * files. A partition key missing from the path is not present in the map, and
+     * the {@code __HIVE_DEFAULT_PARTITION__} value is mapped to null. Files whose
+     * path lacks a key read by the filter, like the files at the root of the
+     * dataset, are skipped if the filter does not match or fails.
+     *
+     * @param directory       the root directory of the dataset
+     * @param partitionFilter the filter over the partition values by key
+     * @param recordClass     the class of the records in the Parquet files
+     * @throws IOException if an I/O error occurs listing the directory
+     */
+    public ParquetRecordDatasetReader(Path directory, Predicate<Map<String, String>> partitionFilter,
+            Class<T> recordClass) throws IOException {
+        this(directory, partitionFilter, recordClass, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     *
+     * Creates a new {@code ParquetRecordDatasetReader} for a dataset partitioned
+     * in {@code key=value} subdirectories, pruning the partitions that do not
+     * match the partition filter.
+     *
+     * @param directory       the root directory of the dataset
+     * @param partitionFilter the filter over the partition values by key
+     * @param recordClass     the class of the records in the Parquet files
+     * @param parallelism     the maximum number of files read concurrently
+     * @throws IOException if an I/O error occurs listing the directory
+     */
+    public ParquetRecordDatasetReader(Path directory, Predicate<Map<String, String>> partitionFilter,
+            Class<T> recordClass, int parallelism) throws IOException {
+        this.files = listFiles(directory, "**", partitionFilter);
+        this.recordClass = recordClass;
+        this.parallelism = validParallelism(parallelism);
+    }
+
+    /**
+     *
+     * Creates a new {@code ParquetRecordDatasetReader} for the files in the
+     * specified directory whose path, relative to the directory, matches a glob
+     * pattern, as in {@code "year=2023/**.parquet"}.
+     *
+     * @param directory   the directory of the dataset
+     * @param glob        the glob pattern of the files
+     * @param recordClass the class of the records in the Parquet files
+     * @throws IOException if an I/O error occurs listing the directory
+     */
+    public ParquetRecordDatasetReader(Path directory, String glob, Class<T> recordClass) throws IOException {
+        this(directory, glob, recordClass, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     *
+     * Creates a new {@code ParquetRecordDatasetReader} for the files in the
+     * specified directory whose path, relative to the directory, matches a glob
+     * pattern.
+     *
+     * @param directory   the directory of the dataset
+     * @param glob        the glob pattern of the files
+     * @param recordClass the class of the records in the Parquet files
+     * @param parallelism the maximum number of files read concurrently
+     * @throws IOException if an I/O error occurs listing the directory
+     */
+    public ParquetRecordDatasetReader(Path directory, String glob, Class<T> recordClass, int parallelism)
+            throws IOException {
+        this.files = listFiles(directory, glob, partition -> true);
+        this.recordClass = recordClass;
+        this.parallelism = validParallelism(parallelism);
+    }
+
+    /**
+     *
+     * Returns an {@link Iterator} that can be used to iterate over the records of
+     * all the files in the dataset.
+     *
+     * The reading threads stop once all the records have been returned or reading
+     * fails. An iterator that is not fully consumed keeps its threads and buffers
+     * alive: use {@link #stream()} in a try-with-resources block, or
+     * {@link #toList()}, to read only part of the dataset.
+     *
+     * @return an iterator for the records in the dataset
+     * @throws IOException if an I/O error occurs
+     */
+    public Iterator<T> iterator() throws IOException {
+        return new DatasetIterator();
+    }
+
+    /**
+     *
+     * Returns a {@link Stream} that can be used to access the records of all the
+     * files in the dataset. The stream should be closed to stop the reading
+     * threads if it is not fully consumed.
+     *
+     * @return a stream for the records in the dataset
+     * @throws IOException if an I/O error occurs
+     */
+    public Stream<T> stream() throws IOException {
+        DatasetIterator iterator = new DatasetIterator();
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+        return StreamSupport.stream(spliterator, false).onClose(iterator::close);
+    }
+
+    /**
+     *
+     * Returns a {@link List} containing all records in the dataset.
+     *
+     * @return a list of all records in the dataset
+     * @throws IOException if an I/O error occurs
+     */
+    public List<T> toList() throws IOException {
+        List<T> result = new ArrayList<>();
+        try (var iterator = new DatasetIterator()) {
+            while (iterator.hasNext()) {
+                result.add(iterator.next());
+            }
+            return result;
+        }
+    }
+
+    private static int validParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism " + parallelism);
+        }
+        return parallelism;
+    }
+
+    private static List<DatasetFile> listFiles(Path directory, String glob,
+            Predicate<Map<String, String>> partitionFilter) throws IOException {
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        Map<Path, Optional<Map<String, String>>> partitions = new HashMap<>();
+        Map<Path, DatasetFile> result = new TreeMap<>();
+        Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (dir.equals(directory)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                if (!isVisible(dir.getFileName())) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                if (dir.getFileName().toString().indexOf('=') > 0) {
+                    Path relative = directory.relativize(dir);
+                    BoundPartition bound = new BoundPartition(partitionValues(relative));
+                    try {
+                        boolean matches = partitionFilter.test(bound);
+                        if (!bound.unboundRead) {
+                            if (!matches) {
+                                return FileVisitResult.SKIP_SUBTREE;
+                            }
+                            partitions.put(relative, Optional.of(bound.values));
+                        }
+                    } catch (RuntimeException e) {
+                        if (!bound.unboundRead) {
+                            throw e;
+                        }
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                Path relative = directory.relativize(file);
+                if (attrs.isRegularFile() && isVisible(relative) && matcher.matches(relative)) {
+                    partitions.computeIfAbsent(relative.getParent(), p -> matchingPartition(p, partitionFilter))
+                            .ifPresent(values -> result.put(file,
+                                    new DatasetFile(new FileSystemInputFile(file.toFile()), values)));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+        return List.copyOf(result.values());
+    }
+
+    private static Optional<Map<String, String>> matchingPartition(Path relativeDir,
+            Predicate<Map<String, String>> partitionFilter) {
+        BoundPartition bound = new BoundPartition(partitionValues(relativeDir));
+        try {
+            return partitionFilter.test(bound) ? Optional.of(bound.values) : Optional.empty();
+        } catch (RuntimeException e) {
+            if (bound.unboundRead) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    private static Map<String, String> partitionValues(Path relativeDir) {
+        Map<String, String> values = new HashMap<>();
+        if (relativeDir != null) {
+            for (Path name : relativeDir) {
+                String segment = name.toString();
+                int idx = segment.indexOf('=');
+                if (idx > 0) {
+                    String value = unescape(segment.substring(idx + 1));
+                    values.put(unescape(segment.substring(0, idx)), DEFAULT_PARTITION.equals(value) ? null : value);
+                }
+            }
+        }
+        return Collections.unmodifiableMap(values);
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('%') < 0) {
+            return value;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' && i + 2 < value.length() && isHex(value.charAt(i + 1)) && isHex(value.charAt(i + 2))) {
+                sb.append((char) Integer.parseInt(value.substring(i + 1, i + 3), 16));
+                i += 2;
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean isHex(char c) {
+        return Character.digit(c, 16) >= 0;
+    }
+
+    private static boolean isVisible(Path relativePath) {
+        for (Path name : relativePath) {
+            String fileName = name.toString();
+            if (fileName.startsWith("_") || fileName.startsWith(".")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Partition values bound by the path of a directory, recording whether the
+     * partition filter reads a key not bound yet or the whole map, in which case
+     * its result may change in the directories below.
+     */
+    private static class BoundPartition extends AbstractMap<String, String> {
+
+        private final Map<String, String> values;
+        private boolean unboundRead = false;
+
+        BoundPartition(Map<String, String> values) {
+            this.values = values;
+        }
+
+        @Override
+        public String get(Object key) {
+            unboundRead |= !values.containsKey(key);
+            return values.get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            unboundRead |= !values.containsKey(key);
+            return values.containsKey(key);
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            unboundRead = true;
+            return values.entrySet();
+        }
+
+    }
+
+    /**
+     * This class provides an iterator over the records of the files in the
+     * dataset. Files are read in a pool of threads, keeping at most
+     * {@code parallelism} files read ahead of the consumer. The records of each
+     * file are passed through a buffer of at most {@code FILE_READ_AHEAD}
+     * records, and its reading thread waits while the buffer is full.
+     */
+    private class DatasetIterator implements Iterator<T>, Closeable {
+
+        private final ExecutorService executor;
+        private final Deque<FileRecords> pending = new ArrayDeque<>();
+        private int nextFile = 0;
+        private T nextRecord;
+
+        DatasetIterator() {
+            this.executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, files.size())), task -> {
+                Thread thread = new Thread(task, "parquet-dataset-reader");
+                thread.setDaemon(true);
+                return thread;
+            });
+            while (pending.size() < parallelism && nextFile < files.size()) {
+                submitNext();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (nextRecord == null) {
+                FileRecords file = pending.peek();
+                if (file == null) {
+                    close();
+                    return false;
+                }
+                Object next = take(file);
+                if (next == END) {
+                    pending.poll();
+                    if (nextFile < files.size()) {
+                        submitNext();
+                    }
+                } else if (next instanceof Failure failure) {
+                    close();
+                    throw failure.propagate();
+                } else {
+                    @SuppressWarnings("unchecked")
+                    T record = (T) next;
+                    nextRecord = record;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T record = nextRecord;
+            nextRecord = null;
+            return record;
+        }
+
+        @Override
+        public void close() {
+            pending.forEach(FileRecords::cancel);
+            pending.clear();
+            nextRecord = null;
+            executor.shutdownNow();
+        }
+
+        private void submitNext() {
+            DatasetFile file = files.get(nextFile++);
+            ParquetRecordReaderConfig<T> config = new ParquetRecordReaderConfig.Builder<>(file.file(), recordClass)
+                    .withPartitionValues(file.partitionValues())
+                    .build();
+            FileRecords records = new FileRecords();
+            pending.add(records);
+            executor.execute(() -> records.read(config));
+        }
+
+        private Object take(FileRecords file) {
+            try {
+                return file.buffer.take();
+            } catch (InterruptedException e) {
+                close();
+                Thread.currentThread().interrupt();
+                throw new UncheckedIOException(new InterruptedIOException("Interrupted while reading dataset"));
+            }
+        }
+
+    }
+
+    /**
+     * The records of a file read ahead of the consumer, followed by the end marker
+     * or by the failure reading the file.
+     */
+    private class FileRecords {
+
+        private final BlockingQueue<Object> buffer = new ArrayBlockingQueue<>(FILE_READ_AHEAD);
+        private volatile boolean cancelled = false;
+
+        void read(ParquetRecordReaderConfig<T> config) {
+            try {
+                try (var iterator = new ParquetRecordReader<>(config).buildIterator()) {
+                    while (!cancelled && iterator.hasNext()) {
+                        buffer.put(iterator.next());
+                    }
+                }
+                buffer.put(END);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                try {
+                    buffer.put(new Failure(e));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        /**
+         * Stops reading the file. The buffer is cleared so the reading thread, if
+         * blocked on a full buffer, wakes up and sees the cancellation.
+         */
+        void cancel() {
+            cancelled = true;
+            buffer.clear();
+        }
+
+    }
+
+    private record Failure(Throwable cause) {
+
+        RuntimeException propagate() {
+            if (cause instanceof IOException ioException) {
+                return new UncheckedIOException(ioException);
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                return runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            return new RuntimeException(cause);
+        }
+
+    }
+
+}
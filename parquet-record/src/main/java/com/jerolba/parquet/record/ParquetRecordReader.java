@@ -20,38 +20,73 @@ import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
-import org.apache.avro.Schema;
-import org.apache.avro.generic.GenericData;
-import org.apache.avro.generic.GenericRecord;
-import org.apache.parquet.avro.AvroParquetReader;
-import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.api.InitContext;
+import org.apache.parquet.hadoop.api.ReadSupport.ReadContext;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
+import org.apache.parquet.io.ColumnIOFactory;
 import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordMaterializer;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
 
-import com.jerolba.avro.record.AvroRecord2JavaRecord;
+import com.jerolba.avro.record.RecordPublisher;
 
 /**
  *
  * This class reads Parquet files and provides access to their data through an
  * {@link Iterator} or {@link Stream}.
  *
- * The records in the Parquet file are mapped to instances of the specified
- * class {@code T} using Avro.
+ * The rows in the Parquet file are materialized directly as instances of the
+ * specified record class {@code T}, using a {@link JavaRecordReadSupport}.
  *
  * @param <T> the type of the records in the Parquet file
  *
  */
-public class ParquetRecordReader<T> {
+public class ParquetRecordReader<T> implements Closeable {
 
     private final InputFile inputFile;
     private final Class<T> recordClass;
+    private final ParquetReadOptions readOptions;
+    private final long prefetchMemory;
+    private final Map<String, String> partitionValues;
+    private final FooterCache footerCache;
+    private final long offset;
+    private final long limit;
+    private RecordIterator<T> batchIterator;
 
     /**
      *
@@ -63,7 +98,7 @@ public class ParquetRecordReader<T> {
      * @throws IOException if an I/O error occurs
      */
     public ParquetRecordReader(String path, Class<T> recordClass) throws IOException {
-        this(new FileSystemInputFile(new File(path)), recordClass);
+        this(new ParquetRecordReaderConfig.Builder<>(path, recordClass).build());
     }
 
     /**
@@ -76,8 +111,97 @@ public class ParquetRecordReader<T> {
      * @throws IOException if an I/O error occurs
      */
     public ParquetRecordReader(InputFile inputFile, Class<T> recordClass) throws IOException {
-        this.inputFile = inputFile;
-        this.recordClass = recordClass;
+        this(new ParquetRecordReaderConfig.Builder<>(inputFile, recordClass).build());
+    }
+
+    /**
+     *
+     * Creates a new {@code ParquetRecordReader} instance that reads only the row
+     * groups of the specified split.
+     *
+     * @param split       the split of the Parquet file, planned with
+     *                    {@link #planSplits(long)}
+     * @param recordClass the class of the records in the Parquet file
+     * @throws IOException if an I/O error occurs
+     */
+    public ParquetRecordReader(ParquetSplit split, Class<T> recordClass) throws IOException {
+        this(new ParquetRecordReaderConfig.Builder<>(split, recordClass).build());
+    }
+
+    /**
+     *
+     * Creates a new {@code ParquetRecordReader} instance with the specified
+     * configuration.
+     *
+     * @param config the configuration for the reader
+     * @throws IOException if an I/O error occurs
+     */
+    public ParquetRecordReader(ParquetRecordReaderConfig<T> config) throws IOException {
+        this.inputFile = config.getInputFile();
+        this.recordClass = config.getRecordClass();
+        this.prefetchMemory = config.getPrefetchMemory();
+        this.partitionValues = config.getPartitionValues();
+        this.footerCache = config.getFooterCache();
+        this.offset = 0;
+        this.limit = Long.MAX_VALUE;
+        this.readOptions = config.getFilter() == null ? config.getReadOptions()
+                : withPredicate(config.getReadOptions(), config.getFilter().toPredicate(recordClass, fileSchema()));
+    }
+
+    private ParquetRecordReader(ParquetRecordReader<T> reader, long offset, long limit) {
+        this.inputFile = reader.inputFile;
+        this.recordClass = reader.recordClass;
+        this.readOptions = reader.readOptions;
+        this.prefetchMemory = reader.prefetchMemory;
+        this.partitionValues = reader.partitionValues;
+        this.footerCache = reader.footerCache;
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    /**
+     *
+     * Returns a reader that skips the first {@code offset} records of this reader.
+     *
+     * Without a filter, the row groups before the offset are located with the row
+     * counts of the file footer and are not read. The row group that contains the
+     * offset is read, but decoding starts at the page of its first record using the
+     * offset indexes. With a filter, the skipped records are the first matching ones, so
+     * they are read and filtered but not returned.
+     *
+     * The offset applies to iterators, streams, batches, cursors and
+     * {@link #count()}, but not to positional access, lookups or footer
+     * statistics.
+     *
+     * @param offset the number of records to skip
+     * @return a reader that skips the records
+     */
+    public ParquetRecordReader<T> offset(long offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Invalid offset " + offset);
+        }
+        long remaining = limit == Long.MAX_VALUE ? limit : Math.max(0, limit - offset);
+        return new ParquetRecordReader<>(this, this.offset + offset, remaining);
+    }
+
+    /**
+     *
+     * Returns a reader that reads at most {@code limit} records of this reader.
+     * Once the limit is reached, no more row groups are read and the file is
+     * closed, without waiting for the records to be exhausted.
+     *
+     * The limit applies to iterators, streams, batches, cursors and
+     * {@link #count()}, but not to positional access, lookups or footer
+     * statistics.
+     *
+     * @param limit the maximum number of records to read
+     * @return a reader that reads at most the records
+     */
+    public ParquetRecordReader<T> limit(long limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Invalid limit " + limit);
+        }
+        return new ParquetRecordReader<>(this, offset, Math.min(this.limit, limit));
     }
 
     /**
@@ -97,15 +221,62 @@ public class ParquetRecordReader<T> {
      * Returns a {@link Stream} that can be used to access the records in the
      * Parquet file.
      *
+     * The stream splits on row group boundaries, reading each split with its own
+     * file reader, so a parallel stream reads row groups concurrently. If no
+     * filter is configured, the stream is {@link Spliterator#SIZED SIZED} from the
+     * row counts in the file footer. With an {@link #offset(long) offset} or a
+     * {@link #limit(long) limit}, the stream reads the records sequentially.
+     *
      * @return a stream for the records in the Parquet file
      * @throws IOException if an I/O error occurs
      */
     public Stream<T> stream() throws IOException {
-        RecordIterator<T> iterator = buildIterator();
-        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(iterator,
-                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+        if (offset > 0 || limit < Long.MAX_VALUE) {
+            RecordIterator<T> iterator = buildIterator();
+            var spliterator = Spliterators.spliteratorUnknownSize(iterator,
+                    Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+            return StreamSupport.stream(spliterator, false).onClose(iterator::uncheckedCloseReader);
+        }
+        List<BlockMetaData> rowGroups;
+        try (ParquetFileReader reader = openReader(readOptions)) {
+            rowGroups = reader.getRowGroups();
+        }
+        Queue<RecordIterator<T>> iterators = new ConcurrentLinkedQueue<>();
+        RowGroupSpliterator spliterator = new RowGroupSpliterator(rowGroups, 0, rowGroups.size(), iterators);
         return StreamSupport.stream(spliterator, false)
-                .onClose(() -> iterator.uncheckedCloseReader());
+                .onClose(() -> iterators.forEach(RecordIterator::uncheckedCloseReader));
+    }
+
+    /**
+     *
+     * Returns a publisher of the records in the Parquet file, reading at most
+     * {@link RecordPublisher#DEFAULT_READ_AHEAD} records ahead of the demand of
+     * each subscriber.
+     *
+     * @return a publisher of the records in the Parquet file
+     * @see #publisher(int)
+     */
+    public Flow.Publisher<T> publisher() {
+        return publisher(RecordPublisher.DEFAULT_READ_AHEAD);
+    }
+
+    /**
+     *
+     * Returns a publisher of the records in the Parquet file. Each subscription
+     * opens the file and reads it in a background thread, reading at most the
+     * specified number of records ahead of the demand of the subscriber. The file
+     * is closed when the subscription is cancelled or the
+     * {@link #limit(long) limit} is reached.
+     *
+     * The row groups read ahead are bounded by the
+     * {@link ParquetRecordReaderConfig.Builder#withPrefetch(long) prefetch}
+     * memory budget, if configured.
+     *
+     * @param readAhead the maximum number of records read ahead of the demand
+     * @return a publisher of the records in the Parquet file
+     */
+    public Flow.Publisher<T> publisher(int readAhead) {
+        return new RecordPublisher<>("parquet-record-publisher", this::buildIterator, readAhead);
     }
 
     /**
@@ -125,41 +296,488 @@ public class ParquetRecordReader<T> {
         }
     }
 
-    private RecordIterator<T> buildIterator() throws IOException {
-        ParquetReader<GenericRecord> reader = AvroParquetReader.<GenericRecord>builder(inputFile)
-                .withDataModel(GenericData.get())
+    /**
+     *
+     * Returns the record at the specified position of the Parquet file.
+     *
+     * @param rowIndex the position of the record, starting at 0
+     * @return the record at the position
+     * @throws IOException if an I/O error occurs
+     * @see #range(long, long)
+     */
+    public T get(long rowIndex) throws IOException {
+        return range(rowIndex, rowIndex + 1).get(0);
+    }
+
+    /**
+     *
+     * Returns the records of the Parquet file in the range of positions from
+     * {@code from}, inclusive, to {@code to}, exclusive.
+     *
+     * The row groups before the range are located with the row counts of the file
+     * footer and are not read. The row groups in the range are read whole, but the
+     * offset index of each column is used to start decoding at the page that
+     * contains the first row of the range. Files without offset indexes decode the rows of the row group before
+     * the range.
+     *
+     * @param from the position of the first record, starting at 0
+     * @param to   the position after the last record
+     * @return the records in the range
+     * @throws IOException if an I/O error occurs
+     */
+    public List<T> range(long from, long to) throws IOException {
+        if (FilterCompat.isFilteringRequired(readOptions.getRecordFilter())) {
+            throw new IllegalStateException("Positional access is not supported with a filter");
+        }
+        try (var iterator = buildIterator()) {
+            return iterator.readRange(from, to);
+        }
+    }
+
+    /**
+     *
+     * Returns the records whose component is equal to the specified value. Row
+     * groups that can not contain the value are skipped using their statistics,
+     * dictionary and bloom filter before reading any data page, so bloom filters
+     * written for the component make point lookups on high cardinality columns
+     * cheap. The configured filter, if any, is also applied.
+     *
+     * @param component the name of the record component, or a dot separated path
+     *                  to a component of a nested record
+     * @param value     the value to look up
+     * @return the matching records
+     * @throws IOException if an I/O error occurs
+     */
+    public List<T> lookup(String component, Object value) throws IOException {
+        return lookup(RecordFilter.where(component).eq(value));
+    }
+
+    /**
+     *
+     * Returns the records whose component is equal to any of the specified values.
+     * A row group is skipped when, according to its statistics, dictionary and
+     * bloom filter, none of the values can be in it.
+     *
+     * @param component the name of the record component, or a dot separated path
+     *                  to a component of a nested record
+     * @param values    the values to look up
+     * @return the matching records
+     * @throws IOException if an I/O error occurs
+     */
+    public List<T> lookup(String component, Collection<?> values) throws IOException {
+        if (values.isEmpty()) {
+            return List.of();
+        }
+        return lookup(RecordFilter.where(component).in(values));
+    }
+
+    private List<T> lookup(RecordFilter keys) throws IOException {
+        FilterPredicate predicate = keys.toPredicate(recordClass, fileSchema());
+        if (readOptions.getRecordFilter() instanceof FilterCompat.FilterPredicateCompat current) {
+            predicate = FilterApi.and(current.getFilterPredicate(), predicate);
+        }
+        var config = new ParquetRecordReaderConfig<>(inputFile, recordClass, withPredicate(readOptions, predicate),
+                prefetchMemory, partitionValues, footerCache, null);
+        return new ParquetRecordReader<>(config).toList();
+    }
+
+    private static ParquetReadOptions withPredicate(ParquetReadOptions options, FilterPredicate predicate) {
+        return ParquetReadOptions.builder()
+                .copy(options)
+                .withRecordFilter(FilterCompat.get(predicate))
                 .build();
-        return new RecordIterator<>(recordClass, reader);
     }
 
     /**
-     * This class provides an iterator for the records in a Parquet file.
+     * Reads the schema of the file, needed to type the filter predicates as the
+     * columns of the file.
+     */
+    private MessageType fileSchema() throws IOException {
+        try (ParquetFileReader reader = openReader(ParquetReadOptions.builder().build())) {
+            return reader.getFileMetaData().getSchema();
+        }
+    }
+
+    /**
+     *
+     * Plans the splits of the Parquet file, grouping consecutive row groups until
+     * their compressed size reaches {@code targetBytes}. A row group is the
+     * smallest unit of work, so a split is never smaller than one row group, and
+     * a row group larger than the target size gets its own split.
+     *
+     * The splits cover all the row groups of the file, regardless of the
+     * configured filter, and are only available for files in the local file
+     * system or in a file system shared by the workers.
+     *
+     * @param targetBytes the target compressed size in bytes of each split
+     * @return the splits of the file, in order
+     * @throws IOException if an I/O error occurs
+     */
+    public List<ParquetSplit> planSplits(long targetBytes) throws IOException {
+        if (targetBytes <= 0) {
+            throw new IllegalArgumentException("Invalid split size " + targetBytes);
+        }
+        File file = FooterCache.localFile(inputFile);
+        if (file == null) {
+            throw new IllegalStateException("Splits can only be planned for files in a file system");
+        }
+        List<ParquetSplit> splits = new ArrayList<>();
+        try (ParquetFileReader reader = openReader(ParquetReadOptions.builder().build())) {
+            List<BlockMetaData> rowGroups = reader.getRowGroups();
+            int first = 0;
+            long bytes = 0;
+            long rows = 0;
+            for (int i = 0; i < rowGroups.size(); i++) {
+                BlockMetaData rowGroup = rowGroups.get(i);
+                bytes += rowGroup.getCompressedSize();
+                rows += rowGroup.getRowCount();
+                if (bytes >= targetBytes || i == rowGroups.size() - 1) {
+                    long start = rowGroups.get(first).getStartingPos();
+                    long end = rowGroup.getStartingPos() + rowGroup.getCompressedSize();
+                    splits.add(new ParquetSplit(file.getAbsolutePath(), first, i + 1, start, end, rows));
+                    first = i + 1;
+                    bytes = 0;
+                    rows = 0;
+                }
+            }
+        }
+        return splits;
+    }
+
+    /**
+     *
+     * Returns the number of records in the Parquet file. Without a filter, it is
+     * answered from the row counts in the file footer without reading any page.
+     * With a filter, the rows are read with a {@link RecordCursor} and counted
+     * without materializing them.
+     *
+     * @return the number of records
+     * @throws IOException if an I/O error occurs
+     */
+    public long count() throws IOException {
+        if (FilterCompat.isFilteringRequired(readOptions.getRecordFilter())) {
+            long count = 0;
+            try (var cursor = cursor()) {
+                while (cursor.advance()) {
+                    count++;
+                }
+            }
+            return count;
+        }
+        try (ParquetFileReader reader = openReader(readOptions)) {
+            return Math.max(0, Math.min(limit, reader.getRecordCount() - offset));
+        }
+    }
+
+    /**
+     *
+     * Returns the minimum value of a record component, answered from the column
+     * statistics in the file footer without reading any page. The value is
+     * converted to the type of the component, boxed.
+     *
+     * @param component the name of the record component, or a dot separated path
+     *                  to a component of a nested record
+     * @return the minimum value, or empty if all values are null
+     * @throws IOException if an I/O error occurs
+     */
+    public Optional<Object> min(String component) throws IOException {
+        ComponentPath path = ComponentPath.resolve(recordClass, component);
+        Statistics<?> statistics = mergedStatistics(footerStatistics(path));
+        if (statistics == null || !statistics.hasNonNullValue()) {
+            return Optional.empty();
+        }
+        return Optional.of(footerValue(path, statistics.genericGetMin()));
+    }
+
+    /**
+     *
+     * Returns the maximum value of a record component, answered from the column
+     * statistics in the file footer without reading any page. The value is
+     * converted to the type of the component, boxed.
+     *
+     * @param component the name of the record component, or a dot separated path
+     *                  to a component of a nested record
+     * @return the maximum value, or empty if all values are null
+     * @throws IOException if an I/O error occurs
+     */
+    public Optional<Object> max(String component) throws IOException {
+        ComponentPath path = ComponentPath.resolve(recordClass, component);
+        Statistics<?> statistics = mergedStatistics(footerStatistics(path));
+        if (statistics == null || !statistics.hasNonNullValue()) {
+            return Optional.empty();
+        }
+        return Optional.of(footerValue(path, statistics.genericGetMax()));
+    }
+
+    /**
+     *
+     * Returns the number of null values of a record component, answered from the
+     * column statistics in the file footer without reading any page. Values of a
+     * nested component are also null when their parent record is null.
+     *
+     * @param component the name of the record component, or a dot separated path
+     *                  to a component of a nested record
+     * @return the number of null values
+     * @throws IOException if an I/O error occurs
+     */
+    public long nullCount(String component) throws IOException {
+        ComponentPath path = ComponentPath.resolve(recordClass, component);
+        long nulls = 0;
+        for (Statistics<?> statistics : footerStatistics(path)) {
+            if (!statistics.isNumNullsSet()) {
+                throw new IllegalStateException("Null count of column " + path.columnName() + " not available");
+            }
+            nulls += statistics.getNumNulls();
+        }
+        return nulls;
+    }
+
+    private List<Statistics<?>> footerStatistics(ComponentPath path) throws IOException {
+        if (FilterCompat.isFilteringRequired(readOptions.getRecordFilter())) {
+            throw new IllegalStateException("Footer statistics do not apply to a filtered reader");
+        }
+        try (ParquetFileReader reader = openReader(readOptions)) {
+            MessageType schema = reader.getFileMetaData().getSchema();
+            if (!schema.containsPath(path.columnPath())) {
+                throw new IllegalArgumentException("Column " + path.columnName() + " of component " + path.name()
+                        + " not found in the file");
+            }
+            Type column = schema.getType(path.columnPath());
+            if (!column.isPrimitive() || schema.getMaxRepetitionLevel(path.columnPath()) > 0) {
+                throw new IllegalArgumentException("Component " + path.name() + " is not a primitive column");
+            }
+            ColumnPath columnPath = ColumnPath.get(path.columnPath());
+            List<Statistics<?>> chunks = new ArrayList<>();
+            for (BlockMetaData rowGroup : reader.getRowGroups()) {
+                for (ColumnChunkMetaData chunk : rowGroup.getColumns()) {
+                    if (chunk.getPath().equals(columnPath)) {
+                        Statistics<?> statistics = chunk.getStatistics();
+                        if (statistics == null || statistics.isEmpty()) {
+                            throw new IllegalStateException("Statistics of column " + path.columnName()
+                                    + " not available");
+                        }
+                        chunks.add(statistics);
+                    }
+                }
+            }
+            return chunks;
+        }
+    }
+
+    private static Statistics<?> mergedStatistics(List<Statistics<?>> chunks) {
+        if (chunks.isEmpty()) {
+            return null;
+        }
+        Statistics<?> merged = Statistics.createStats(chunks.get(0).type());
+        for (Statistics<?> statistics : chunks) {
+            merged.mergeStatistics(statistics);
+        }
+        return merged;
+    }
+
+    private static Object footerValue(ComponentPath path, Object value) {
+        Class<?> type = path.type();
+        if (value instanceof Binary binary) {
+            String str = binary.toStringUsingUTF8();
+            return type.isEnum() ? SimpleTypeConverters.enumValue(type, str) : str;
+        }
+        return switch (type.getName()) {
+        case "short", "java.lang.Short" -> ((Number) value).shortValue();
+        case "byte", "java.lang.Byte" -> ((Number) value).byteValue();
+        case "long", "java.lang.Long" -> ((Number) value).longValue();
+        case "double", "java.lang.Double" -> ((Number) value).doubleValue();
+        default -> value;
+        };
+    }
+
+    /**
+     *
+     * Returns a {@link RecordCursor} positioned before the first row of the
+     * Parquet file. The cursor exposes the components of the current row through
+     * typed getters, reusing its state from row to row, and only builds a record
+     * when {@link RecordCursor#materialize()} is called.
+     *
+     * @return a cursor over the rows of the Parquet file
+     * @throws IOException if an I/O error occurs
+     */
+    public RecordCursor<T> cursor() throws IOException {
+        ParquetFileReader reader = openReader(readOptions);
+        try {
+            var rows = new RecordIterator<CursorConverter>(recordClass, reader,
+                    schema -> new CursorMaterializer(recordClass, schema, partitionValues));
+            return new RecordCursor<>(recordClass, rows, rows);
+        } catch (RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     *
+     * Reads the next records of the Parquet file, adding up to {@code max} records
+     * to the specified list. A batch never straddles row groups, so fewer records
+     * than requested are read when the current row group is exhausted.
+     *
+     * Successive calls continue where the previous one stopped, keeping the file
+     * open until all records are read or the reader is {@link #close() closed}.
+     *
+     * @param into the list to which the records are added
+     * @param max  the maximum number of records to read
+     * @return the number of records added, or 0 if there are no more records
+     * @throws IOException if an I/O error occurs
+     */
+    public int readBatch(List<T> into, int max) throws IOException {
+        if (max <= 0) {
+            throw new IllegalArgumentException("Invalid batch size " + max);
+        }
+        if (batchIterator == null) {
+            batchIterator = buildIterator();
+        }
+        return batchIterator.readBatch(into, max, false);
+    }
+
+    /**
+     *
+     * Returns a {@link Stream} of batches of records of the Parquet file. Each
+     * batch contains at most {@code size} records and never straddles row groups,
+     * so the last batch of each row group may be smaller.
+     *
+     * @param size the maximum number of records of each batch
+     * @return a stream of batches of records
+     * @throws IOException if an I/O error occurs
+     */
+    public Stream<List<T>> batches(int size) throws IOException {
+        return batches(size, false);
+    }
+
+    /**
+     *
+     * Returns a {@link Stream} of batches of records of the Parquet file. Each
+     * batch contains at most {@code size} records.
+     *
+     * @param size           the maximum number of records of each batch
+     * @param crossRowGroups whether a batch can contain records from consecutive
+     *                       row groups, filling all batches but the last one
+     * @return a stream of batches of records
+     * @throws IOException if an I/O error occurs
+     */
+    public Stream<List<T>> batches(int size, boolean crossRowGroups) throws IOException {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Invalid batch size " + size);
+        }
+        RecordIterator<T> iterator = buildIterator();
+        var spliterator = new Spliterators.AbstractSpliterator<List<T>>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+
+            @Override
+            public boolean tryAdvance(Consumer<? super List<T>> action) {
+                List<T> batch = new ArrayList<>(size);
+                if (iterator.readBatch(batch, size, crossRowGroups) == 0) {
+                    return false;
+                }
+                action.accept(batch);
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(iterator::uncheckedCloseReader);
+    }
+
+    /**
+     *
+     * Closes the file opened by {@link #readBatch(List, int)}, if any. Iterators
+     * and streams are closed independently.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (batchIterator != null) {
+            batchIterator.close();
+            batchIterator = null;
+        }
+    }
+
+    private ParquetFileReader openReader(ParquetReadOptions options) throws IOException {
+        InputFile file = footerCache == null ? inputFile : footerCache.wrap(inputFile);
+        return ParquetFileReader.open(file, options);
+    }
+
+    /**
+     * Opens the file once and returns an iterator over its records, that must be
+     * closed by the caller if it is not fully consumed.
+     *
+     * @return an iterator for the records in the Parquet file
+     * @throws IOException if an I/O error occurs opening the file
+     */
+    RecordIterator<T> buildIterator() throws IOException {
+        ParquetFileReader reader = openReader(readOptions);
+        try {
+            return new RecordIterator<>(recordClass, reader);
+        } catch (RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * This class provides an iterator for the records in a Parquet file, reading
+     * it row group by row group.
      *
      * @param <R> the type of the records in the Parquet file
      */
-    private class RecordIterator<R> implements Iterator<R>, Closeable {
+    class RecordIterator<R> implements Iterator<R>, Closeable {
 
-        private final ParquetReader<GenericRecord> reader;
-        private final AvroRecord2JavaRecord<R> mapper;
-        private GenericRecord nextRecord;
+        private final ParquetFileReader reader;
+        private final MessageColumnIO columnIO;
+        private final RecordMaterializer<R> materializer;
+        private final FilterCompat.Filter filter;
+        private final MessageType requestedSchema;
+        private RowGroupPrefetcher prefetcher;
+        private RecordReader<R> recordReader;
+        private long pendingRows = 0;
+        private int skippedRowGroups = 0;
+        private long toSkip = offset;
+        private long remaining = limit;
+        private R nextRecord;
+        private boolean closed = false;
 
         /**
          * Creates a new {@code RecordIterator} instance from the specified record class
-         * and reader.
+         * and file reader.
          *
          * @param recordClass the class of the records in the Parquet file
-         * @param reader      the reader for the Parquet data
-         * @throws IOException if an I/O error occurs
+         * @param reader      the reader for the Parquet file
+         */
+        RecordIterator(Class<R> recordClass, ParquetFileReader reader) {
+            this(recordClass, reader, schema -> JavaRecordMaterializer.of(recordClass, schema, partitionValues));
+        }
+
+        /**
+         * Creates a new {@code RecordIterator} instance that reads the columns of the
+         * specified record class with a custom materializer.
+         *
+         * @param recordClass  the class of the records in the Parquet file
+         * @param reader       the reader for the Parquet file
+         * @param materializer the factory of the materializer for the requested
+         *                     schema
          */
-        RecordIterator(Class<R> recordClass, ParquetReader<GenericRecord> reader) throws IOException {
+        RecordIterator(Class<?> recordClass, ParquetFileReader reader,
+                Function<MessageType, RecordMaterializer<R>> materializer) {
             this.reader = reader;
-            nextRecord = reader.read();
-            if (nextRecord != null) {
-                Schema schema = nextRecord.getSchema();
-                mapper = new AvroRecord2JavaRecord<>(recordClass, schema);
-            } else {
-                mapper = null;
-            }
+            FileMetaData fileMetaData = reader.getFileMetaData();
+            MessageType fileSchema = fileMetaData.getSchema();
+            Map<String, Set<String>> keyValues = new HashMap<>();
+            fileMetaData.getKeyValueMetaData().forEach((key, value) -> keyValues.put(key, Set.of(value)));
+
+            Configuration conf = new Configuration(false);
+            JavaRecordReadSupport<?> readSupport = new JavaRecordReadSupport<>(recordClass, partitionValues);
+            ReadContext readContext = readSupport.init(new InitContext(conf, keyValues, fileSchema));
+            this.requestedSchema = readContext.getRequestedSchema();
+            reader.setRequestedSchema(requestedSchema);
+            this.materializer = materializer.apply(requestedSchema);
+            this.columnIO = new ColumnIOFactory(fileMetaData.getCreatedBy())
+                    .getColumnIO(requestedSchema, fileSchema, true);
+            this.filter = readOptions.getRecordFilter();
         }
 
         /**
@@ -170,6 +788,12 @@ public class ParquetRecordReader<T> {
          */
         @Override
         public boolean hasNext() {
+            if (nextRecord == null && !closed) {
+                nextRecord = readNext();
+                if (nextRecord == null) {
+                    uncheckedCloseReader();
+                }
+            }
             return nextRecord != null;
         }
 
@@ -184,27 +808,226 @@ public class ParquetRecordReader<T> {
             if (!hasNext()) {
                 throw new NoSuchElementException();
             }
-            R res = mapper.mapMainRecord(nextRecord);
-            try {
-                this.nextRecord = reader.read();
-                if (nextRecord == null) {
+            R res = nextRecord;
+            nextRecord = null;
+            return res;
+        }
+
+        /**
+         * Adds up to {@code max} records to the specified list, reading them in a
+         * single loop without the lookahead of {@link #hasNext()}.
+         *
+         * @param into           the list to which the records are added
+         * @param max            the maximum number of records to read
+         * @param crossRowGroups whether to continue with the next row group when the
+         *                       current one is exhausted
+         * @return the number of records added, or 0 if there are no more records
+         */
+        int readBatch(List<R> into, int max, boolean crossRowGroups) {
+            int read = 0;
+            if (nextRecord != null) {
+                into.add(nextRecord);
+                nextRecord = null;
+                read++;
+            }
+            while (read < max && !closed) {
+                if (remaining == 0) {
                     uncheckedCloseReader();
+                    break;
+                }
+                if (pendingRows == 0) {
+                    if (read > 0 && !crossRowGroups) {
+                        break;
+                    }
+                    if (!startNextRowGroup()) {
+                        uncheckedCloseReader();
+                        break;
+                    }
+                }
+                pendingRows--;
+                R record = recordReader.read();
+                if (record != null && !recordReader.shouldSkipCurrentRecord()) {
+                    if (toSkip > 0) {
+                        toSkip--;
+                    } else {
+                        into.add(record);
+                        remaining--;
+                        read++;
+                    }
                 }
+            }
+            return read;
+        }
+
+        /**
+         * Reads the records in the range of positions of the file, skipping the row
+         * groups before the range and, inside the first row group, the pages before
+         * the range.
+         *
+         * @param from the position of the first record
+         * @param to   the position after the last record
+         * @return the records in the range
+         */
+        List<R> readRange(long from, long to) throws IOException {
+            List<BlockMetaData> rowGroups = reader.getRowGroups();
+            long rowCount = rowGroups.stream().mapToLong(BlockMetaData::getRowCount).sum();
+            if (from < 0 || to > rowCount || from > to) {
+                throw new IndexOutOfBoundsException("Invalid range [" + from + ", " + to + ") of " + rowCount
+                        + " rows");
+            }
+            List<R> records = new ArrayList<>((int) (to - from));
+            long groupStart = 0;
+            for (BlockMetaData rowGroup : rowGroups) {
+                long groupEnd = groupStart + rowGroup.getRowCount();
+                if (groupStart >= to) {
+                    break;
+                }
+                if (groupEnd <= from) {
+                    reader.skipNextRowGroup();
+                } else {
+                    long first = Math.max(from, groupStart) - groupStart;
+                    long last = Math.min(to, groupEnd) - groupStart;
+                    PageReadStore pages = reader.readNextRowGroup();
+                    Map<ColumnDescriptor, OffsetIndex> offsetIndexes = offsetIndexes(rowGroup);
+                    if (offsetIndexes != null) {
+                        pages = new RowRangePageReadStore(pages, offsetIndexes, first, last);
+                    }
+                    RecordReader<R> rangeReader = columnIO.getRecordReader(pages, materializer, FilterCompat.NOOP);
+                    if (offsetIndexes == null) {
+                        for (long i = 0; i < first; i++) {
+                            rangeReader.read();
+                        }
+                    }
+                    for (long i = first; i < last; i++) {
+                        records.add(rangeReader.read());
+                    }
+                }
+                groupStart = groupEnd;
+            }
+            return records;
+        }
+
+        private Map<ColumnDescriptor, OffsetIndex> offsetIndexes(BlockMetaData rowGroup) throws IOException {
+            Map<ColumnPath, ColumnChunkMetaData> chunks = new HashMap<>();
+            for (ColumnChunkMetaData chunk : rowGroup.getColumns()) {
+                chunks.put(chunk.getPath(), chunk);
+            }
+            Map<ColumnDescriptor, OffsetIndex> offsetIndexes = new HashMap<>();
+            for (ColumnDescriptor column : requestedSchema.getColumns()) {
+                OffsetIndex offsetIndex = reader.readOffsetIndex(chunks.get(ColumnPath.get(column.getPath())));
+                if (offsetIndex == null) {
+                    return null;
+                }
+                offsetIndexes.put(column, offsetIndex);
+            }
+            return offsetIndexes;
+        }
+
+        private R readNext() {
+            while (remaining > 0) {
+                if (pendingRows == 0 && !startNextRowGroup()) {
+                    return null;
+                }
+                pendingRows--;
+                R record = recordReader.read();
+                if (record != null && !recordReader.shouldSkipCurrentRecord()) {
+                    if (toSkip > 0) {
+                        toSkip--;
+                    } else {
+                        remaining--;
+                        return record;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private boolean startNextRowGroup() {
+            try {
+                if (toSkip > 0 && !FilterCompat.isFilteringRequired(filter)) {
+                    return skipToOffset();
+                }
+                PageReadStore rowGroup = readNextRowGroup();
+                if (rowGroup == null) {
+                    return false;
+                }
+                startRowGroup(rowGroup);
+                return true;
             } catch (IOException e) {
                 throw new UncheckedIOException(e);
             }
-            return res;
+        }
+
+        private void startRowGroup(PageReadStore rowGroup) {
+            pendingRows = rowGroup.getRowCount();
+            recordReader = columnIO.getRecordReader(rowGroup, materializer, filter);
+        }
+
+        /**
+         * Skips the row groups before the offset using the row counts of the footer,
+         * and starts the row group that contains it at the page of its first row. The
+         * offset indexes are read before the first row group, so the prefetching has
+         * not started yet, and it starts at the first row group not skipped. Without
+         * offset indexes, the rows of the row group before the offset are read and
+         * discarded.
+         */
+        private boolean skipToOffset() throws IOException {
+            for (BlockMetaData rowGroup : reader.getRowGroups()) {
+                long rowCount = rowGroup.getRowCount();
+                if (toSkip < rowCount) {
+                    Map<ColumnDescriptor, OffsetIndex> offsetIndexes = offsetIndexes(rowGroup);
+                    PageReadStore pages = readNextRowGroup();
+                    if (offsetIndexes == null) {
+                        startRowGroup(pages);
+                    } else {
+                        startRowGroup(new RowRangePageReadStore(pages, offsetIndexes, toSkip, rowCount));
+                        toSkip = 0;
+                    }
+                    return true;
+                }
+                toSkip -= rowCount;
+                reader.skipNextRowGroup();
+                skippedRowGroups++;
+            }
+            toSkip = 0;
+            return false;
+        }
+
+        /**
+         * Reads the next row group. With a filter, the column indexes are used to
+         * read only the pages that can contain matching rows, and the returned row
+         * group contains only the rows of those pages, aligned across columns by
+         * the offset indexes.
+         */
+        private PageReadStore readNextRowGroup() throws IOException {
+            if (prefetchMemory == 0) {
+                return reader.readNextFilteredRowGroup();
+            }
+            if (prefetcher == null) {
+                prefetcher = new RowGroupPrefetcher(reader, skippedRowGroups, requestedSchema, prefetchMemory);
+            }
+            return prefetcher.readNextRowGroup();
         }
 
         /**
-         * Closes the underlying reader.
+         * Closes the underlying reader, stopping the row group prefetching if
+         * enabled.
          *
          * @throws IOException if an I/O error occurs
          */
         @Override
         public void close() throws IOException {
-            reader.close();
-            nextRecord = null;
+            if (!closed) {
+                closed = true;
+                nextRecord = null;
+                try {
+                    if (prefetcher != null) {
+                        prefetcher.close();
+                    }
+                } finally {
+                    reader.close();
+                }
+            }
         }
 
         /**
@@ -221,4 +1044,112 @@ public class ParquetRecordReader<T> {
 
     }
 
-}
\ No newline at end of file
+    /**
+     * This class provides a {@link Spliterator} for the records of a range of row
+     * groups in a Parquet file. It splits on row group boundaries, and each split
+     * opens its own reader restricted to its row groups when it is first
+     * traversed.
+     */
+    private class RowGroupSpliterator implements Spliterator<T> {
+
+        private final List<BlockMetaData> rowGroups;
+        private final Queue<RecordIterator<T>> iterators;
+        private final int characteristics;
+        private int from;
+        private int to;
+        private long remaining;
+        private RecordIterator<T> iterator;
+
+        /**
+         * Creates a new {@code RowGroupSpliterator} for the row groups in the range
+         * from {@code from}, inclusive, to {@code to}, exclusive.
+         *
+         * @param rowGroups the row groups of the Parquet file
+         * @param from      the index of the first row group
+         * @param to        the index after the last row group
+         * @param iterators the opened iterators, to be closed with the stream
+         */
+        RowGroupSpliterator(List<BlockMetaData> rowGroups, int from, int to, Queue<RecordIterator<T>> iterators) {
+            this.rowGroups = rowGroups;
+            this.iterators = iterators;
+            this.from = from;
+            this.to = to;
+            this.remaining = countRows(from, to);
+            int sized = FilterCompat.isFilteringRequired(readOptions.getRecordFilter()) ? 0
+                    : Spliterator.SIZED | Spliterator.SUBSIZED;
+            this.characteristics = Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE | sized;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (from >= to) {
+                return false;
+            }
+            if (iterator == null) {
+                iterator = openIterator();
+            }
+            if (!iterator.hasNext()) {
+                from = to;
+                remaining = 0;
+                return false;
+            }
+            remaining--;
+            action.accept(iterator.next());
+            return true;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (iterator != null || to - from < 2) {
+                return null;
+            }
+            int mid = (from + to) >>> 1;
+            RowGroupSpliterator prefix = new RowGroupSpliterator(rowGroups, from, mid, iterators);
+            from = mid;
+            remaining = countRows(from, to);
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return characteristics;
+        }
+
+        private long countRows(int fromGroup, int toGroup) {
+            long count = 0;
+            for (int i = fromGroup; i < toGroup; i++) {
+                count += rowGroups.get(i).getRowCount();
+            }
+            return count;
+        }
+
+        private RecordIterator<T> openIterator() {
+            BlockMetaData first = rowGroups.get(from);
+            BlockMetaData last = rowGroups.get(to - 1);
+            ParquetReadOptions options = ParquetReadOptions.builder()
+                    .copy(readOptions)
+                    .withRange(first.getStartingPos(), last.getStartingPos() + last.getCompressedSize())
+                    .build();
+            try {
+                ParquetFileReader reader = openReader(options);
+                try {
+                    RecordIterator<T> rowGroupsIterator = new RecordIterator<>(recordClass, reader);
+                    iterators.add(rowGroupsIterator);
+                    return rowGroupsIterator;
+                } catch (RuntimeException e) {
+                    reader.close();
+                    throw e;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+    }
+
+}
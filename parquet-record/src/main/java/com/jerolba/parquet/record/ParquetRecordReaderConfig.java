@@ -0,0 +1,247 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import java.io.File;
+import java.util.Map;
+
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.io.InputFile;
+
+/**
+ *
+ * Configuration of a {@link ParquetRecordReader}: the file to read, the class
+ * of its records, the filter applied to its rows and how row groups are read.
+ * Instances are created with a {@link Builder}.
+ *
+ * @param <T> the type of the records in the Parquet file
+ */
+public class ParquetRecordReaderConfig<T> {
+
+    private final InputFile inputFile;
+    private final Class<T> recordClass;
+    private final ParquetReadOptions readOptions;
+    private final long prefetchMemory;
+    private final Map<String, String> partitionValues;
+    private final FooterCache footerCache;
+    private final RecordFilter filter;
+
+    ParquetRecordReaderConfig(InputFile inputFile, Class<T> recordClass, ParquetReadOptions readOptions,
+            long prefetchMemory, Map<String, String> partitionValues, FooterCache footerCache, RecordFilter filter) {
+        this.inputFile = inputFile;
+        this.recordClass = recordClass;
+        this.readOptions = readOptions;
+        this.filter = filter;
+        this.prefetchMemory = prefetchMemory;
+        this.partitionValues = partitionValues;
+        this.footerCache = footerCache;
+    }
+
+    InputFile getInputFile() {
+        return inputFile;
+    }
+
+    Class<T> getRecordClass() {
+        return recordClass;
+    }
+
+    ParquetReadOptions getReadOptions() {
+        return readOptions;
+    }
+
+    long getPrefetchMemory() {
+        return prefetchMemory;
+    }
+
+    Map<String, String> getPartitionValues() {
+        return partitionValues;
+    }
+
+    FooterCache getFooterCache() {
+        return footerCache;
+    }
+
+    RecordFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     *
+     * Builder of the configuration of a {@link ParquetRecordReader}. By default all
+     * the rows are read, without prefetching nor footer caching, and all the
+     * available filtering mechanisms are enabled.
+     *
+     * @param <T> the type of the records in the Parquet file
+     */
+    public static class Builder<T> {
+
+        private final ParquetReadOptions.Builder builder;
+        private final InputFile inputFile;
+        private final Class<T> recordClass;
+        private RecordFilter filter;
+        private long prefetchMemory = 0;
+        private Map<String, String> partitionValues = Map.of();
+        private FooterCache footerCache;
+
+        /**
+         * Creates a builder of the configuration of a reader of the specified file.
+         *
+         * @param inputFile   the Parquet file to read
+         * @param recordClass the class of the records in the Parquet file
+         */
+        public Builder(InputFile inputFile, Class<T> recordClass) {
+            this.inputFile = inputFile;
+            this.recordClass = recordClass;
+            this.builder = ParquetReadOptions.builder();
+        }
+
+        /**
+         * Creates a builder of the configuration of a reader of the file in the
+         * local file system with the specified path.
+         *
+         * @param path        the path of the Parquet file to read
+         * @param recordClass the class of the records in the Parquet file
+         */
+        public Builder(String path, Class<T> recordClass) {
+            this(new FileSystemInputFile(new File(path)), recordClass);
+        }
+
+        /**
+         * Creates a builder of the configuration of a reader restricted to the row
+         * groups of a {@link ParquetSplit split}.
+         *
+         * @param split       the split of the Parquet file to read
+         * @param recordClass the class of the records in the Parquet file
+         */
+        public Builder(ParquetSplit split, Class<T> recordClass) {
+            this(split.path(), recordClass);
+            builder.withRange(split.start(), split.end());
+        }
+
+        /**
+         * Set the {@link RecordFilter filter} applied to the rows of the file. Row
+         * groups are skipped using statistics, dictionaries and bloom filters, pages
+         * are skipped using column indexes, and the remaining rows are filtered before
+         * being converted to records. The filter values are typed as the columns of
+         * the file, so the footer of the file is read when the reader is created.
+         *
+         * @param filter a {@code RecordFilter}
+         * @return this builder for method chaining.
+         */
+        public Builder<T> withFilter(RecordFilter filter) {
+            this.filter = filter;
+            return this;
+        }
+
+        /**
+         * Enable or disable the use of row group statistics to skip row groups.
+         *
+         * @param useStatsFilter whether statistics should be used
+         * @return this builder for method chaining.
+         */
+        public Builder<T> useStatsFilter(boolean useStatsFilter) {
+            builder.useStatsFilter(useStatsFilter);
+            return this;
+        }
+
+        /**
+         * Enable or disable the use of dictionaries to skip row groups.
+         *
+         * @param useDictionaryFilter whether dictionaries should be used
+         * @return this builder for method chaining.
+         */
+        public Builder<T> useDictionaryFilter(boolean useDictionaryFilter) {
+            builder.useDictionaryFilter(useDictionaryFilter);
+            return this;
+        }
+
+        /**
+         * Enable or disable the use of bloom filters to skip row groups.
+         *
+         * @param useBloomFilter whether bloom filters should be used
+         * @return this builder for method chaining.
+         */
+        public Builder<T> useBloomFilter(boolean useBloomFilter) {
+            builder.useBloomFilter(useBloomFilter);
+            return this;
+        }
+
+        /**
+         * Enable or disable the use of column indexes to skip the pages of a row group
+         * that can not contain matching rows.
+         *
+         * @param useColumnIndexFilter whether column indexes should be used
+         * @return this builder for method chaining.
+         */
+        public Builder<T> useColumnIndexFilter(boolean useColumnIndexFilter) {
+            builder.useColumnIndexFilter(useColumnIndexFilter);
+            return this;
+        }
+
+        /**
+         * Enables reading and decompressing the next row group in a background thread
+         * while the current one is consumed. The memory used by the row groups held
+         * decompressed in memory is bounded by the specified budget, and at least one
+         * row group is always read.
+         *
+         * @param memoryBudget the maximum size in bytes of the decompressed row
+         *                     groups held in memory, or 0 to disable prefetching
+         * @return this builder for method chaining.
+         */
+        public Builder<T> withPrefetch(long memoryBudget) {
+            if (memoryBudget < 0) {
+                throw new IllegalArgumentException("Invalid prefetch memory budget " + memoryBudget);
+            }
+            this.prefetchMemory = memoryBudget;
+            return this;
+        }
+
+        /**
+         * Set the {@link FooterCache cache} of file footers consulted each time the
+         * file is opened, usually shared between the readers of the same files.
+         *
+         * @param footerCache a {@code FooterCache}, or null to disable caching
+         * @return this builder for method chaining.
+         */
+        public Builder<T> withFooterCache(FooterCache footerCache) {
+            this.footerCache = footerCache;
+            return this;
+        }
+
+        /**
+         * Set the partition values of the file, parsed from its path in a partitioned
+         * dataset, used to fill the components not present in the file.
+         *
+         * @param partitionValues the values by partition column name
+         * @return this builder for method chaining.
+         */
+        Builder<T> withPartitionValues(Map<String, String> partitionValues) {
+            this.partitionValues = partitionValues;
+            return this;
+        }
+
+        /**
+         * Builds the configuration.
+         *
+         * @return the configuration of the reader
+         */
+        public ParquetRecordReaderConfig<T> build() {
+            return new ParquetRecordReaderConfig<>(inputFile, recordClass, builder.build(), prefetchMemory,
+                    partitionValues, footerCache, filter);
+        }
+    }
+
+}
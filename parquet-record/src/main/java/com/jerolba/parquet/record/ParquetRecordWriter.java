@@ -20,13 +20,8 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.stream.Stream;
 
-import org.apache.avro.Schema;
-import org.apache.avro.generic.GenericRecord;
 import org.apache.parquet.hadoop.ParquetWriter;
 
-import com.jerolba.avro.record.JavaRecord2AvroRecord;
-import com.jerolba.avro.record.JavaRecord2Schema;
-
 /**
  *
  * Class for writing Parquet records from a collection or stream of Java
@@ -37,8 +32,7 @@ import com.jerolba.avro.record.JavaRecord2Schema;
  */
 public class ParquetRecordWriter<T> {
 
-    private final Schema schema;
-    private final JavaRecord2AvroRecord<T> mapper;
+    private final JavaRecordWriteSupport<T> writeSupport;
     private final ParquetRecordWriterConfig<T> config;
 
     /**
@@ -50,9 +44,7 @@ public class ParquetRecordWriter<T> {
      */
     public ParquetRecordWriter(ParquetRecordWriterConfig<T> config) throws IOException {
         this.config = config;
-        JavaRecord2Schema toSchema = new JavaRecord2Schema();
-        schema = toSchema.build(config.getRecordClass());
-        mapper = new JavaRecord2AvroRecord<>(config.getRecordClass(), schema);
+        this.writeSupport = new JavaRecordWriteSupport<>(config.getRecordClass());
     }
 
     /**
@@ -75,14 +67,14 @@ public class ParquetRecordWriter<T> {
      * @throws IOException if an error occurs while writing the records
      */
     public void write(Stream<T> stream) throws IOException {
-        try (ParquetWriter<GenericRecord> writer = config
+        try (ParquetWriter<T> writer = config
                 .getWriterBuilder()
-                .withSchema(schema)
+                .withWriteSupport(writeSupport)
                 .build()) {
 
             Iterator<T> it = stream.iterator();
             while (it.hasNext()) {
-                writer.write(mapper.mapRecord(it.next()));
+                writer.write(it.next());
             }
         }
     }
@@ -17,22 +17,22 @@ package com.jerolba.parquet.record;
 
 import java.io.OutputStream;
 
-import org.apache.avro.generic.GenericRecord;
 import org.apache.hadoop.conf.Configuration;
-import org.apache.parquet.avro.AvroParquetWriter;
 import org.apache.parquet.column.ParquetProperties.WriterVersion;
 import org.apache.parquet.crypto.FileEncryptionProperties;
 import org.apache.parquet.hadoop.ParquetFileWriter;
 import org.apache.parquet.hadoop.ParquetFileWriter.Mode;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.apache.parquet.io.OutputFile;
 
 public class ParquetRecordWriterConfig<T> {
 
-    private final AvroParquetWriter.Builder<GenericRecord> builder;
+    private final RecordWriterBuilder<T> builder;
     private final Class<T> recordClass;
 
-    ParquetRecordWriterConfig(AvroParquetWriter.Builder<GenericRecord> builder, Class<T> recordClass) {
+    ParquetRecordWriterConfig(RecordWriterBuilder<T> builder, Class<T> recordClass) {
         this.builder = builder;
         this.recordClass = recordClass;
     }
@@ -41,18 +41,43 @@ public class ParquetRecordWriterConfig<T> {
         return recordClass;
     }
 
-    AvroParquetWriter.Builder<GenericRecord> getWriterBuilder() {
+    RecordWriterBuilder<T> getWriterBuilder() {
         return builder;
     }
 
+    static class RecordWriterBuilder<T> extends ParquetWriter.Builder<T, RecordWriterBuilder<T>> {
+
+        private WriteSupport<T> writeSupport;
+
+        RecordWriterBuilder(OutputFile path) {
+            super(path);
+        }
+
+        RecordWriterBuilder<T> withWriteSupport(WriteSupport<T> writeSupport) {
+            this.writeSupport = writeSupport;
+            return this;
+        }
+
+        @Override
+        protected RecordWriterBuilder<T> self() {
+            return this;
+        }
+
+        @Override
+        protected WriteSupport<T> getWriteSupport(Configuration conf) {
+            return writeSupport;
+        }
+
+    }
+
     public static class Builder<T> {
 
-        private final AvroParquetWriter.Builder<GenericRecord> builder;
+        private final RecordWriterBuilder<T> builder;
         private final Class<T> recordClass;
 
         public Builder(OutputFile path, Class<T> recordClass) {
             this.recordClass = recordClass;
-            builder = AvroParquetWriter.builder(path);
+            builder = new RecordWriterBuilder<>(path);
             builder.withWriteMode(Mode.OVERWRITE)
                     .withValidation(true);
         }
@@ -0,0 +1,52 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import java.io.Serializable;
+
+/**
+ *
+ * Descriptor of a contiguous range of row groups of a Parquet file, planned by
+ * {@link ParquetRecordReader#planSplits(long)} to distribute the reading of a
+ * file across workers. Splits are serializable, so they can be sent to other
+ * JVMs that read them with
+ * {@link ParquetRecordReader#ParquetRecordReader(ParquetSplit, Class)}.
+ *
+ * The byte range starts at the first row group and ends after the last one. A
+ * row group belongs to the split whose byte range contains its midpoint, so
+ * the splits of a file never share row groups.
+ *
+ * @param path          the path to the Parquet file
+ * @param firstRowGroup the index of the first row group of the split
+ * @param endRowGroup   the index after the last row group of the split
+ * @param start         the position of the first byte of the split
+ * @param end           the position after the last byte of the split
+ * @param rowCount      the number of rows of the split
+ */
+public record ParquetSplit(String path, int firstRowGroup, int endRowGroup, long start, long end, long rowCount)
+        implements Serializable {
+
+    /**
+     *
+     * Returns the number of compressed bytes of the split.
+     *
+     * @return the length of the byte range of the split
+     */
+    public long length() {
+        return end - start;
+    }
+
+}
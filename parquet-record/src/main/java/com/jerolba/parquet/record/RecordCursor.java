@@ -0,0 +1,210 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import static com.jerolba.parquet.record.AliasField.getFieldName;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.RecordComponent;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ *
+ * A cursor over the rows of a Parquet file that exposes the components of the
+ * current row without building a record. The state of the cursor is reused
+ * from row to row, so rows rejected by the caller do not allocate a record:
+ *
+ * <pre>
+ * try (RecordCursor&lt;Sale&gt; cursor = reader.cursor()) {
+ *     int qty = cursor.componentIndex("qty");
+ *     while (cursor.advance()) {
+ *         if (cursor.getInt(qty) &gt; 100) {
+ *             accepted.add(cursor.materialize());
+ *         }
+ *     }
+ * }
+ * </pre>
+ *
+ * Components are referenced by their position in the record, or by name. The
+ * typed getters return the default value of the type when the value is null,
+ * which can be checked with {@link #isNull(int)}. Values returned by the cursor
+ * are only valid until the next call to {@link #advance()}.
+ *
+ * @param <T> the type of the records in the Parquet file
+ */
+public final class RecordCursor<T> implements Closeable {
+
+    private final Class<T> recordClass;
+    private final int componentCount;
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final Iterator<CursorConverter> rows;
+    private final Closeable closeable;
+    private CursorConverter current;
+
+    RecordCursor(Class<T> recordClass, Iterator<CursorConverter> rows, Closeable closeable) {
+        this.recordClass = recordClass;
+        RecordComponent[] components = recordClass.getRecordComponents();
+        this.componentCount = components.length;
+        for (int i = 0; i < components.length; i++) {
+            indexes.put(getFieldName(components[i]), i);
+        }
+        for (int i = 0; i < components.length; i++) {
+            indexes.put(components[i].getName(), i);
+        }
+        this.rows = rows;
+        this.closeable = closeable;
+    }
+
+    /**
+     *
+     * Moves the cursor to the next row. The file is closed when there are no more
+     * rows.
+     *
+     * @return {@code true} if the cursor is positioned on a row, {@code false} if
+     *         there are no more rows
+     */
+    public boolean advance() {
+        if (!rows.hasNext()) {
+            current = null;
+            return false;
+        }
+        current = rows.next();
+        return true;
+    }
+
+    /**
+     *
+     * Returns the position in the record of the component with the specified name
+     * or alias.
+     *
+     * @param name the name of the record component
+     * @return the position of the component
+     * @throws IllegalArgumentException if the record has no such component
+     */
+    public int componentIndex(String name) {
+        Integer index = indexes.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException(recordClass.getName() + " has no component " + name);
+        }
+        return index;
+    }
+
+    public boolean isNull(int component) {
+        return current().isNull(checkIndex(component));
+    }
+
+    public boolean isNull(String component) {
+        return isNull(componentIndex(component));
+    }
+
+    public int getInt(int component) {
+        return (int) current().integral(checkIndex(component));
+    }
+
+    public int getInt(String component) {
+        return getInt(componentIndex(component));
+    }
+
+    public long getLong(int component) {
+        return current().integral(checkIndex(component));
+    }
+
+    public long getLong(String component) {
+        return getLong(componentIndex(component));
+    }
+
+    public boolean getBoolean(int component) {
+        return current().integral(checkIndex(component)) != 0;
+    }
+
+    public boolean getBoolean(String component) {
+        return getBoolean(componentIndex(component));
+    }
+
+    public float getFloat(int component) {
+        return (float) current().floating(checkIndex(component));
+    }
+
+    public float getFloat(String component) {
+        return getFloat(componentIndex(component));
+    }
+
+    public double getDouble(int component) {
+        return current().floating(checkIndex(component));
+    }
+
+    public double getDouble(String component) {
+        return getDouble(componentIndex(component));
+    }
+
+    /**
+     *
+     * Returns the value of a String or Enum component as a {@link CharSequence}
+     * whose buffer is reused by the following calls for the same component.
+     * Convert it with {@code toString()} to keep it.
+     *
+     * @param component the position of the component
+     * @return the characters of the value, or {@code null} if the value is null
+     */
+    public CharSequence getString(int component) {
+        return current().chars(checkIndex(component));
+    }
+
+    public CharSequence getString(String component) {
+        return getString(componentIndex(component));
+    }
+
+    /**
+     *
+     * Builds the record of the current row.
+     *
+     * @return a new instance of the record class with the values of the current
+     *         row
+     */
+    public T materialize() {
+        return recordClass.cast(current().materialize());
+    }
+
+    /**
+     *
+     * Closes the underlying file before reaching the end of the rows.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        current = null;
+        closeable.close();
+    }
+
+    private CursorConverter current() {
+        if (current == null) {
+            throw new IllegalStateException("Cursor is not positioned on a row");
+        }
+        return current;
+    }
+
+    private int checkIndex(int component) {
+        if (component < 0 || component >= componentCount) {
+            throw new IndexOutOfBoundsException("Invalid component index " + component);
+        }
+        return component;
+    }
+
+}
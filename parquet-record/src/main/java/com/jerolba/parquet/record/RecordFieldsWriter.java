@@ -0,0 +1,188 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import static com.jerolba.avro.record.RecordAccessor.recordAccessor;
+import static com.jerolba.parquet.record.AliasField.getFieldName;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Type.Repetition;
+
+import com.jerolba.avro.record.CompiledRecordMapper;
+import com.jerolba.avro.record.RecordTypeConversionException;
+
+/**
+ *
+ * Writes the components of a Java record as the fields of a Parquet group,
+ * emitting the values directly to a {@link RecordConsumer}.
+ *
+ * Components of records with a mapper generated at compile time are read with
+ * its accessors, instead of accessors built with reflection.
+ *
+ */
+class RecordFieldsWriter {
+
+    private final List<FieldWriter> fields;
+
+    @FunctionalInterface
+    private interface ValueWriter {
+
+        void write(RecordConsumer consumer, Object value);
+
+    }
+
+    private record FieldWriter(String name, int index, boolean required, Function<Object, Object> accessor,
+            ValueWriter writer) {
+
+        void write(RecordConsumer consumer, Object record) {
+            Object value = accessor.apply(record);
+            if (value == null) {
+                if (required) {
+                    throw new RecordTypeConversionException("Null value for required field " + name);
+                }
+                return;
+            }
+            consumer.startField(name, index);
+            writer.write(consumer, value);
+            consumer.endField(name, index);
+        }
+
+    }
+
+    RecordFieldsWriter(Class<?> recordClass, GroupType schema, CompiledRecordMapper<?> compiled) throws Throwable {
+        if (!recordClass.isRecord()) {
+            throw new RecordTypeConversionException(recordClass.getName() + " is not a Java Record");
+        }
+        this.fields = new ArrayList<>();
+        List<Function<Object, Object>> accessors = compiled == null ? null : compiled.accessors(recordClass);
+        RecordComponent[] recordComponents = recordClass.getRecordComponents();
+        for (int i = 0; i < recordComponents.length; i++) {
+            RecordComponent recordComponent = recordComponents[i];
+            String fieldName = getFieldName(recordComponent);
+            int index = schema.getFieldIndex(fieldName);
+            Type field = schema.getType(index);
+            Function<Object, Object> accessor = accessors != null ? accessors.get(i)
+                    : recordAccessor(recordClass, recordComponent);
+            boolean required = field.isRepetition(Repetition.REQUIRED);
+            ValueWriter writer = componentWriter(recordComponent, field, compiled);
+            fields.add(new FieldWriter(fieldName, index, required, accessor, writer));
+        }
+    }
+
+    void write(RecordConsumer consumer, Object record) {
+        for (FieldWriter field : fields) {
+            field.write(consumer, record);
+        }
+    }
+
+    private static ValueWriter componentWriter(RecordComponent recordComponent, Type field,
+            CompiledRecordMapper<?> compiled) throws Throwable {
+        Class<?> type = recordComponent.getType();
+        if (Collection.class.isAssignableFrom(type)
+                && recordComponent.getGenericType() instanceof ParameterizedType paramType) {
+            Class<?> elementType = (Class<?>) paramType.getActualTypeArguments()[0];
+            return collectionWriter(elementType, field.asGroupType(), compiled);
+        }
+        return valueWriter(type, field, compiled);
+    }
+
+    private static ValueWriter valueWriter(Class<?> type, Type field, CompiledRecordMapper<?> compiled)
+            throws Throwable {
+        if (type.isRecord()) {
+            RecordFieldsWriter recordWriter = new RecordFieldsWriter(type, field.asGroupType(), compiled);
+            return (consumer, value) -> {
+                consumer.startGroup();
+                recordWriter.write(consumer, value);
+                consumer.endGroup();
+            };
+        }
+        if (type.isEnum()) {
+            Object[] enums = type.getEnumConstants();
+            Binary[] values = new Binary[enums.length];
+            for (int i = 0; i < enums.length; i++) {
+                values[i] = Binary.fromString(((Enum<?>) enums[i]).name());
+            }
+            return (consumer, value) -> consumer.addBinary(values[((Enum<?>) value).ordinal()]);
+        }
+        return switch (type.getName()) {
+        case "int", "java.lang.Integer" -> (consumer, value) -> consumer.addInteger((Integer) value);
+        case "short", "java.lang.Short" -> (consumer, value) -> consumer.addInteger((Short) value);
+        case "byte", "java.lang.Byte" -> (consumer, value) -> consumer.addInteger((Byte) value);
+        case "long", "java.lang.Long" -> (consumer, value) -> consumer.addLong((Long) value);
+        case "float", "java.lang.Float" -> (consumer, value) -> consumer.addFloat((Float) value);
+        case "double", "java.lang.Double" -> (consumer, value) -> consumer.addDouble((Double) value);
+        case "boolean", "java.lang.Boolean" -> (consumer, value) -> consumer.addBoolean((Boolean) value);
+        case "java.lang.String" -> (consumer, value) -> consumer.addBinary(Binary.fromString((String) value));
+        default -> throw new RecordTypeConversionException(type + " type not supported");
+        };
+    }
+
+    private static ValueWriter collectionWriter(Class<?> elementType, GroupType listType,
+            CompiledRecordMapper<?> compiled) throws Throwable {
+        Type repeatedType = listType.getType(0);
+        String repeatedName = repeatedType.getName();
+        if (ListConverter.isListElement(repeatedType, listType.getName(), elementType)) {
+            ValueWriter elementWriter = valueWriter(elementType, repeatedType, compiled);
+            return (consumer, value) -> {
+                Collection<?> collection = (Collection<?>) value;
+                consumer.startGroup();
+                if (!collection.isEmpty()) {
+                    consumer.startField(repeatedName, 0);
+                    for (Object element : collection) {
+                        if (element == null) {
+                            throw new RecordTypeConversionException("Null element in collection " + listType.getName());
+                        }
+                        elementWriter.write(consumer, element);
+                    }
+                    consumer.endField(repeatedName, 0);
+                }
+                consumer.endGroup();
+            };
+        }
+        Type elementField = repeatedType.asGroupType().getType(0);
+        String elementName = elementField.getName();
+        ValueWriter elementWriter = valueWriter(elementType, elementField, compiled);
+        return (consumer, value) -> {
+            Collection<?> collection = (Collection<?>) value;
+            consumer.startGroup();
+            if (!collection.isEmpty()) {
+                consumer.startField(repeatedName, 0);
+                for (Object element : collection) {
+                    consumer.startGroup();
+                    if (element != null) {
+                        consumer.startField(elementName, 0);
+                        elementWriter.write(consumer, element);
+                        consumer.endField(elementName, 0);
+                    }
+                    consumer.endGroup();
+                }
+                consumer.endField(repeatedName, 0);
+            }
+            consumer.endGroup();
+        };
+    }
+
+}
@@ -0,0 +1,440 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators.Column;
+import org.apache.parquet.filter2.predicate.Operators.SupportsEqNotEq;
+import org.apache.parquet.filter2.predicate.Operators.SupportsLtGt;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+
+/**
+ *
+ * Filter over the rows of a Parquet file expressed against the record
+ * component names, that is translated to a Parquet {@link FilterPredicate}.
+ * Row groups and pages are skipped using statistics, dictionaries and bloom
+ * filters, and rows are discarded before being converted to records.
+ *
+ * Nested record components are referenced with a dot separated path:
+ *
+ * <pre>
+ * where("country").eq("ES").and(where("amount").gt(100))
+ * where("address.city").notEq("Madrid")
+ * </pre>
+ *
+ * The value of each comparison is converted to the type of the column in the
+ * file, which can be narrower than the type of the record component, like an
+ * INT32 column read into a long component. The conversion must be exact.
+ * Components inside collections can not be filtered.
+ *
+ */
+public abstract class RecordFilter {
+
+    RecordFilter() {
+    }
+
+    /**
+     * Starts a comparison on the record component with the specified name.
+     *
+     * @param name the name of the record component, or a dot separated path to a
+     *             component of a nested record
+     * @return the comparison builder of the component
+     */
+    public static Where where(String name) {
+        return new Where(name);
+    }
+
+    /**
+     * Returns a filter that matches the rows that match this filter and the other.
+     *
+     * @param other the other filter
+     * @return the conjunction of both filters
+     */
+    public RecordFilter and(RecordFilter other) {
+        RecordFilter left = this;
+        return new RecordFilter() {
+
+            @Override
+            FilterPredicate toPredicate(Class<?> recordClass, MessageType fileSchema) {
+                return FilterApi.and(left.toPredicate(recordClass, fileSchema),
+                        other.toPredicate(recordClass, fileSchema));
+            }
+
+        };
+    }
+
+    /**
+     * Returns a filter that matches the rows that match this filter or the other.
+     *
+     * @param other the other filter
+     * @return the disjunction of both filters
+     */
+    public RecordFilter or(RecordFilter other) {
+        RecordFilter left = this;
+        return new RecordFilter() {
+
+            @Override
+            FilterPredicate toPredicate(Class<?> recordClass, MessageType fileSchema) {
+                return FilterApi.or(left.toPredicate(recordClass, fileSchema),
+                        other.toPredicate(recordClass, fileSchema));
+            }
+
+        };
+    }
+
+    /**
+     * Returns a filter that matches the rows that do not match the specified
+     * filter.
+     *
+     * @param filter the filter to negate
+     * @return the negation of the filter
+     */
+    public static RecordFilter not(RecordFilter filter) {
+        return new RecordFilter() {
+
+            @Override
+            FilterPredicate toPredicate(Class<?> recordClass, MessageType fileSchema) {
+                return FilterApi.not(filter.toPredicate(recordClass, fileSchema));
+            }
+
+        };
+    }
+
+    /**
+     * Translates the filter to a Parquet predicate over the columns of the
+     * specified record class, typed as the columns of the file schema.
+     *
+     * @param recordClass the class of the records in the Parquet file
+     * @param fileSchema  the schema of the Parquet file
+     * @return the Parquet predicate
+     * @throws IllegalArgumentException if a component does not exist or the value
+     *                                  is not compatible with its type
+     */
+    abstract FilterPredicate toPredicate(Class<?> recordClass, MessageType fileSchema);
+
+    private enum Operator {
+        EQ, NOT_EQ, LT, LT_EQ, GT, GT_EQ
+    }
+
+    /**
+     *
+     * Builder of the comparisons over a record component.
+     *
+     */
+    public static final class Where {
+
+        private final String name;
+
+        private Where(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Matches the rows where the component is equal to the value. A null value
+         * matches the rows where the component is null.
+         *
+         * @param value the value to compare with
+         * @return the filter
+         */
+        public RecordFilter eq(Object value) {
+            return new Comparison(name, Operator.EQ, value);
+        }
+
+        /**
+         * Matches the rows where the component is not equal to the value. A null
+         * value matches the rows where the component is not null.
+         *
+         * @param value the value to compare with
+         * @return the filter
+         */
+        public RecordFilter notEq(Object value) {
+            return new Comparison(name, Operator.NOT_EQ, value);
+        }
+
+        /**
+         * Matches the rows where the component is less than the value.
+         *
+         * @param value the value to compare with
+         * @return the filter
+         */
+        public RecordFilter lt(Object value) {
+            return new Comparison(name, Operator.LT, value);
+        }
+
+        /**
+         * Matches the rows where the component is less than or equal to the value.
+         *
+         * @param value the value to compare with
+         * @return the filter
+         */
+        public RecordFilter ltEq(Object value) {
+            return new Comparison(name, Operator.LT_EQ, value);
+        }
+
+        /**
+         * Matches the rows where the component is greater than the value.
+         *
+         * @param value the value to compare with
+         * @return the filter
+         */
+        public RecordFilter gt(Object value) {
+            return new Comparison(name, Operator.GT, value);
+        }
+
+        /**
+         * Matches the rows where the component is greater than or equal to the
+         * value.
+         *
+         * @param value the value to compare with
+         * @return the filter
+         */
+        public RecordFilter gtEq(Object value) {
+            return new Comparison(name, Operator.GT_EQ, value);
+        }
+
+        /**
+         * Matches the rows where the component is equal to any of the values. Row
+         * groups are skipped when none of the values can be in them.
+         *
+         * @param values the values to compare with
+         * @return the filter
+         */
+        public RecordFilter in(Collection<?> values) {
+            if (values.isEmpty()) {
+                throw new IllegalArgumentException("No values in filter of " + name);
+            }
+            List<RecordFilter> comparisons = new ArrayList<>(values.size());
+            for (Object value : values) {
+                comparisons.add(eq(value));
+            }
+            return anyOf(comparisons, 0, comparisons.size());
+        }
+
+        /**
+         * Joins the filters with a balanced tree of disjunctions, to keep the depth
+         * of the predicate logarithmic in the number of values.
+         */
+        private static RecordFilter anyOf(List<RecordFilter> filters, int from, int to) {
+            if (to - from == 1) {
+                return filters.get(from);
+            }
+            int mid = (from + to) >>> 1;
+            return anyOf(filters, from, mid).or(anyOf(filters, mid, to));
+        }
+
+        /**
+         * Matches the rows where the component is null.
+         *
+         * @return the filter
+         */
+        public RecordFilter isNull() {
+            return eq(null);
+        }
+
+        /**
+         * Matches the rows where the component is not null.
+         *
+         * @return the filter
+         */
+        public RecordFilter isNotNull() {
+            return notEq(null);
+        }
+
+    }
+
+    private static class Comparison extends RecordFilter {
+
+        private final String name;
+        private final Operator operator;
+        private final Object value;
+
+        Comparison(String name, Operator operator, Object value) {
+            this.name = name;
+            this.operator = operator;
+            this.value = value;
+        }
+
+        @Override
+        FilterPredicate toPredicate(Class<?> recordClass, MessageType fileSchema) {
+            if (value == null && operator != Operator.EQ && operator != Operator.NOT_EQ) {
+                throw new IllegalArgumentException("Null value not supported in " + operator + " filter of " + name);
+            }
+            ComponentPath componentPath = ComponentPath.resolve(recordClass, name);
+            Class<?> type = componentPath.type();
+            String path = componentPath.columnName();
+            PrimitiveTypeName columnType = columnType(fileSchema, componentPath);
+            return switch (type.getName()) {
+            case "int", "java.lang.Integer", "short", "java.lang.Short", "byte", "java.lang.Byte" ->
+                compare(FilterApi.intColumn(path), value == null ? null : toInt());
+            case "long", "java.lang.Long" -> columnType == PrimitiveTypeName.INT32
+                    ? compare(FilterApi.intColumn(path), value == null ? null : toInt())
+                    : compare(FilterApi.longColumn(path), value == null ? null : toLong());
+            case "float", "java.lang.Float" -> compare(FilterApi.floatColumn(path), value == null ? null : toFloat());
+            case "double", "java.lang.Double" -> columnType == PrimitiveTypeName.FLOAT
+                    ? compare(FilterApi.floatColumn(path), value == null ? null : toFloat())
+                    : compare(FilterApi.doubleColumn(path), value == null ? null : toDouble());
+            case "boolean", "java.lang.Boolean" -> compareEquality(FilterApi.booleanColumn(path), toBoolean());
+            default -> {
+                if (type.equals(String.class) || type.isEnum()) {
+                    Binary binary = value == null ? null : Binary.fromString(value.toString());
+                    yield compare(FilterApi.binaryColumn(path), binary);
+                }
+                throw new IllegalArgumentException("Filter not supported on " + name + " of type " + type.getName());
+            }
+            };
+        }
+
+        /**
+         * Returns the physical type of the column of the component in the file, or
+         * null if the file has no such column, like the partition columns of a
+         * dataset.
+         */
+        private static PrimitiveTypeName columnType(MessageType fileSchema, ComponentPath componentPath) {
+            String[] columnPath = componentPath.columnPath();
+            if (!fileSchema.containsPath(columnPath)) {
+                return null;
+            }
+            Type column = fileSchema.getType(columnPath);
+            return column.isPrimitive() ? column.asPrimitiveType().getPrimitiveTypeName() : null;
+        }
+
+        private Number toNumber() {
+            if (value instanceof Number number) {
+                return number;
+            }
+            throw new IllegalArgumentException("Invalid value " + value + " for numeric component " + name);
+        }
+
+        /**
+         * Converts the value to the type of the column only if the conversion is
+         * exact, because narrowing it would change the rows matched by the filter,
+         * like lt(100.5) matching as lt(100) on an int column. The same applies to
+         * the other numeric columns.
+         */
+        private Integer toInt() {
+            try {
+                return toDecimal().intValueExact();
+            } catch (ArithmeticException e) {
+                throw notExact("int");
+            }
+        }
+
+        private Long toLong() {
+            try {
+                return toDecimal().longValueExact();
+            } catch (ArithmeticException e) {
+                throw notExact("long");
+            }
+        }
+
+        private Float toFloat() {
+            Number number = toNumber();
+            float converted = number.floatValue();
+            if (!Float.isFinite(converted)) {
+                if (isFloatingPoint(number) && Double.compare(converted, number.doubleValue()) == 0) {
+                    return converted;
+                }
+                throw notExact("float");
+            }
+            if (toDecimal().compareTo(new BigDecimal(converted)) != 0) {
+                throw notExact("float");
+            }
+            return converted;
+        }
+
+        private Double toDouble() {
+            Number number = toNumber();
+            double converted = number.doubleValue();
+            if (!Double.isFinite(converted)) {
+                if (isFloatingPoint(number)) {
+                    return converted;
+                }
+                throw notExact("double");
+            }
+            if (toDecimal().compareTo(new BigDecimal(converted)) != 0) {
+                throw notExact("double");
+            }
+            return converted;
+        }
+
+        private BigDecimal toDecimal() {
+            Number number = toNumber();
+            if (number instanceof BigDecimal decimal) {
+                return decimal;
+            }
+            if (number instanceof BigInteger integer) {
+                return new BigDecimal(integer);
+            }
+            if (isFloatingPoint(number)) {
+                double floating = number.doubleValue();
+                if (!Double.isFinite(floating)) {
+                    throw new ArithmeticException("Not a finite value " + floating);
+                }
+                return new BigDecimal(floating);
+            }
+            return BigDecimal.valueOf(number.longValue());
+        }
+
+        private static boolean isFloatingPoint(Number number) {
+            return number instanceof Double || number instanceof Float;
+        }
+
+        private IllegalArgumentException notExact(String columnType) {
+            return new IllegalArgumentException("Value " + value + " of filter on " + name
+                    + " can not be converted exactly to " + columnType);
+        }
+
+        private Boolean toBoolean() {
+            if (value == null || value instanceof Boolean) {
+                return (Boolean) value;
+            }
+            throw new IllegalArgumentException("Invalid value " + value + " for boolean component " + name);
+        }
+
+        private <V extends Comparable<V>, C extends Column<V> & SupportsLtGt> FilterPredicate compare(C column,
+                V columnValue) {
+            return switch (operator) {
+            case EQ -> FilterApi.eq(column, columnValue);
+            case NOT_EQ -> FilterApi.notEq(column, columnValue);
+            case LT -> FilterApi.lt(column, columnValue);
+            case LT_EQ -> FilterApi.ltEq(column, columnValue);
+            case GT -> FilterApi.gt(column, columnValue);
+            case GT_EQ -> FilterApi.gtEq(column, columnValue);
+            };
+        }
+
+        private <V extends Comparable<V>, C extends Column<V> & SupportsEqNotEq> FilterPredicate compareEquality(
+                C column, V columnValue) {
+            return switch (operator) {
+            case EQ -> FilterApi.eq(column, columnValue);
+            case NOT_EQ -> FilterApi.notEq(column, columnValue);
+            default -> throw new IllegalArgumentException(operator + " filter not supported on " + name);
+            };
+        }
+
+    }
+
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import static com.jerolba.parquet.record.AliasField.getFieldName;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Type.Repetition;
+
+/**
+ *
+ * Builds the subset of a file schema that contains only the columns referenced
+ * by the components of a record class, so the reader does not fetch or
+ * decompress the column chunks that are not mapped to the record.
+ *
+ * Type mismatches are not validated here: the fields are kept as they are in
+ * the file and the converters report the error.
+ *
+ */
+final class RecordProjection {
+
+    private RecordProjection() {
+    }
+
+    static MessageType project(Class<?> recordClass, MessageType fileSchema) {
+        List<Type> fields = projectFields(recordClass, fileSchema);
+        if (fields.isEmpty()) {
+            return fileSchema;
+        }
+        return new MessageType(fileSchema.getName(), fields);
+    }
+
+    private static List<Type> projectFields(Class<?> recordClass, GroupType schema) {
+        Map<String, RecordComponent> components = new HashMap<>();
+        for (RecordComponent component : recordClass.getRecordComponents()) {
+            components.put(getFieldName(component), component);
+        }
+        List<Type> fields = new ArrayList<>();
+        for (Type field : schema.getFields()) {
+            RecordComponent component = components.get(field.getName());
+            if (component != null) {
+                fields.add(projectComponent(component, field));
+            }
+        }
+        return fields;
+    }
+
+    private static Type projectComponent(RecordComponent component, Type field) {
+        if (!Collection.class.isAssignableFrom(component.getType())) {
+            return projectValue(component.getType(), field);
+        }
+        if (!(component.getGenericType() instanceof ParameterizedType paramType)
+                || !(paramType.getActualTypeArguments()[0] instanceof Class<?> elementType)) {
+            return field;
+        }
+        if (field.isRepetition(Repetition.REPEATED)) {
+            return projectValue(elementType, field);
+        }
+        if (field.isPrimitive() || field.asGroupType().getFieldCount() != 1) {
+            return field;
+        }
+        GroupType listType = field.asGroupType();
+        Type repeatedType = listType.getType(0);
+        if (ListConverter.isListElement(repeatedType, listType.getName(), elementType)) {
+            return listType.withNewFields(projectValue(elementType, repeatedType));
+        }
+        GroupType repeatedGroup = repeatedType.asGroupType();
+        Type element = projectValue(elementType, repeatedGroup.getType(0));
+        return listType.withNewFields(repeatedGroup.withNewFields(element));
+    }
+
+    private static Type projectValue(Class<?> type, Type field) {
+        if (!type.isRecord() || field.isPrimitive()) {
+            return field;
+        }
+        GroupType group = field.asGroupType();
+        List<Type> fields = projectFields(type, group);
+        if (fields.isEmpty()) {
+            return field;
+        }
+        return group.withNewFields(fields);
+    }
+
+}
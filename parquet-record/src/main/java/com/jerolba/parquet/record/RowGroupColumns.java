@@ -0,0 +1,73 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ *
+ * The columns read from a row group by a {@link ParquetColumnReader}, by
+ * record component name.
+ *
+ */
+public final class RowGroupColumns {
+
+    private final int rowCount;
+    private final Map<String, ColumnVector> columns;
+
+    RowGroupColumns(int rowCount, Map<String, ColumnVector> columns) {
+        this.rowCount = rowCount;
+        this.columns = columns;
+    }
+
+    /**
+     *
+     * Returns the number of rows of the row group.
+     *
+     * @return the number of rows
+     */
+    public int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     *
+     * Returns the column backing the specified record component.
+     *
+     * @param component the record component name, as it was selected in the reader
+     * @return the column values
+     * @throws IllegalArgumentException if the component was not selected
+     */
+    public ColumnVector column(String component) {
+        ColumnVector column = columns.get(component);
+        if (column == null) {
+            throw new IllegalArgumentException("Component " + component + " was not read");
+        }
+        return column;
+    }
+
+    /**
+     *
+     * Returns all the columns read, in the order they were selected.
+     *
+     * @return the columns of the row group
+     */
+    public Collection<ColumnVector> columns() {
+        return columns.values();
+    }
+
+}
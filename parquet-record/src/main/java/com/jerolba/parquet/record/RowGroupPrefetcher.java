@@ -0,0 +1,347 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PrimitiveIterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.page.DataPage;
+import org.apache.parquet.column.page.DataPageV1;
+import org.apache.parquet.column.page.DataPageV2;
+import org.apache.parquet.column.page.DictionaryPage;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.column.page.PageReader;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.schema.MessageType;
+
+/**
+ *
+ * Reads and decompresses the row groups of a file in a background thread, so
+ * the next row group is ready when the consumer finishes the current one.
+ *
+ * The prefetched row groups are kept in memory fully decompressed. The memory
+ * used by the row group being consumed and the prefetched ones is bounded by a
+ * budget, estimated from the uncompressed size of the requested columns in the
+ * footer. A row group larger than the budget is only read once the previous
+ * one has been consumed. With a filter, only the pages that can contain
+ * matching rows are read.
+ *
+ */
+class RowGroupPrefetcher implements Closeable {
+
+    private static final Object END = new Object();
+
+    private final ParquetFileReader reader;
+    private final List<ColumnDescriptor> columns;
+    private final List<Long> rowGroupSizes;
+    private final long memoryBudget;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Queue<Object> ready = new ArrayDeque<>();
+    private final Deque<Long> inMemory = new ArrayDeque<>();
+    private final Thread thread;
+    private long usedMemory = 0;
+    private boolean consuming = false;
+    private boolean closed = false;
+
+    /**
+     * Creates a prefetcher of the row groups of the reader starting at the given
+     * one, which must be the next row group of the reader.
+     *
+     * @param reader          the file reader, positioned at the first row group
+     * @param firstRowGroup   the index of the next row group of the reader
+     * @param requestedSchema the schema of the columns to read
+     * @param memoryBudget    the memory budget of the prefetched row groups
+     */
+    RowGroupPrefetcher(ParquetFileReader reader, int firstRowGroup, MessageType requestedSchema, long memoryBudget) {
+        this.reader = reader;
+        this.columns = requestedSchema.getColumns();
+        this.memoryBudget = memoryBudget;
+        Set<ColumnPath> paths = new HashSet<>();
+        for (ColumnDescriptor column : columns) {
+            paths.add(ColumnPath.get(column.getPath()));
+        }
+        List<BlockMetaData> rowGroups = reader.getRowGroups();
+        this.rowGroupSizes = rowGroups.subList(firstRowGroup, rowGroups.size()).stream()
+                .map(block -> requestedSize(block, paths))
+                .toList();
+        this.thread = new Thread(this::prefetch, "parquet-row-group-prefetch");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Returns the next row group, waiting until it is available, or null if there
+     * are no more row groups or the prefetcher is closed, even while waiting. The
+     * memory of the previously returned row group is released.
+     *
+     * @return the next row group or null
+     * @throws IOException if an error occurs while reading the row group
+     */
+    PageReadStore readNextRowGroup() throws IOException {
+        lock.lock();
+        try {
+            if (consuming) {
+                consuming = false;
+                usedMemory -= inMemory.poll();
+                changed.signalAll();
+            }
+            while (!closed && ready.isEmpty()) {
+                changed.await();
+            }
+            Object next = ready.peek();
+            if (closed || next == END) {
+                return null;
+            }
+            ready.poll();
+            if (next instanceof IOException e) {
+                throw e;
+            }
+            if (next instanceof RuntimeException e) {
+                throw e;
+            }
+            if (next instanceof Error e) {
+                throw e;
+            }
+            consuming = true;
+            return (PageReadStore) next;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for row group");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the background thread, waiting for the row group being read to
+     * finish. The file reader is not closed.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            ready.clear();
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing row group prefetch");
+        }
+    }
+
+    private void prefetch() {
+        try {
+            for (long size : rowGroupSizes) {
+                if (!reserve(size)) {
+                    return;
+                }
+                PageReadStore rowGroup = reader.readNextFilteredRowGroup();
+                if (rowGroup == null) {
+                    release();
+                    break;
+                }
+                publish(decompress(rowGroup));
+            }
+        } catch (Throwable e) {
+            publish(e);
+        } finally {
+            publish(END);
+        }
+    }
+
+    private boolean reserve(long size) {
+        lock.lock();
+        try {
+            while (!closed && !inMemory.isEmpty() && usedMemory + size > memoryBudget) {
+                changed.awaitUninterruptibly();
+            }
+            if (closed) {
+                return false;
+            }
+            usedMemory += size;
+            inMemory.add(size);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            usedMemory -= inMemory.pollLast();
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void publish(Object item) {
+        lock.lock();
+        try {
+            if (!closed) {
+                ready.add(item);
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private PageReadStore decompress(PageReadStore rowGroup) throws IOException {
+        Map<ColumnDescriptor, PageReader> pageReaders = new HashMap<>();
+        for (ColumnDescriptor column : columns) {
+            pageReaders.put(column, new DecompressedPageReader(rowGroup.getPageReader(column)));
+        }
+        long rowCount = rowGroup.getRowCount();
+        return new PageReadStore() {
+
+            @Override
+            public PageReader getPageReader(ColumnDescriptor descriptor) {
+                return pageReaders.get(descriptor);
+            }
+
+            @Override
+            public long getRowCount() {
+                return rowCount;
+            }
+
+            @Override
+            public Optional<PrimitiveIterator.OfLong> getRowIndexes() {
+                return rowGroup.getRowIndexes();
+            }
+
+        };
+    }
+
+    private static long requestedSize(BlockMetaData block, Set<ColumnPath> paths) {
+        long size = 0;
+        for (ColumnChunkMetaData column : block.getColumns()) {
+            if (paths.contains(column.getPath())) {
+                size += column.getTotalUncompressedSize();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Page reader over the pages of a column chunk, read and decompressed in
+     * advance.
+     */
+    private static class DecompressedPageReader implements PageReader {
+
+        private final DictionaryPage dictionaryPage;
+        private final long totalValueCount;
+        private final Queue<DataPage> pages = new ArrayDeque<>();
+
+        DecompressedPageReader(PageReader pageReader) throws IOException {
+            DictionaryPage dictionary = pageReader.readDictionaryPage();
+            this.dictionaryPage = dictionary == null ? null : dictionary.copy();
+            this.totalValueCount = pageReader.getTotalValueCount();
+            DataPage page;
+            while ((page = pageReader.readPage()) != null) {
+                pages.add(copy(page));
+            }
+        }
+
+        @Override
+        public DictionaryPage readDictionaryPage() {
+            return dictionaryPage;
+        }
+
+        @Override
+        public long getTotalValueCount() {
+            return totalValueCount;
+        }
+
+        @Override
+        public DataPage readPage() {
+            return pages.poll();
+        }
+
+        private static DataPage copy(DataPage page) throws IOException {
+            try {
+                return page.accept(new DataPage.Visitor<DataPage>() {
+
+                    @Override
+                    public DataPage visit(DataPageV1 v1) {
+                        BytesInput bytes = copyBytes(v1.getBytes());
+                        if (v1.getFirstRowIndex().isPresent()) {
+                            return new DataPageV1(bytes, v1.getValueCount(), v1.getUncompressedSize(),
+                                    v1.getFirstRowIndex().get(), v1.getIndexRowCount().orElse(-1),
+                                    v1.getStatistics(), v1.getRlEncoding(), v1.getDlEncoding(),
+                                    v1.getValueEncoding());
+                        }
+                        return new DataPageV1(bytes, v1.getValueCount(), v1.getUncompressedSize(),
+                                v1.getStatistics(), v1.getRlEncoding(), v1.getDlEncoding(), v1.getValueEncoding());
+                    }
+
+                    @Override
+                    public DataPage visit(DataPageV2 v2) {
+                        BytesInput repetitionLevels = copyBytes(v2.getRepetitionLevels());
+                        BytesInput definitionLevels = copyBytes(v2.getDefinitionLevels());
+                        BytesInput data = copyBytes(v2.getData());
+                        if (v2.getFirstRowIndex().isPresent()) {
+                            return DataPageV2.uncompressed(v2.getRowCount(), v2.getNullCount(), v2.getValueCount(),
+                                    v2.getFirstRowIndex().get(), repetitionLevels, definitionLevels,
+                                    v2.getDataEncoding(), data, v2.getStatistics());
+                        }
+                        return DataPageV2.uncompressed(v2.getRowCount(), v2.getNullCount(), v2.getValueCount(),
+                                repetitionLevels, definitionLevels, v2.getDataEncoding(), data, v2.getStatistics());
+                    }
+
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+
+        private static BytesInput copyBytes(BytesInput bytes) {
+            try {
+                return BytesInput.copy(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+    }
+
+}
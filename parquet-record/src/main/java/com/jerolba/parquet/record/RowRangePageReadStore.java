@@ -0,0 +1,153 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.PrimitiveIterator;
+import java.util.stream.LongStream;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.page.DataPage;
+import org.apache.parquet.column.page.DataPageV1;
+import org.apache.parquet.column.page.DataPageV2;
+import org.apache.parquet.column.page.DictionaryPage;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.column.page.PageReader;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
+
+/**
+ *
+ * Page store over the pages of a row group that contain a range of its rows,
+ * located with the offset index of each column. The whole row group is still
+ * read from the file, and the pages before the range are decompressed when they
+ * are skipped, but their values are never decoded nor converted to records. The
+ * column readers skip the values of the remaining rows out of the range,
+ * synchronized by the row indexes of the store.
+ *
+ */
+class RowRangePageReadStore implements PageReadStore {
+
+    private final PageReadStore rowGroup;
+    private final Map<ColumnDescriptor, OffsetIndex> offsetIndexes;
+    private final long from;
+    private final long to;
+
+    /**
+     * Creates a page store for the rows from {@code from}, inclusive, to
+     * {@code to}, exclusive, relative to the first row of the row group.
+     *
+     * @param rowGroup      the pages of the row group
+     * @param offsetIndexes the offset index of each column of the row group
+     * @param from          the index of the first row
+     * @param to            the index after the last row
+     */
+    RowRangePageReadStore(PageReadStore rowGroup, Map<ColumnDescriptor, OffsetIndex> offsetIndexes, long from,
+            long to) {
+        this.rowGroup = rowGroup;
+        this.offsetIndexes = offsetIndexes;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public PageReader getPageReader(ColumnDescriptor descriptor) {
+        return new RowRangePageReader(rowGroup.getPageReader(descriptor), offsetIndexes.get(descriptor),
+                rowGroup.getRowCount(), from);
+    }
+
+    @Override
+    public long getRowCount() {
+        return to - from;
+    }
+
+    @Override
+    public Optional<PrimitiveIterator.OfLong> getRowIndexes() {
+        return Optional.of(LongStream.range(from, to).iterator());
+    }
+
+    /**
+     * Page reader that starts at the page containing the first row of the range,
+     * reading and dropping the previous pages, and sets the first row index of
+     * each page from the offset index.
+     */
+    private static class RowRangePageReader implements PageReader {
+
+        private final PageReader pageReader;
+        private final OffsetIndex offsetIndex;
+        private final long rowGroupRows;
+        private final long totalValueCount;
+        private int pageIndex = 0;
+
+        RowRangePageReader(PageReader pageReader, OffsetIndex offsetIndex, long rowGroupRows, long from) {
+            this.pageReader = pageReader;
+            this.offsetIndex = offsetIndex;
+            this.rowGroupRows = rowGroupRows;
+            int firstPage = 0;
+            while (firstPage + 1 < offsetIndex.getPageCount() && offsetIndex.getFirstRowIndex(firstPage + 1) <= from) {
+                firstPage++;
+            }
+            long skippedValues = 0;
+            for (; pageIndex < firstPage; pageIndex++) {
+                skippedValues += pageReader.readPage().getValueCount();
+            }
+            this.totalValueCount = pageReader.getTotalValueCount() - skippedValues;
+        }
+
+        @Override
+        public DictionaryPage readDictionaryPage() {
+            return pageReader.readDictionaryPage();
+        }
+
+        @Override
+        public long getTotalValueCount() {
+            return totalValueCount;
+        }
+
+        @Override
+        public DataPage readPage() {
+            DataPage page = pageReader.readPage();
+            if (page == null) {
+                return null;
+            }
+            long firstRow = offsetIndex.getFirstRowIndex(pageIndex);
+            long nextFirstRow = pageIndex + 1 < offsetIndex.getPageCount()
+                    ? offsetIndex.getFirstRowIndex(pageIndex + 1)
+                    : rowGroupRows;
+            pageIndex++;
+            int rowCount = (int) (nextFirstRow - firstRow);
+            return page.accept(new DataPage.Visitor<DataPage>() {
+
+                @Override
+                public DataPage visit(DataPageV1 v1) {
+                    return new DataPageV1(v1.getBytes(), v1.getValueCount(), v1.getUncompressedSize(), firstRow,
+                            rowCount, v1.getStatistics(), v1.getRlEncoding(), v1.getDlEncoding(),
+                            v1.getValueEncoding());
+                }
+
+                @Override
+                public DataPage visit(DataPageV2 v2) {
+                    return DataPageV2.uncompressed(v2.getRowCount(), v2.getNullCount(), v2.getValueCount(),
+                            firstRow, v2.getRepetitionLevels(), v2.getDefinitionLevels(), v2.getDataEncoding(),
+                            v2.getData(), v2.getStatistics());
+                }
+
+            });
+        }
+
+    }
+
+}
@@ -0,0 +1,263 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BOOLEAN;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.DOUBLE;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.FLOAT;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT32;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+import com.jerolba.avro.record.RecordTypeConversionException;
+
+/**
+ *
+ * Factory of converters from Parquet primitive columns to the simple Java types
+ * supported in record components.
+ *
+ */
+final class SimpleTypeConverters {
+
+    private SimpleTypeConverters() {
+    }
+
+    static PrimitiveConverter of(Class<?> type, PrimitiveType parquetType, Consumer<Object> consumer) {
+        PrimitiveTypeName primitiveType = parquetType.getPrimitiveTypeName();
+        if (type.isEnum()) {
+            checkType(type, primitiveType, BINARY);
+            return new BinaryConverter(consumer, v -> enumValue(type, v.toStringUsingUTF8()));
+        }
+        switch (type.getName()) {
+        case "java.lang.String":
+            checkType(type, primitiveType, BINARY);
+            return new BinaryConverter(consumer, Binary::toStringUsingUTF8);
+        case "int", "java.lang.Integer":
+            checkType(type, primitiveType, INT32);
+            return new IntConverter(consumer);
+        case "short", "java.lang.Short":
+            checkType(type, primitiveType, INT32);
+            return new ShortConverter(consumer);
+        case "byte", "java.lang.Byte":
+            checkType(type, primitiveType, INT32);
+            return new ByteConverter(consumer);
+        case "long", "java.lang.Long":
+            checkType(type, primitiveType, INT64, INT32);
+            return new LongConverter(consumer);
+        case "float", "java.lang.Float":
+            checkType(type, primitiveType, FLOAT);
+            return new FloatConverter(consumer);
+        case "double", "java.lang.Double":
+            checkType(type, primitiveType, DOUBLE, FLOAT);
+            return new DoubleConverter(consumer);
+        case "boolean", "java.lang.Boolean":
+            checkType(type, primitiveType, BOOLEAN);
+            return new BooleanConverter(consumer);
+        default:
+            throw new RecordTypeConversionException(type + " type not supported");
+        }
+    }
+
+    private static void checkType(Class<?> type, PrimitiveTypeName primitiveType, PrimitiveTypeName... expected) {
+        if (!Set.of(expected).contains(primitiveType)) {
+            throw new RecordTypeConversionException(
+                    "Parquet type " + primitiveType + " can not be converted to " + type.getName());
+        }
+    }
+
+    private static class IntConverter extends PrimitiveConverter {
+
+        private final Consumer<Object> consumer;
+
+        IntConverter(Consumer<Object> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void addInt(int value) {
+            consumer.accept(value);
+        }
+
+    }
+
+    private static class ShortConverter extends PrimitiveConverter {
+
+        private final Consumer<Object> consumer;
+
+        ShortConverter(Consumer<Object> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void addInt(int value) {
+            consumer.accept((short) value);
+        }
+
+    }
+
+    private static class ByteConverter extends PrimitiveConverter {
+
+        private final Consumer<Object> consumer;
+
+        ByteConverter(Consumer<Object> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void addInt(int value) {
+            consumer.accept((byte) value);
+        }
+
+    }
+
+    private static class LongConverter extends PrimitiveConverter {
+
+        private final Consumer<Object> consumer;
+
+        LongConverter(Consumer<Object> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void addInt(int value) {
+            consumer.accept((long) value);
+        }
+
+        @Override
+        public void addLong(long value) {
+            consumer.accept(value);
+        }
+
+    }
+
+    private static class FloatConverter extends PrimitiveConverter {
+
+        private final Consumer<Object> consumer;
+
+        FloatConverter(Consumer<Object> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void addFloat(float value) {
+            consumer.accept(value);
+        }
+
+    }
+
+    private static class DoubleConverter extends PrimitiveConverter {
+
+        private final Consumer<Object> consumer;
+
+        DoubleConverter(Consumer<Object> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void addFloat(float value) {
+            consumer.accept((double) value);
+        }
+
+        @Override
+        public void addDouble(double value) {
+            consumer.accept(value);
+        }
+
+    }
+
+    private static class BooleanConverter extends PrimitiveConverter {
+
+        private final Consumer<Object> consumer;
+
+        BooleanConverter(Consumer<Object> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void addBoolean(boolean value) {
+            consumer.accept(value);
+        }
+
+    }
+
+    /**
+     * Returns the constant of an enum class with the specified name.
+     *
+     * @param type the enum class
+     * @param name the name of the constant
+     * @return the enum constant
+     * @throws IllegalArgumentException if the enum has no constant with the name
+     */
+    @SuppressWarnings("unchecked")
+    static <E extends Enum<E>> E enumValue(Class<?> type, String name) {
+        return Enum.valueOf((Class<E>) type, name);
+    }
+
+    /**
+     * Converts binary values to String or Enum. Values stored in a dictionary are
+     * converted only once per row group.
+     */
+    private static class BinaryConverter extends PrimitiveConverter {
+
+        private final Consumer<Object> consumer;
+        private final Function<Binary, Object> mapper;
+        private Dictionary dictionary;
+        private Object[] dictionaryValues;
+
+        BinaryConverter(Consumer<Object> consumer, Function<Binary, Object> mapper) {
+            this.consumer = consumer;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void addBinary(Binary value) {
+            consumer.accept(mapper.apply(value));
+        }
+
+        @Override
+        public boolean hasDictionarySupport() {
+            return true;
+        }
+
+        @Override
+        public void setDictionary(Dictionary dictionary) {
+            this.dictionary = dictionary;
+            this.dictionaryValues = new Object[dictionary.getMaxId() + 1];
+        }
+
+        @Override
+        public void addValueFromDictionary(int dictionaryId) {
+            Object value = dictionaryValues[dictionaryId];
+            if (value == null) {
+                value = mapper.apply(dictionary.decodeToBinary(dictionaryId));
+                dictionaryValues[dictionaryId] = value;
+            }
+            consumer.accept(value);
+        }
+
+    }
+
+}
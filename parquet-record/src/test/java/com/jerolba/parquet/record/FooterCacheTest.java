@@ -0,0 +1,94 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class FooterCacheTest {
+
+    public record Row(String id, int value) {
+    }
+
+    private static final String PATH = "/tmp/footerCache.parquet";
+
+    private List<Row> writeRows(int count) throws IOException {
+        List<Row> rows = IntStream.range(0, count).mapToObj(i -> new Row("id" + i, i)).toList();
+        FileSystemOutputFile output = new FileSystemOutputFile(new File(PATH));
+        ParquetRecordWriterConfig<Row> config = new ParquetRecordWriterConfig.Builder<>(output, Row.class)
+                .withRowGroupSize(16 * 1024)
+                .build();
+        new ParquetRecordWriter<>(config).write(rows.stream());
+        return rows;
+    }
+
+    private ParquetRecordReader<Row> reader(FooterCache cache) throws IOException {
+        var config = new ParquetRecordReaderConfig.Builder<>(PATH, Row.class)
+                .withFooterCache(cache)
+                .build();
+        return new ParquetRecordReader<>(config);
+    }
+
+    @Test
+    void reopenedFileUsesCachedFooter() throws IOException {
+        List<Row> rows = writeRows(10_000);
+        FooterCache cache = new FooterCache(10);
+        assertEquals(rows, reader(cache).toList());
+        assertEquals(1, cache.size());
+        assertEquals(rows, reader(cache).toList());
+        try (var stream = reader(cache).stream()) {
+            assertEquals(rows, stream.parallel().toList());
+        }
+        assertEquals(rows.size(), reader(cache).count());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void modifiedFileIsReadAgain() throws IOException {
+        writeRows(1000);
+        FooterCache cache = new FooterCache(10);
+        assertEquals(1000, reader(cache).toList().size());
+        List<Row> rows = writeRows(3000);
+        assertEquals(rows, reader(cache).toList());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void boundedSize() throws IOException {
+        writeRows(100);
+        FooterCache cache = new FooterCache(1);
+        reader(cache).toList();
+        writeRows(200);
+        reader(cache).toList();
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void invalidFile() throws IOException {
+        Files.writeString(new File(PATH).toPath(), "not a parquet file");
+        FooterCache cache = new FooterCache(10);
+        assertThrows(RuntimeException.class, () -> reader(cache).toList());
+    }
+
+}
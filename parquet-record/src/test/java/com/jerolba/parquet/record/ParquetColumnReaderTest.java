@@ -0,0 +1,138 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.jerolba.avro.record.RecordTypeConversionException;
+import com.jerolba.record.annotation.Alias;
+
+class ParquetColumnReaderTest {
+
+    public record Position(double lat, double lon) {
+    }
+
+    public record Sale(String id, long amount, Integer units, @Alias("flag") boolean valid, Position position) {
+    }
+
+    private static final String PATH = "/tmp/columns.parquet";
+    private static final int ROWS = 20_000;
+
+    @BeforeEach
+    void writeSales() throws IOException {
+        FileSystemOutputFile output = new FileSystemOutputFile(new File(PATH));
+        ParquetRecordWriterConfig<Sale> config = new ParquetRecordWriterConfig.Builder<>(output, Sale.class)
+                .withRowGroupSize(64 * 1024)
+                .build();
+        new ParquetRecordWriter<>(config).write(IntStream.range(0, ROWS).mapToObj(this::sale));
+    }
+
+    private Sale sale(int i) {
+        Position position = i % 5 == 0 ? null : new Position(i / 2.0, -i);
+        return new Sale("id" + i, i * 10L, i % 3 == 0 ? null : i, i % 2 == 0, position);
+    }
+
+    @Test
+    void sumLongColumn() throws IOException {
+        var reader = new ParquetColumnReader(PATH, Sale.class, "amount");
+        long sum = 0;
+        int rowGroups = 0;
+        try (var stream = reader.stream()) {
+            for (RowGroupColumns rowGroup : stream.toList()) {
+                ColumnVector amount = rowGroup.column("amount");
+                assertEquals(rowGroup.rowCount(), amount.size());
+                assertFalse(amount.hasNulls());
+                for (long value : amount.longs()) {
+                    sum += value;
+                }
+                rowGroups++;
+            }
+        }
+        assertEquals(10L * ROWS * (ROWS - 1) / 2, sum);
+        assertTrue(rowGroups > 1);
+    }
+
+    @Test
+    void nullableAndNestedColumns() throws IOException {
+        var reader = new ParquetColumnReader(PATH, Sale.class, "units", "valid", "position.lat");
+        int row = 0;
+        var it = reader.iterator();
+        while (it.hasNext()) {
+            RowGroupColumns rowGroup = it.next();
+            ColumnVector units = rowGroup.column("units");
+            boolean[] valid = rowGroup.column("valid").booleans();
+            ColumnVector lat = rowGroup.column("position.lat");
+            for (int i = 0; i < rowGroup.rowCount(); i++, row++) {
+                Sale expected = sale(row);
+                assertEquals(expected.units() == null, units.isNull(i));
+                if (expected.units() != null) {
+                    assertEquals(expected.units().intValue(), units.ints()[i]);
+                }
+                assertEquals(expected.valid(), valid[i]);
+                assertEquals(expected.position() == null, lat.isNull(i));
+                if (expected.position() != null) {
+                    assertEquals(expected.position().lat(), lat.doubles()[i]);
+                }
+            }
+        }
+        assertEquals(ROWS, row);
+    }
+
+    @Test
+    void columnsInSelectionOrder() throws IOException {
+        var reader = new ParquetColumnReader(PATH, Sale.class, "position.lon", "amount");
+        RowGroupColumns rowGroup = reader.iterator().next();
+        List<String> names = rowGroup.columns().stream().map(ColumnVector::name).toList();
+        assertEquals(List.of("position.lon", "amount"), names);
+        assertArrayEquals(new long[] { 0, 10, 20 }, Arrays.copyOf(rowGroup.column("amount").longs(), 3));
+    }
+
+    @Test
+    void invalidSelections() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> new ParquetColumnReader(PATH, Sale.class, "id"));
+        assertThrows(IllegalArgumentException.class, () -> new ParquetColumnReader(PATH, Sale.class, "foo"));
+        assertThrows(IllegalArgumentException.class, () -> new ParquetColumnReader(PATH, Sale.class, "position"));
+        assertThrows(IllegalArgumentException.class, () -> new ParquetColumnReader(PATH, Sale.class));
+
+        var reader = new ParquetColumnReader(PATH, Sale.class, "amount");
+        RowGroupColumns rowGroup = reader.iterator().next();
+        assertThrows(IllegalStateException.class, () -> rowGroup.column("amount").ints());
+        assertThrows(IllegalArgumentException.class, () -> rowGroup.column("units"));
+    }
+
+    public record WrongType(int amount) {
+    }
+
+    @Test
+    void columnTypeMismatch() {
+        var reader = new ParquetColumnReader(PATH, WrongType.class, "amount");
+        assertThrows(RecordTypeConversionException.class, () -> reader.iterator());
+    }
+
+}
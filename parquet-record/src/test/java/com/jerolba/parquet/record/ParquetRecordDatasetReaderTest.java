@@ -0,0 +1,234 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ParquetRecordDatasetReaderTest {
+
+    public record Row(String id, int value) {
+    }
+
+    private static final Path DATASET = Path.of("/tmp/dataset");
+    private static final int FILES = 10;
+    private static final int ROWS_PER_FILE = 100;
+
+    @BeforeEach
+    void writeDataset() throws IOException {
+        delete(DATASET);
+        Files.createDirectories(DATASET);
+        for (int i = 0; i < FILES; i++) {
+            writeFile(DATASET.resolve(String.format("part-%05d.parquet", i)), i * ROWS_PER_FILE);
+        }
+        Files.createFile(DATASET.resolve("_SUCCESS"));
+    }
+
+    private void delete(Path directory) throws IOException {
+        if (Files.exists(directory)) {
+            try (Stream<Path> paths = Files.walk(directory)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    private void writeFile(Path path, int from) throws IOException {
+        FileSystemOutputFile output = new FileSystemOutputFile(path.toFile());
+        ParquetRecordWriterConfig<Row> config = new ParquetRecordWriterConfig.Builder<>(output, Row.class).build();
+        new ParquetRecordWriter<>(config).write(rows(from, from + ROWS_PER_FILE));
+    }
+
+    private Stream<Row> rows(int from, int to) {
+        return IntStream.range(from, to).mapToObj(i -> new Row("id" + i, i));
+    }
+
+    @Test
+    void readDirectory() throws IOException {
+        var reader = new ParquetRecordDatasetReader<>(DATASET, Row.class);
+        assertEquals(rows(0, FILES * ROWS_PER_FILE).toList(), reader.toList());
+    }
+
+    @Test
+    void readGlob() throws IOException {
+        var reader = new ParquetRecordDatasetReader<>(DATASET, "part-0000[0-1].parquet", Row.class, 2);
+        assertEquals(rows(0, 2 * ROWS_PER_FILE).toList(), reader.toList());
+    }
+
+    @Test
+    void readFilesList() throws IOException {
+        List<FileSystemInputFile> files = List.of(
+                new FileSystemInputFile(DATASET.resolve("part-00003.parquet").toFile()),
+                new FileSystemInputFile(DATASET.resolve("part-00001.parquet").toFile()));
+        var reader = new ParquetRecordDatasetReader<>(files, Row.class, 4);
+        var it = reader.iterator();
+        for (int i = 3 * ROWS_PER_FILE; i < 4 * ROWS_PER_FILE; i++) {
+            assertEquals(new Row("id" + i, i), it.next());
+        }
+        for (int i = ROWS_PER_FILE; i < 2 * ROWS_PER_FILE; i++) {
+            assertEquals(new Row("id" + i, i), it.next());
+        }
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    void partiallyConsumedStream() throws IOException {
+        var reader = new ParquetRecordDatasetReader<>(DATASET, Row.class);
+        try (var stream = reader.stream()) {
+            assertEquals(rows(0, 150).toList(), stream.limit(150).toList());
+        }
+    }
+
+    @Test
+    void readFilesLargerThanReadAhead() throws IOException {
+        Path root = Path.of("/tmp/largeDataset");
+        delete(root);
+        Files.createDirectories(root);
+        for (int i = 0; i < 3; i++) {
+            FileSystemOutputFile output = new FileSystemOutputFile(root.resolve("part-" + i + ".parquet").toFile());
+            ParquetRecordWriterConfig<Row> config = new ParquetRecordWriterConfig.Builder<>(output, Row.class).build();
+            new ParquetRecordWriter<>(config).write(rows(i * 10_000, (i + 1) * 10_000));
+        }
+        var reader = new ParquetRecordDatasetReader<>(root, "*.parquet", Row.class, 2);
+        assertEquals(rows(0, 30_000).toList(), reader.toList());
+        try (var stream = reader.stream()) {
+            assertEquals(rows(0, 15_000).toList(), stream.limit(15_000).toList());
+        }
+    }
+
+    @Test
+    void corruptedFile() throws IOException {
+        Files.writeString(DATASET.resolve("part-00004.parquet"), "not a parquet file");
+        var reader = new ParquetRecordDatasetReader<>(DATASET, Row.class);
+        var it = reader.iterator();
+        for (int i = 0; i < 4 * ROWS_PER_FILE; i++) {
+            assertEquals(new Row("id" + i, i), it.next());
+        }
+        assertThrows(RuntimeException.class, it::hasNext);
+    }
+
+    public enum Region {
+        EU, US
+    }
+
+    public record PartitionedRow(String id, int value, String date, Region region) {
+    }
+
+    @Test
+    void readPartitions() throws IOException {
+        Path root = Path.of("/tmp/partitioned");
+        delete(root);
+        writePartition(root.resolve("date=2023-01-01/region=EU"), 0);
+        writePartition(root.resolve("date=2023-01-01/region=US"), 100);
+        writePartition(root.resolve("date=2023-01-02/region=EU"), 200);
+
+        var reader = new ParquetRecordDatasetReader<>(root, PartitionedRow.class);
+        List<PartitionedRow> rows = reader.toList();
+        assertEquals(3 * ROWS_PER_FILE, rows.size());
+        assertEquals(new PartitionedRow("id0", 0, "2023-01-01", Region.EU), rows.get(0));
+        assertEquals(new PartitionedRow("id100", 100, "2023-01-01", Region.US), rows.get(100));
+        assertEquals(new PartitionedRow("id200", 200, "2023-01-02", Region.EU), rows.get(200));
+    }
+
+    @Test
+    void prunePartitions() throws IOException {
+        Path root = Path.of("/tmp/partitioned");
+        delete(root);
+        writePartition(root.resolve("date=2023-01-01/region=EU"), 0);
+        writePartition(root.resolve("date=2023-01-01/region=US"), 100);
+        writePartition(root.resolve("date=2023-01-02/region=EU"), 200);
+        Files.writeString(root.resolve("date=2023-01-01/region=US/corrupted.parquet"), "not a parquet file");
+
+        var reader = new ParquetRecordDatasetReader<>(root, partition -> "EU".equals(partition.get("region")),
+                PartitionedRow.class);
+        List<PartitionedRow> rows = reader.toList();
+        assertEquals(2 * ROWS_PER_FILE, rows.size());
+        assertEquals(new PartitionedRow("id0", 0, "2023-01-01", Region.EU), rows.get(0));
+        assertEquals(new PartitionedRow("id200", 200, "2023-01-02", Region.EU), rows.get(ROWS_PER_FILE));
+    }
+
+    @Test
+    void prunePartitionDirectories() throws IOException {
+        Path root = Path.of("/tmp/partitioned");
+        delete(root);
+        writePartition(root.resolve("date=2023-01-01/region=EU"), 0);
+        writePartition(root.resolve("date=2023-01-01/region=US"), 100);
+        writePartition(root.resolve("date=2023-01-02/region=EU"), 200);
+        writePartition(root.resolve("date=2023-01-02/region=US"), 300);
+
+        AtomicInteger evaluations = new AtomicInteger();
+        var reader = new ParquetRecordDatasetReader<>(root, partition -> {
+            evaluations.incrementAndGet();
+            return "2023-01-02".equals(partition.get("date"));
+        }, PartitionedRow.class);
+        List<PartitionedRow> rows = reader.toList();
+        assertEquals(2 * ROWS_PER_FILE, rows.size());
+        assertEquals(new PartitionedRow("id200", 200, "2023-01-02", Region.EU), rows.get(0));
+        assertEquals(new PartitionedRow("id300", 300, "2023-01-02", Region.US), rows.get(ROWS_PER_FILE));
+        assertEquals(4, evaluations.get());
+    }
+
+    @Test
+    void skipFilesWithoutPartitionKeys() throws IOException {
+        Path root = Path.of("/tmp/partitioned");
+        delete(root);
+        writePartition(root.resolve("date=2023-01-01/region=EU"), 0);
+        writePartition(root.resolve("date=2023-01-01/region=US"), 100);
+        writePartition(root.resolve("date=2023-01-02"), 200);
+        writeFile(root.resolve("part-00000.parquet"), 300);
+
+        var reader = new ParquetRecordDatasetReader<>(root, partition -> partition.get("region").equals("EU"),
+                PartitionedRow.class);
+        List<PartitionedRow> rows = reader.toList();
+        assertEquals(ROWS_PER_FILE, rows.size());
+        assertEquals(new PartitionedRow("id0", 0, "2023-01-01", Region.EU), rows.get(0));
+    }
+
+    @Test
+    void readFilesWithoutPartitionKeysIfMatching() throws IOException {
+        Path root = Path.of("/tmp/partitioned");
+        delete(root);
+        writePartition(root.resolve("date=2023-01-01/region=EU"), 0);
+        writePartition(root.resolve("date=2023-01-01/region=US"), 100);
+        writeFile(root.resolve("part-00000.parquet"), 200);
+
+        var reader = new ParquetRecordDatasetReader<>(root, partition -> !"US".equals(partition.get("region")),
+                PartitionedRow.class);
+        List<PartitionedRow> rows = reader.toList();
+        assertEquals(2 * ROWS_PER_FILE, rows.size());
+        assertEquals(new PartitionedRow("id0", 0, "2023-01-01", Region.EU), rows.get(0));
+        assertEquals(new PartitionedRow("id200", 200, null, null), rows.get(ROWS_PER_FILE));
+    }
+
+    private void writePartition(Path directory, int from) throws IOException {
+        Files.createDirectories(directory);
+        writeFile(directory.resolve("part-00000.parquet"), from);
+    }
+
+}
@@ -17,25 +17,47 @@ package com.jerolba.parquet.record;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import org.apache.avro.Schema;
 import org.apache.avro.SchemaBuilder;
 import org.apache.avro.generic.GenericData;
 import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.avro.AvroWriteSupport;
+import org.apache.parquet.column.ParquetProperties.WriterVersion;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.hadoop.ParquetFileReader;
 import org.apache.parquet.hadoop.ParquetFileWriter.Mode;
 import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.apache.parquet.io.OutputFile;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import com.jerolba.record.annotation.Alias;
+
 class ParquetRecordReaderTest {
 
     @Test
@@ -446,6 +468,1104 @@ class ParquetRecordReaderTest {
 
     }
 
+    @Nested
+    class ThreeLevelList {
+
+        public record CompositeChild(String id, int value) {
+        }
+
+        public record WithLists(String name, List<Integer> sizes, List<CompositeChild> children) {
+        }
+
+        Schema childSchema = SchemaBuilder.builder()
+                .record("CompositeChild")
+                .namespace("com.jerolba.parquet")
+                .fields()
+                .name("id").type().stringType().noDefault()
+                .name("value").type().intType().noDefault()
+                .endRecord();
+
+        Schema schema = SchemaBuilder.builder()
+                .record("WithLists")
+                .namespace("com.jerolba.parquet")
+                .fields()
+                .name("name").type().stringType().noDefault()
+                .name("sizes").type(SchemaBuilder.builder().array().items().intType()).noDefault()
+                .name("children").type(SchemaBuilder.builder().array()
+                        .items(SchemaBuilder.builder().unionOf().nullType().and().type(childSchema).endUnion()))
+                .noDefault()
+                .endRecord();
+
+        @Test
+        void listsWithNullElements() throws IOException {
+            String path = "/tmp/threeLevelList.parquet";
+            OutputFile outputFile = new OutputStreamOutputFile(new FileOutputStream(path));
+            try (ParquetWriter<GenericData.Record> writer = AvroParquetWriter.<GenericData.Record>builder(outputFile)
+                    .withSchema(schema)
+                    .config(AvroWriteSupport.WRITE_OLD_LIST_STRUCTURE, "false")
+                    .build()) {
+                GenericData.Record child = new GenericData.Record(childSchema);
+                child.put("id", "12345");
+                child.put("value", 12345);
+
+                GenericData.Record record = new GenericData.Record(schema);
+                record.put("name", "Apple");
+                record.put("sizes", List.of(1, 2, 3));
+                record.put("children", Arrays.asList(child, null));
+                writer.write(record);
+            }
+
+            Iterator<WithLists> it = new ParquetRecordReader<>(path, WithLists.class).iterator();
+            var expected = new WithLists("Apple", List.of(1, 2, 3),
+                    Arrays.asList(new CompositeChild("12345", 12345), null));
+            assertEquals(expected, it.next());
+            assertFalse(it.hasNext());
+        }
+    }
+
+    public record OnlyName(String name, int missing) {
+    }
+
+    @Test
+    void fileWithDifferentColumns() throws IOException {
+        var parquetTest = new ParquetReaderTest("/tmp/differentColumns.parquet");
+        Schema schema = SchemaBuilder.builder()
+                .record("OnlyName")
+                .namespace("com.jerolba.parquet")
+                .fields()
+                .name("id").type().longType().noDefault()
+                .name("name").type().stringType().noDefault()
+                .endRecord();
+        parquetTest.write(schema, writer -> {
+            GenericData.Record record = new GenericData.Record(schema);
+            record.put("id", 1L);
+            record.put("name", "foo");
+            writer.write(record);
+        });
+
+        Iterator<OnlyName> it = parquetTest.iterator(OnlyName.class);
+        assertEquals(new OnlyName("foo", 0), it.next());
+        assertFalse(it.hasNext());
+    }
+
+    public record ProjectedChild(String id) {
+    }
+
+    public record ProjectedMain(@Alias("name") String title, List<ProjectedChild> children) {
+    }
+
+    @Test
+    void projectionOfNestedColumns() throws IOException {
+        var parquetTest = new ParquetReaderTest("/tmp/projectedColumns.parquet");
+        Schema childSchema = SchemaBuilder.builder()
+                .record("ProjectedChild")
+                .namespace("com.jerolba.parquet")
+                .fields()
+                .name("id").type().stringType().noDefault()
+                .name("value").type().intType().noDefault()
+                .endRecord();
+        Schema schema = SchemaBuilder.builder()
+                .record("ProjectedMain")
+                .namespace("com.jerolba.parquet")
+                .fields()
+                .name("id").type().longType().noDefault()
+                .name("name").type().stringType().noDefault()
+                .name("children").type(SchemaBuilder.builder().array().items(childSchema)).noDefault()
+                .name("amount").type().doubleType().noDefault()
+                .endRecord();
+        parquetTest.write(schema, writer -> {
+            GenericData.Record child = new GenericData.Record(childSchema);
+            child.put("id", "bar");
+            child.put("value", 1);
+            GenericData.Record record = new GenericData.Record(schema);
+            record.put("id", 1L);
+            record.put("name", "foo");
+            record.put("children", List.of(child));
+            record.put("amount", 2.0);
+            writer.write(record);
+        });
+
+        Iterator<ProjectedMain> it = parquetTest.iterator(ProjectedMain.class);
+        assertEquals(new ProjectedMain("foo", List.of(new ProjectedChild("bar"))), it.next());
+        assertFalse(it.hasNext());
+    }
+
+    public record UnmatchedChild(String missing) {
+    }
+
+    public record NoColumns(String other, int missing) {
+    }
+
+    public record UnmatchedNested(String name, UnmatchedChild child) {
+    }
+
+    @Test
+    void recordsWithoutMatchingColumns() throws IOException {
+        var parquetTest = new ParquetReaderTest("/tmp/unmatchedColumns.parquet");
+        Schema childSchema = SchemaBuilder.builder()
+                .record("UnmatchedChild")
+                .namespace("com.jerolba.parquet")
+                .fields()
+                .name("id").type().stringType().noDefault()
+                .name("value").type().intType().noDefault()
+                .name("flag").type().booleanType().noDefault()
+                .name("ratio").type().floatType().noDefault()
+                .endRecord();
+        Schema schema = SchemaBuilder.builder()
+                .record("UnmatchedNested")
+                .namespace("com.jerolba.parquet")
+                .fields()
+                .name("id").type().longType().noDefault()
+                .name("name").type().stringType().noDefault()
+                .name("child").type(childSchema).noDefault()
+                .name("amount").type().doubleType().noDefault()
+                .endRecord();
+        parquetTest.write(schema, writer -> {
+            GenericData.Record child = new GenericData.Record(childSchema);
+            child.put("id", "bar");
+            child.put("value", 1);
+            child.put("flag", true);
+            child.put("ratio", 0.5f);
+            GenericData.Record record = new GenericData.Record(schema);
+            record.put("id", 1L);
+            record.put("name", "foo");
+            record.put("child", child);
+            record.put("amount", 2.0);
+            writer.write(record);
+        });
+
+        Iterator<NoColumns> noColumns = parquetTest.iterator(NoColumns.class);
+        assertEquals(new NoColumns(null, 0), noColumns.next());
+        assertFalse(noColumns.hasNext());
+
+        Iterator<UnmatchedNested> nested = parquetTest.iterator(UnmatchedNested.class);
+        assertEquals(new UnmatchedNested("foo", new UnmatchedChild(null)), nested.next());
+        assertFalse(nested.hasNext());
+    }
+
+    @Nested
+    class Filtering {
+
+        public record Location(String city, int zip) {
+        }
+
+        public record Sale(@Alias("country_code") String country, double amount, Location location) {
+        }
+
+        Schema locationSchema = SchemaBuilder.builder()
+                .record("Location")
+                .namespace("com.jerolba.parquet")
+                .fields()
+                .name("city").type().stringType().noDefault()
+                .name("zip").type().intType().noDefault()
+                .endRecord();
+
+        Schema schema = SchemaBuilder.builder()
+                .record("Sale")
+                .namespace("com.jerolba.parquet")
+                .fields()
+                .name("country_code").type().stringType().noDefault()
+                .name("amount").type().doubleType().noDefault()
+                .name("location").type().unionOf().nullType().and().type(locationSchema).endUnion().noDefault()
+                .endRecord();
+
+        private ParquetReaderTest writeSales() throws IOException {
+            var parquetTest = new ParquetReaderTest("/tmp/filtering.parquet");
+            parquetTest.write(schema, writer -> {
+                writer.write(sale("ES", 50.0, "Madrid", 28001));
+                writer.write(sale("ES", 150.0, "Sevilla", 41001));
+                writer.write(sale("FR", 200.0, "Paris", 75001));
+                writer.write(sale("IT", 300.0, null, 0));
+            });
+            return parquetTest;
+        }
+
+        private GenericData.Record sale(String country, double amount, String city, int zip) {
+            GenericData.Record record = new GenericData.Record(schema);
+            record.put("country_code", country);
+            record.put("amount", amount);
+            if (city != null) {
+                GenericData.Record location = new GenericData.Record(locationSchema);
+                location.put("city", city);
+                location.put("zip", zip);
+                record.put("location", location);
+            }
+            return record;
+        }
+
+        private List<Sale> read(RecordFilter filter) throws IOException {
+            var config = new ParquetRecordReaderConfig.Builder<>("/tmp/filtering.parquet", Sale.class)
+                    .withFilter(filter)
+                    .build();
+            return new ParquetRecordReader<>(config).toList();
+        }
+
+        @Test
+        void filterByComponentNames() throws IOException {
+            writeSales();
+            var filter = RecordFilter.where("country").eq("ES").and(RecordFilter.where("amount").gt(100));
+            assertEquals(List.of(new Sale("ES", 150.0, new Location("Sevilla", 41001))), read(filter));
+        }
+
+        @Test
+        void filterByNestedComponent() throws IOException {
+            writeSales();
+            var filter = RecordFilter.where("location.zip").gtEq(41001)
+                    .or(RecordFilter.where("location.city").isNull());
+            assertEquals(List.of(
+                    new Sale("ES", 150.0, new Location("Sevilla", 41001)),
+                    new Sale("FR", 200.0, new Location("Paris", 75001)),
+                    new Sale("IT", 300.0, null)), read(filter));
+        }
+
+        @Test
+        void negatedFilter() throws IOException {
+            writeSales();
+            var filter = RecordFilter.not(RecordFilter.where("country").eq("ES"));
+            assertEquals(List.of(
+                    new Sale("FR", 200.0, new Location("Paris", 75001)),
+                    new Sale("IT", 300.0, null)), read(filter));
+        }
+
+        @Test
+        void unknownComponent() throws IOException {
+            writeSales();
+            assertThrows(IllegalArgumentException.class, () -> read(RecordFilter.where("foo").eq("ES")));
+        }
+
+        @Test
+        void exactlyConvertedValues() throws IOException {
+            writeSales();
+            var filter = RecordFilter.where("location.zip").gtEq(41001.0).and(RecordFilter.where("amount").lt(200L));
+            assertEquals(List.of(new Sale("ES", 150.0, new Location("Sevilla", 41001))), read(filter));
+        }
+
+        @Test
+        void fractionalValueOnIntegerComponent() throws IOException {
+            writeSales();
+            assertThrows(IllegalArgumentException.class, () -> read(RecordFilter.where("location.zip").lt(41001.5)));
+            assertThrows(IllegalArgumentException.class,
+                    () -> read(RecordFilter.where("location.zip").in(List.of(28001, 0.5))));
+        }
+
+        @Test
+        void outOfRangeValueOnIntegerComponent() throws IOException {
+            writeSales();
+            assertThrows(IllegalArgumentException.class,
+                    () -> read(RecordFilter.where("location.zip").gt(3_000_000_000L)));
+            assertThrows(IllegalArgumentException.class,
+                    () -> read(RecordFilter.where("location.zip").eq(new BigInteger("10000000000000000000"))));
+        }
+
+        @Test
+        void filterByValues() throws IOException {
+            writeSales();
+            var filter = RecordFilter.where("country").in(List.of("FR", "IT", "DE"));
+            assertEquals(List.of(
+                    new Sale("FR", 200.0, new Location("Paris", 75001)),
+                    new Sale("IT", 300.0, null)), read(filter));
+        }
+
+        public record Measure(long count, double ratio) {
+        }
+
+        Schema measureSchema = SchemaBuilder.builder()
+                .record("Measure")
+                .namespace("com.jerolba.parquet")
+                .fields()
+                .name("count").type().intType().noDefault()
+                .name("ratio").type().floatType().noDefault()
+                .endRecord();
+
+        private List<Measure> readMeasures(RecordFilter filter) throws IOException {
+            var parquetTest = new ParquetReaderTest("/tmp/widenedFiltering.parquet");
+            parquetTest.write(measureSchema, writer -> {
+                for (int i = 0; i < 4; i++) {
+                    GenericData.Record record = new GenericData.Record(measureSchema);
+                    record.put("count", i * 10);
+                    record.put("ratio", i * 0.5F);
+                    writer.write(record);
+                }
+            });
+            var config = new ParquetRecordReaderConfig.Builder<>("/tmp/widenedFiltering.parquet", Measure.class)
+                    .withFilter(filter)
+                    .build();
+            return new ParquetRecordReader<>(config).toList();
+        }
+
+        @Test
+        void longComponentOverIntColumn() throws IOException {
+            assertEquals(List.of(new Measure(20, 1.0), new Measure(30, 1.5)),
+                    readMeasures(RecordFilter.where("count").gtEq(20L)));
+            assertEquals(List.of(new Measure(10, 0.5)), readMeasures(RecordFilter.where("count").in(List.of(10L, 15))));
+            assertThrows(IllegalArgumentException.class,
+                    () -> readMeasures(RecordFilter.where("count").lt(3_000_000_000L)));
+        }
+
+        @Test
+        void doubleComponentOverFloatColumn() throws IOException {
+            assertEquals(List.of(new Measure(0, 0.0), new Measure(10, 0.5)),
+                    readMeasures(RecordFilter.where("ratio").lt(1.0)));
+            assertEquals(List.of(new Measure(30, 1.5)), readMeasures(RecordFilter.where("ratio").eq(1.5)));
+            assertThrows(IllegalArgumentException.class, () -> readMeasures(RecordFilter.where("ratio").lt(0.1)));
+        }
+
+    }
+
+    @Nested
+    class RowGroupStreams {
+
+        public record Row(String id, int value) {
+        }
+
+        private static final int ROWS = 20_000;
+
+        private void writeRows() throws IOException {
+            FileSystemOutputFile output = new FileSystemOutputFile(new File("/tmp/rowGroups.parquet"));
+            ParquetRecordWriterConfig<Row> config = new ParquetRecordWriterConfig.Builder<>(output, Row.class)
+                    .withRowGroupSize(16 * 1024)
+                    .build();
+            new ParquetRecordWriter<>(config).write(IntStream.range(0, ROWS).mapToObj(i -> new Row("id" + i, i)));
+        }
+
+        @Test
+        void sizedStream() throws IOException {
+            writeRows();
+            var reader = new ParquetRecordReader<>("/tmp/rowGroups.parquet", Row.class);
+            try (var stream = reader.stream()) {
+                assertEquals(ROWS, stream.spliterator().getExactSizeIfKnown());
+            }
+        }
+
+        @Test
+        void parallelStream() throws IOException {
+            writeRows();
+            var reader = new ParquetRecordReader<>("/tmp/rowGroups.parquet", Row.class);
+            try (var stream = reader.stream()) {
+                List<Row> rows = stream.parallel().toList();
+                assertEquals(ROWS, rows.size());
+                for (int i = 0; i < ROWS; i++) {
+                    assertEquals(new Row("id" + i, i), rows.get(i));
+                }
+            }
+        }
+
+        @Test
+        void prefetchedRowGroups() throws IOException {
+            writeRows();
+            var config = new ParquetRecordReaderConfig.Builder<>("/tmp/rowGroups.parquet", Row.class)
+                    .withPrefetch(64 * 1024)
+                    .build();
+            List<Row> rows = new ParquetRecordReader<>(config).toList();
+            assertEquals(ROWS, rows.size());
+            for (int i = 0; i < ROWS; i++) {
+                assertEquals(new Row("id" + i, i), rows.get(i));
+            }
+        }
+
+        @Test
+        void prefetchedRowGroupsAfterOffset() throws IOException {
+            writeRows();
+            var config = new ParquetRecordReaderConfig.Builder<>("/tmp/rowGroups.parquet", Row.class)
+                    .withPrefetch(64 * 1024)
+                    .build();
+            List<Row> rows = new ParquetRecordReader<>(config).offset(ROWS - 100).toList();
+            assertEquals(IntStream.range(ROWS - 100, ROWS).mapToObj(i -> new Row("id" + i, i)).toList(), rows);
+        }
+
+        @Test
+        void converterPlanIsSharedByIterators() throws IOException {
+            writeRows();
+            var inputFile = new FileSystemInputFile(new File("/tmp/rowGroups.parquet"));
+            try (var fileReader = ParquetFileReader.open(inputFile)) {
+                var schema = fileReader.getFileMetaData().getSchema();
+                assertSame(JavaRecordConverter.plan(Row.class, schema, null),
+                        JavaRecordConverter.plan(Row.class, schema, null));
+            }
+            var reader = new ParquetRecordReader<>("/tmp/rowGroups.parquet", Row.class);
+            assertEquals(reader.toList(), reader.toList());
+        }
+
+        @Test
+        void closePrefetcherWhileWaitingRowGroup() throws Exception {
+            writeRows();
+            var inputFile = new FileSystemInputFile(new File("/tmp/rowGroups.parquet"));
+            var reading = new CountDownLatch(1);
+            var resume = new CountDownLatch(1);
+            try (var fileReader = new ParquetFileReader(inputFile, ParquetReadOptions.builder().build()) {
+
+                @Override
+                public PageReadStore readNextFilteredRowGroup() throws IOException {
+                    reading.countDown();
+                    try {
+                        resume.await();
+                    } catch (InterruptedException e) {
+                        throw new InterruptedIOException();
+                    }
+                    return super.readNextFilteredRowGroup();
+                }
+
+            }) {
+                var schema = fileReader.getFileMetaData().getSchema();
+                var prefetcher = new RowGroupPrefetcher(fileReader, 0, schema, 64 * 1024);
+                reading.await();
+                var next = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return prefetcher.readNextRowGroup();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                var closing = CompletableFuture.runAsync(() -> {
+                    try {
+                        prefetcher.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                assertNull(next.get(10, TimeUnit.SECONDS));
+                resume.countDown();
+                closing.get(10, TimeUnit.SECONDS);
+                assertNull(prefetcher.readNextRowGroup());
+            }
+        }
+
+        @Test
+        void fileChannelInputFile() throws IOException {
+            writeRows();
+            var inputFile = new FileChannelInputFile(new File("/tmp/rowGroups.parquet"));
+            List<Row> rows = new ParquetRecordReader<>(inputFile, Row.class).toList();
+            assertEquals(ROWS, rows.size());
+            for (int i = 0; i < ROWS; i++) {
+                assertEquals(new Row("id" + i, i), rows.get(i));
+            }
+        }
+
+        @Test
+        void mappedInputFile() throws IOException {
+            writeRows();
+            var inputFile = new MappedFileInputFile(new File("/tmp/rowGroups.parquet"));
+            List<Row> rows = new ParquetRecordReader<>(inputFile, Row.class).toList();
+            assertEquals(ROWS, rows.size());
+            for (int i = 0; i < ROWS; i++) {
+                assertEquals(new Row("id" + i, i), rows.get(i));
+            }
+        }
+
+        @Test
+        void batchesWithinRowGroups() throws IOException {
+            writeRows();
+            List<Long> rowGroupSizes;
+            var inputFile = new FileSystemInputFile(new File("/tmp/rowGroups.parquet"));
+            try (var fileReader = ParquetFileReader.open(inputFile)) {
+                rowGroupSizes = fileReader.getRowGroups().stream().map(BlockMetaData::getRowCount).toList();
+            }
+            var reader = new ParquetRecordReader<>("/tmp/rowGroups.parquet", Row.class);
+            try (var batches = reader.batches(1000)) {
+                List<List<Row>> all = batches.toList();
+                int groupIndex = 0;
+                long pendingInGroup = rowGroupSizes.get(0);
+                int next = 0;
+                for (List<Row> batch : all) {
+                    assertTrue(batch.size() <= 1000);
+                    assertTrue(batch.size() <= pendingInGroup);
+                    pendingInGroup -= batch.size();
+                    if (pendingInGroup == 0 && ++groupIndex < rowGroupSizes.size()) {
+                        pendingInGroup = rowGroupSizes.get(groupIndex);
+                    }
+                    for (Row row : batch) {
+                        assertEquals(new Row("id" + next, next), row);
+                        next++;
+                    }
+                }
+                assertEquals(ROWS, next);
+            }
+        }
+
+        @Test
+        void batchesCrossingRowGroups() throws IOException {
+            writeRows();
+            var reader = new ParquetRecordReader<>("/tmp/rowGroups.parquet", Row.class);
+            try (var batches = reader.batches(3000, true)) {
+                List<List<Row>> all = batches.toList();
+                assertEquals((ROWS + 2999) / 3000, all.size());
+                for (int i = 0; i < all.size() - 1; i++) {
+                    assertEquals(3000, all.get(i).size());
+                }
+                assertEquals(IntStream.range(0, ROWS).mapToObj(i -> new Row("id" + i, i)).toList(),
+                        all.stream().flatMap(List::stream).toList());
+            }
+        }
+
+        @Test
+        void readBatch() throws IOException {
+            writeRows();
+            List<Row> rows = new ArrayList<>();
+            try (var reader = new ParquetRecordReader<>("/tmp/rowGroups.parquet", Row.class)) {
+                int read;
+                while ((read = reader.readBatch(rows, 700)) > 0) {
+                    assertTrue(read <= 700);
+                }
+                assertEquals(0, reader.readBatch(rows, 700));
+            }
+            assertEquals(IntStream.range(0, ROWS).mapToObj(i -> new Row("id" + i, i)).toList(), rows);
+        }
+
+        @Test
+        void invalidBatchSize() throws IOException {
+            var reader = new ParquetRecordReader<>("/tmp/rowGroups.parquet", Row.class);
+            assertThrows(IllegalArgumentException.class, () -> reader.batches(0));
+            assertThrows(IllegalArgumentException.class, () -> reader.readBatch(new ArrayList<>(), -1));
+        }
+
+    }
+
+    @Nested
+    class Lookups {
+
+        public record Event(String userId, long timestamp, String type) {
+        }
+
+        private static final int ROWS = 30_000;
+
+        private Event event(int i) {
+            return new Event("user" + (i % 10_000), i, i % 2 == 0 ? "click" : "view");
+        }
+
+        private ParquetRecordReader<Event> writeEvents() throws IOException {
+            FileSystemOutputFile output = new FileSystemOutputFile(new File("/tmp/lookups.parquet"));
+            ParquetRecordWriterConfig<Event> config = new ParquetRecordWriterConfig.Builder<>(output, Event.class)
+                    .withRowGroupSize(64 * 1024)
+                    .withBloomFilterEnabled("userId", true)
+                    .build();
+            new ParquetRecordWriter<>(config).write(IntStream.range(0, ROWS).mapToObj(this::event));
+            return new ParquetRecordReader<>("/tmp/lookups.parquet", Event.class);
+        }
+
+        @Test
+        void lookupSingleKey() throws IOException {
+            var reader = writeEvents();
+            assertEquals(List.of(event(1234), event(11_234), event(21_234)), reader.lookup("userId", "user1234"));
+            assertEquals(List.of(), reader.lookup("userId", "unknown"));
+        }
+
+        @Test
+        void lookupMultipleKeys() throws IOException {
+            var reader = writeEvents();
+            List<String> keys = IntStream.range(0, 100).mapToObj(i -> "user" + (i * 97)).toList();
+            List<Event> expected = IntStream.range(0, ROWS).mapToObj(this::event)
+                    .filter(e -> keys.contains(e.userId()))
+                    .toList();
+            assertEquals(expected, reader.lookup("userId", keys));
+            assertEquals(List.of(), reader.lookup("userId", List.of()));
+        }
+
+        @Test
+        void lookupWithConfiguredFilter() throws IOException {
+            writeEvents();
+            var config = new ParquetRecordReaderConfig.Builder<>("/tmp/lookups.parquet", Event.class)
+                    .withFilter(RecordFilter.where("type").eq("click"))
+                    .build();
+            var reader = new ParquetRecordReader<>(config);
+            assertEquals(List.of(event(1234), event(11_234), event(21_234)), reader.lookup("userId", "user1234"));
+            assertEquals(List.of(), reader.lookup("userId", "user1235"));
+        }
+
+    }
+
+    @Nested
+    class PositionalAccess {
+
+        public record Item(String id, int value, List<Integer> codes, Double score) {
+        }
+
+        private static final int ROWS = 50_000;
+
+        private Item item(int i) {
+            return new Item("id" + i, i, List.of(i, i + 1), i % 3 == 0 ? null : i * 1.5);
+        }
+
+        private ParquetRecordReader<Item> writeItems(WriterVersion version) throws IOException {
+            FileSystemOutputFile output = new FileSystemOutputFile(new File("/tmp/positional.parquet"));
+            ParquetRecordWriterConfig<Item> config = new ParquetRecordWriterConfig.Builder<>(output, Item.class)
+                    .withRowGroupSize(256 * 1024)
+                    .withPageRowCountLimit(1000)
+                    .withWriterVersion(version)
+                    .build();
+            new ParquetRecordWriter<>(config).write(IntStream.range(0, ROWS).mapToObj(this::item));
+            return new ParquetRecordReader<>("/tmp/positional.parquet", Item.class);
+        }
+
+        @Test
+        void getByRowIndex() throws IOException {
+            var reader = writeItems(WriterVersion.PARQUET_1_0);
+            for (int i : new int[] { 0, 1, 999, 1000, 1001, 12_345, 33_333, ROWS - 1 }) {
+                assertEquals(item(i), reader.get(i));
+            }
+        }
+
+        @Test
+        void rangeAcrossRowGroups() throws IOException {
+            var reader = writeItems(WriterVersion.PARQUET_2_0);
+            List<Item> expected = IntStream.range(4_500, 37_800).mapToObj(this::item).toList();
+            assertEquals(expected, reader.range(4_500, 37_800));
+            assertEquals(List.of(), reader.range(100, 100));
+        }
+
+        @Test
+        void invalidRange() throws IOException {
+            var reader = writeItems(WriterVersion.PARQUET_1_0);
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.get(ROWS));
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.get(-1));
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.range(10, 5));
+        }
+
+    }
+
+    @Nested
+    class OffsetAndLimit {
+
+        public record Item(String id, int value, List<Integer> codes) {
+        }
+
+        private static final int ROWS = 50_000;
+
+        private Item item(int i) {
+            return new Item("id" + i, i, List.of(i, i + 1));
+        }
+
+        private List<Item> items(int from, int to) {
+            return IntStream.range(from, to).mapToObj(this::item).toList();
+        }
+
+        private ParquetRecordReader<Item> writeItems(WriterVersion version) throws IOException {
+            FileSystemOutputFile output = new FileSystemOutputFile(new File("/tmp/offsetlimit.parquet"));
+            ParquetRecordWriterConfig<Item> config = new ParquetRecordWriterConfig.Builder<>(output, Item.class)
+                    .withRowGroupSize(256 * 1024)
+                    .withPageRowCountLimit(1000)
+                    .withWriterVersion(version)
+                    .build();
+            new ParquetRecordWriter<>(config).write(IntStream.range(0, ROWS).mapToObj(this::item));
+            return new ParquetRecordReader<>("/tmp/offsetlimit.parquet", Item.class);
+        }
+
+        @Test
+        void offsetAndLimit() throws IOException {
+            var reader = writeItems(WriterVersion.PARQUET_1_0);
+            assertEquals(items(23_456, 24_456), reader.offset(23_456).limit(1000).toList());
+            assertEquals(items(ROWS - 10, ROWS), reader.offset(ROWS - 10).toList());
+            assertEquals(items(0, 5), reader.limit(5).toList());
+        }
+
+        @Test
+        void offsetWithDataPageV2() throws IOException {
+            var reader = writeItems(WriterVersion.PARQUET_2_0);
+            assertEquals(items(37_001, 37_101), reader.offset(37_001).limit(100).toList());
+        }
+
+        @Test
+        void composedOffsetsAndLimits() throws IOException {
+            var reader = writeItems(WriterVersion.PARQUET_1_0);
+            assertEquals(items(150, 170), reader.offset(100).limit(100).offset(50).limit(20).toList());
+            assertEquals(items(150, 200), reader.offset(100).limit(100).offset(50).toList());
+            assertEquals(List.of(), reader.limit(10).offset(20).toList());
+        }
+
+        @Test
+        void offsetBeyondRows() throws IOException {
+            var reader = writeItems(WriterVersion.PARQUET_1_0);
+            assertEquals(List.of(), reader.offset(ROWS).toList());
+            assertEquals(List.of(), reader.offset(ROWS + 1000).limit(10).toList());
+            assertEquals(0, reader.offset(ROWS + 1000).count());
+        }
+
+        @Test
+        void streamAndBatches() throws IOException {
+            var reader = writeItems(WriterVersion.PARQUET_1_0).offset(12_000).limit(3_000);
+            try (var stream = reader.stream()) {
+                assertEquals(items(12_000, 15_000), stream.toList());
+            }
+            try (var batches = reader.batches(1000, true)) {
+                assertEquals(items(12_000, 15_000), batches.flatMap(List::stream).toList());
+            }
+            assertEquals(3_000, reader.count());
+        }
+
+        @Test
+        void offsetWithPrefetch() throws IOException {
+            writeItems(WriterVersion.PARQUET_1_0);
+            var config = new ParquetRecordReaderConfig.Builder<>("/tmp/offsetlimit.parquet", Item.class)
+                    .withPrefetch(64 * 1024 * 1024)
+                    .build();
+            var reader = new ParquetRecordReader<>(config);
+            assertEquals(items(33_333, 40_000), reader.offset(33_333).limit(6_667).toList());
+        }
+
+        @Test
+        void offsetWithFilter() throws IOException {
+            writeItems(WriterVersion.PARQUET_1_0);
+            var config = new ParquetRecordReaderConfig.Builder<>("/tmp/offsetlimit.parquet", Item.class)
+                    .withFilter(RecordFilter.where("value").gtEq(20_000))
+                    .build();
+            var reader = new ParquetRecordReader<>(config).offset(10).limit(100);
+            assertEquals(items(20_010, 20_110), reader.toList());
+            assertEquals(100, reader.count());
+        }
+
+        @Test
+        void limitStopsIterator() throws IOException {
+            var reader = writeItems(WriterVersion.PARQUET_1_0);
+            var iterator = reader.offset(10).limit(2).iterator();
+            assertEquals(item(10), iterator.next());
+            assertEquals(item(11), iterator.next());
+            assertFalse(iterator.hasNext());
+        }
+
+        @Test
+        void invalidOffsetOrLimit() throws IOException {
+            var reader = writeItems(WriterVersion.PARQUET_1_0);
+            assertThrows(IllegalArgumentException.class, () -> reader.offset(-1));
+            assertThrows(IllegalArgumentException.class, () -> reader.limit(-1));
+        }
+
+    }
+
+    @Nested
+    class Publisher {
+
+        public record Item(String id, int value) {
+        }
+
+        private static final int ROWS = 20_000;
+
+        private List<Item> items(int from, int to) {
+            return IntStream.range(from, to).mapToObj(i -> new Item("id" + i, i)).toList();
+        }
+
+        private ParquetRecordReader<Item> writeItems() throws IOException {
+            FileSystemOutputFile output = new FileSystemOutputFile(new File("/tmp/publisher.parquet"));
+            ParquetRecordWriterConfig<Item> config = new ParquetRecordWriterConfig.Builder<>(output, Item.class)
+                    .withRowGroupSize(64 * 1024)
+                    .build();
+            new ParquetRecordWriter<>(config).write(items(0, ROWS).stream());
+            return new ParquetRecordReader<>("/tmp/publisher.parquet", Item.class);
+        }
+
+        private class ItemSubscriber implements Flow.Subscriber<Item> {
+
+            private final int batch;
+            private final int cancelAfter;
+            private final List<Item> received = new ArrayList<>();
+            private final CompletableFuture<List<Item>> result = new CompletableFuture<>();
+            private Flow.Subscription subscription;
+
+            ItemSubscriber(int batch, int cancelAfter) {
+                this.batch = batch;
+                this.cancelAfter = cancelAfter;
+            }
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(batch);
+            }
+
+            @Override
+            public void onNext(Item item) {
+                received.add(item);
+                if (received.size() == cancelAfter) {
+                    subscription.cancel();
+                    result.complete(received);
+                } else if (received.size() % batch == 0) {
+                    subscription.request(batch);
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                result.complete(received);
+            }
+
+        }
+
+        @Test
+        void publishAllRecords() throws Exception {
+            var reader = writeItems();
+            ItemSubscriber subscriber = new ItemSubscriber(100, -1);
+            reader.publisher(50).subscribe(subscriber);
+            assertEquals(items(0, ROWS), subscriber.result.get(10, TimeUnit.SECONDS));
+        }
+
+        @Test
+        void publishWithPrefetchAndLimit() throws Exception {
+            writeItems();
+            var config = new ParquetRecordReaderConfig.Builder<>("/tmp/publisher.parquet", Item.class)
+                    .withPrefetch(16 * 1024 * 1024)
+                    .build();
+            var reader = new ParquetRecordReader<>(config).offset(5_000).limit(10_000);
+            ItemSubscriber subscriber = new ItemSubscriber(333, -1);
+            reader.publisher().subscribe(subscriber);
+            assertEquals(items(5_000, 15_000), subscriber.result.get(10, TimeUnit.SECONDS));
+        }
+
+        @Test
+        void cancelSubscription() throws Exception {
+            var reader = writeItems();
+            ItemSubscriber subscriber = new ItemSubscriber(10, 25);
+            reader.publisher(10).subscribe(subscriber);
+            assertEquals(items(0, 25), subscriber.result.get(10, TimeUnit.SECONDS));
+        }
+
+    }
+
+    @Nested
+    class PageFiltering {
+
+        public record Measure(long timestamp, String sensor, List<Integer> samples, Double value) {
+        }
+
+        private static final int ROWS = 50_000;
+
+        private Measure measure(int i) {
+            return new Measure(i, "sensor" + (i % 7), List.of(i, i + 1), i % 5 == 0 ? null : i * 0.5);
+        }
+
+        private void writeMeasures(WriterVersion version) throws IOException {
+            FileSystemOutputFile output = new FileSystemOutputFile(new File("/tmp/pagefiltering.parquet"));
+            ParquetRecordWriterConfig<Measure> config = new ParquetRecordWriterConfig.Builder<>(output, Measure.class)
+                    .withRowGroupSize(1024 * 1024)
+                    .withPageRowCountLimit(1000)
+                    .withWriterVersion(version)
+                    .build();
+            new ParquetRecordWriter<>(config).write(IntStream.range(0, ROWS).mapToObj(this::measure));
+        }
+
+        private List<Measure> expected(int from, int to, String sensor) {
+            return IntStream.range(from, to).mapToObj(this::measure)
+                    .filter(m -> m.sensor().equals(sensor))
+                    .toList();
+        }
+
+        private RecordFilter filter(int from, int to, String sensor) {
+            return RecordFilter.where("timestamp").gtEq((long) from)
+                    .and(RecordFilter.where("timestamp").lt((long) to))
+                    .and(RecordFilter.where("sensor").eq(sensor));
+        }
+
+        @Test
+        void filterPagesByTimeRange() throws IOException {
+            writeMeasures(WriterVersion.PARQUET_1_0);
+            var config = new ParquetRecordReaderConfig.Builder<>("/tmp/pagefiltering.parquet", Measure.class)
+                    .withFilter(filter(12_345, 13_800, "sensor3"))
+                    .build();
+            var reader = new ParquetRecordReader<>(config);
+            assertEquals(expected(12_345, 13_800, "sensor3"), reader.toList());
+        }
+
+        @Test
+        void filterPagesWithDataPageV2() throws IOException {
+            writeMeasures(WriterVersion.PARQUET_2_0);
+            var config = new ParquetRecordReaderConfig.Builder<>("/tmp/pagefiltering.parquet", Measure.class)
+                    .withFilter(filter(999, 48_001, "sensor1"))
+                    .build();
+            var reader = new ParquetRecordReader<>(config);
+            assertEquals(expected(999, 48_001, "sensor1"), reader.toList());
+        }
+
+        @Test
+        void filterPagesWithPrefetch() throws IOException {
+            writeMeasures(WriterVersion.PARQUET_1_0);
+            var config = new ParquetRecordReaderConfig.Builder<>("/tmp/pagefiltering.parquet", Measure.class)
+                    .withFilter(filter(30_500, 31_500, "sensor0"))
+                    .withPrefetch(64 * 1024 * 1024)
+                    .build();
+            var reader = new ParquetRecordReader<>(config);
+            assertEquals(expected(30_500, 31_500, "sensor0"), reader.toList());
+        }
+
+        @Test
+        void columnIndexFilterDisabled() throws IOException {
+            writeMeasures(WriterVersion.PARQUET_1_0);
+            var config = new ParquetRecordReaderConfig.Builder<>("/tmp/pagefiltering.parquet", Measure.class)
+                    .withFilter(filter(12_345, 13_800, "sensor3"))
+                    .useColumnIndexFilter(false)
+                    .build();
+            var reader = new ParquetRecordReader<>(config);
+            assertEquals(expected(12_345, 13_800, "sensor3"), reader.toList());
+        }
+
+        @Test
+        void noMatchingPages() throws IOException {
+            writeMeasures(WriterVersion.PARQUET_1_0);
+            var config = new ParquetRecordReaderConfig.Builder<>("/tmp/pagefiltering.parquet", Measure.class)
+                    .withFilter(RecordFilter.where("timestamp").gtEq((long) ROWS))
+                    .build();
+            var reader = new ParquetRecordReader<>(config);
+            assertEquals(List.of(), reader.toList());
+        }
+
+    }
+
+    @Nested
+    class FooterMetadata {
+
+        public record Location(String city, int zip) {
+        }
+
+        public record Measure(String name, long amount, Double score, Location location) {
+        }
+
+        private static final int ROWS = 10_000;
+
+        private ParquetRecordReader<Measure> writeMeasures() throws IOException {
+            FileSystemOutputFile output = new FileSystemOutputFile(new File("/tmp/footer.parquet"));
+            ParquetRecordWriterConfig<Measure> config = new ParquetRecordWriterConfig.Builder<>(output, Measure.class)
+                    .withRowGroupSize(16 * 1024)
+                    .build();
+            new ParquetRecordWriter<>(config).write(IntStream.range(0, ROWS).mapToObj(i -> new Measure("m" + (i + 1000),
+                    i - 500L, i % 4 == 0 ? null : i / 2.0, i % 10 == 0 ? null : new Location("c" + i, i))));
+            return new ParquetRecordReader<>("/tmp/footer.parquet", Measure.class);
+        }
+
+        @Test
+        void countFromFooter() throws IOException {
+            var reader = writeMeasures();
+            assertEquals(ROWS, reader.count());
+            try (var stream = reader.stream()) {
+                assertEquals(ROWS, stream.count());
+            }
+        }
+
+        @Test
+        void countWithFilter() throws IOException {
+            writeMeasures();
+            var config = new ParquetRecordReaderConfig.Builder<>("/tmp/footer.parquet", Measure.class)
+                    .withFilter(RecordFilter.where("amount").lt(0))
+                    .build();
+            var reader = new ParquetRecordReader<>(config);
+            assertEquals(500, reader.count());
+            assertThrows(IllegalStateException.class, () -> reader.min("amount"));
+        }
+
+        @Test
+        void minAndMax() throws IOException {
+            var reader = writeMeasures();
+            assertEquals(Optional.of(-500L), reader.min("amount"));
+            assertEquals(Optional.of(ROWS - 501L), reader.max("amount"));
+            assertEquals(Optional.of(0.5), reader.min("score"));
+            assertEquals(Optional.of((ROWS - 1) / 2.0), reader.max("score"));
+            assertEquals(Optional.of("m1000"), reader.min("name"));
+            assertEquals(Optional.of(1), reader.min("location.zip"));
+        }
+
+        @Test
+        void nullCount() throws IOException {
+            var reader = writeMeasures();
+            assertEquals(0, reader.nullCount("amount"));
+            assertEquals(ROWS / 4, reader.nullCount("score"));
+            assertEquals(ROWS / 10, reader.nullCount("location.zip"));
+        }
+
+        @Test
+        void invalidComponents() throws IOException {
+            var reader = writeMeasures();
+            assertThrows(IllegalArgumentException.class, () -> reader.min("foo"));
+            assertThrows(IllegalArgumentException.class, () -> reader.max("location"));
+        }
+
+    }
+
+    @Nested
+    class Cursor {
+
+        public enum Status {
+            OPEN, CLOSED
+        }
+
+        public record Address(String city, int zip) {
+        }
+
+        public record Order(String id, int qty, Long total, double price, boolean paid, Status status,
+                Address address, List<String> tags) {
+        }
+
+        private Order order(int i) {
+            return new Order("id" + i, i % 200, i % 3 == 0 ? null : i * 100L, i / 4.0, i % 2 == 0,
+                    i % 5 == 0 ? null : Status.values()[i % 2], i % 7 == 0 ? null : new Address("city" + i, i),
+                    List.of("t" + i, "x"));
+        }
+
+        private ParquetRecordReader<Order> writeOrders() throws IOException {
+            FileSystemOutputFile output = new FileSystemOutputFile(new File("/tmp/cursor.parquet"));
+            ParquetRecordWriterConfig<Order> config = new ParquetRecordWriterConfig.Builder<>(output, Order.class)
+                    .withRowGroupSize(32 * 1024)
+                    .build();
+            new ParquetRecordWriter<>(config).write(IntStream.range(0, 5000).mapToObj(this::order));
+            return new ParquetRecordReader<>("/tmp/cursor.parquet", Order.class);
+        }
+
+        @Test
+        void typedGetters() throws IOException {
+            var reader = writeOrders();
+            try (var cursor = reader.cursor()) {
+                int qty = cursor.componentIndex("qty");
+                int i = 0;
+                while (cursor.advance()) {
+                    Order expected = order(i++);
+                    assertEquals(expected.id(), cursor.getString("id").toString());
+                    assertEquals(expected.qty(), cursor.getInt(qty));
+                    assertEquals(expected.total() == null, cursor.isNull("total"));
+                    if (expected.total() != null) {
+                        assertEquals(expected.total().longValue(), cursor.getLong("total"));
+                    }
+                    assertEquals(expected.price(), cursor.getDouble("price"));
+                    assertEquals(expected.paid(), cursor.getBoolean("paid"));
+                    CharSequence status = cursor.getString("status");
+                    assertEquals(expected.status() == null ? null : expected.status().name(),
+                            status == null ? null : status.toString());
+                    assertEquals(expected.address() == null, cursor.isNull("address"));
+                }
+                assertEquals(5000, i);
+                assertFalse(cursor.advance());
+            }
+        }
+
+        @Test
+        void materializeAcceptedRows() throws IOException {
+            var reader = writeOrders();
+            List<Order> accepted = new ArrayList<>();
+            try (var cursor = reader.cursor()) {
+                int qty = cursor.componentIndex("qty");
+                while (cursor.advance()) {
+                    if (cursor.getInt(qty) > 190) {
+                        accepted.add(cursor.materialize());
+                    }
+                }
+            }
+            assertEquals(IntStream.range(0, 5000).mapToObj(this::order).filter(o -> o.qty() > 190).toList(),
+                    accepted);
+        }
+
+        @Test
+        void invalidAccess() throws IOException {
+            var reader = writeOrders();
+            try (var cursor = reader.cursor()) {
+                assertThrows(IllegalStateException.class, () -> cursor.getInt("qty"));
+                cursor.advance();
+                assertThrows(IllegalStateException.class, () -> cursor.getInt("id"));
+                assertThrows(IllegalStateException.class, () -> cursor.getString("price"));
+                assertThrows(IllegalArgumentException.class, () -> cursor.getInt("foo"));
+                assertThrows(IndexOutOfBoundsException.class, () -> cursor.getInt(8));
+            }
+        }
+
+    }
+
     public record WithGenericField<T> (String name, T value) {
     }
 
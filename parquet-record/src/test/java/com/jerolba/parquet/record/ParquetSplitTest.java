@@ -0,0 +1,134 @@
+/**
+ * Copyright 2022 Jerónimo López Bezanilla
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jerolba.parquet.record;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ParquetSplitTest {
+
+    public record Row(String id, int value, double amount) {
+    }
+
+    private static final String PATH = "/tmp/splits.parquet";
+    private static final int ROWS = 100_000;
+
+    @BeforeEach
+    void writeFile() throws IOException {
+        FileSystemOutputFile output = new FileSystemOutputFile(new File(PATH));
+        ParquetRecordWriterConfig<Row> config = new ParquetRecordWriterConfig.Builder<>(output, Row.class)
+                .withRowGroupSize(128 * 1024)
+                .build();
+        new ParquetRecordWriter<>(config).write(rows(0, ROWS).stream());
+    }
+
+    private List<Row> rows(int from, int to) {
+        return IntStream.range(from, to).mapToObj(i -> new Row("id" + i, i, i * 0.25)).toList();
+    }
+
+    @Test
+    void splitsCoverAllRowGroups() throws IOException {
+        var reader = new ParquetRecordReader<>(PATH, Row.class);
+        List<ParquetSplit> splits = reader.planSplits(512 * 1024);
+        assertTrue(splits.size() > 1);
+        assertEquals(0, splits.get(0).firstRowGroup());
+        for (int i = 1; i < splits.size(); i++) {
+            assertEquals(splits.get(i - 1).endRowGroup(), splits.get(i).firstRowGroup());
+            assertEquals(splits.get(i - 1).end(), splits.get(i).start());
+        }
+        assertEquals(ROWS, splits.stream().mapToLong(ParquetSplit::rowCount).sum());
+    }
+
+    @Test
+    void readSplits() throws IOException {
+        var reader = new ParquetRecordReader<>(PATH, Row.class);
+        List<Row> read = new ArrayList<>();
+        for (ParquetSplit split : reader.planSplits(512 * 1024)) {
+            List<Row> splitRows = new ParquetRecordReader<>(split, Row.class).toList();
+            assertEquals(split.rowCount(), splitRows.size());
+            read.addAll(splitRows);
+        }
+        assertEquals(rows(0, ROWS), read);
+    }
+
+    @Test
+    void oneSplitPerRowGroup() throws IOException {
+        var reader = new ParquetRecordReader<>(PATH, Row.class);
+        List<ParquetSplit> splits = reader.planSplits(1);
+        for (ParquetSplit split : splits) {
+            assertEquals(1, split.endRowGroup() - split.firstRowGroup());
+            assertEquals(split.rowCount(), new ParquetRecordReader<>(split, Row.class).count());
+        }
+    }
+
+    @Test
+    void oneSplitForWholeFile() throws IOException {
+        var reader = new ParquetRecordReader<>(PATH, Row.class);
+        List<ParquetSplit> splits = reader.planSplits(Long.MAX_VALUE);
+        assertEquals(1, splits.size());
+        assertEquals(rows(0, ROWS), new ParquetRecordReader<>(splits.get(0), Row.class).toList());
+    }
+
+    @Test
+    void serializeSplit() throws IOException, ClassNotFoundException {
+        var reader = new ParquetRecordReader<>(PATH, Row.class);
+        ParquetSplit split = reader.planSplits(512 * 1024).get(1);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(split);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            ParquetSplit deserialized = (ParquetSplit) in.readObject();
+            assertEquals(split, deserialized);
+            assertEquals(new ParquetRecordReader<>(split, Row.class).toList(),
+                    new ParquetRecordReader<>(deserialized, Row.class).toList());
+        }
+    }
+
+    @Test
+    void readSplitWithFilter() throws IOException {
+        var reader = new ParquetRecordReader<>(PATH, Row.class);
+        List<Row> read = new ArrayList<>();
+        for (ParquetSplit split : reader.planSplits(512 * 1024)) {
+            var config = new ParquetRecordReaderConfig.Builder<>(split, Row.class)
+                    .withFilter(RecordFilter.where("value").lt(1000))
+                    .build();
+            read.addAll(new ParquetRecordReader<>(config).toList());
+        }
+        assertEquals(rows(0, 1000), read);
+    }
+
+    @Test
+    void invalidSplitSize() throws IOException {
+        var reader = new ParquetRecordReader<>(PATH, Row.class);
+        assertThrows(IllegalArgumentException.class, () -> reader.planSplits(0));
+    }
+
+}
@@ -17,12 +17,14 @@ package com.jerolba.parquet.record;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -33,6 +35,11 @@ import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import com.jerolba.avro.record.CompiledMappers;
+import com.jerolba.avro.record.RecordTypeConversionException;
+import com.jerolba.record.annotation.Alias;
+import com.jerolba.record.annotation.GenerateMapper;
+
 public class ParquettRecordWriterTest {
 
     public record PrimitivesAndObjects(String name,
@@ -95,6 +102,58 @@ public class ParquettRecordWriterTest {
             assertEquals(rec, value);
         }
 
+        @Test
+        void withNullEnum() throws IOException {
+            var rec = new WithEnum("Apple", null);
+            var writerTest = new ParquetWriterTest<>("/tmp/withNullEnum.parquet", WithEnum.class);
+            writerTest.write(rec);
+
+            WithEnum value = writerTest.getReadIterator().next();
+            assertEquals(rec, value);
+        }
+
+        public enum Labeled {
+            ONE, TWO;
+
+            @Override
+            public String toString() {
+                return name().toLowerCase();
+            }
+        }
+
+        public record WithLabel(String name, Labeled labeled, List<Labeled> others) {
+        }
+
+        @Test
+        void enumWithCustomToString() throws IOException {
+            var rec = new WithLabel("Apple", Labeled.TWO, List.of(Labeled.ONE));
+            var writerTest = new ParquetWriterTest<>("/tmp/withLabel.parquet", WithLabel.class);
+            writerTest.write(rec);
+
+            WithLabel value = writerTest.getReadIterator().next();
+            assertEquals(rec, value);
+        }
+
+        public record EnumChild(OrgType orgType, List<OrgType> others) {
+        }
+
+        public record WithEnumCollections(String name, List<OrgType> orgTypes, EnumChild child) {
+        }
+
+        @Test
+        void withEnumCollections() throws IOException {
+            var rec1 = new WithEnumCollections("Apple", List.of(OrgType.BAZ, OrgType.FOO),
+                    new EnumChild(OrgType.BAR, List.of(OrgType.FOO)));
+            var rec2 = new WithEnumCollections("Google", List.of(), new EnumChild(null, null));
+            var writerTest = new ParquetWriterTest<>("/tmp/withEnumCollections.parquet", WithEnumCollections.class);
+            writerTest.write(rec1, rec2);
+
+            var it = writerTest.getReadIterator();
+            assertEquals(rec1, it.next());
+            assertEquals(rec2, it.next());
+            assertFalse(it.hasNext());
+        }
+
     }
 
     @Nested
@@ -204,6 +263,104 @@ public class ParquettRecordWriterTest {
             assertEquals(rec, value);
         }
 
+        public record OrderLine(String sku, List<Integer> quantities) {
+        }
+
+        public record Order(String id, List<OrderLine> lines) {
+        }
+
+        @Test
+        void withNestedCollections() throws IOException {
+            Order order1 = new Order("1", List.of(
+                    new OrderLine("A", List.of(1, 2, 3)),
+                    new OrderLine("B", List.of()),
+                    new OrderLine("C", null)));
+            Order order2 = new Order("2", List.of());
+            Order order3 = new Order("3", List.of(new OrderLine("D", List.of(4))));
+
+            var writerTest = new ParquetWriterTest<>("/tmp/withNestedCollections.parquet", Order.class);
+            writerTest.write(order1, order2, order3);
+
+            var it = writerTest.getReadIterator();
+            assertEquals(order1, it.next());
+            assertEquals(order2, it.next());
+            assertEquals(order3, it.next());
+            assertFalse(it.hasNext());
+        }
+
+        @Test
+        void nullElementInCollectionNotSupported() throws IOException {
+            SimpleCollection rec = new SimpleCollection("Amazon", Arrays.asList(10, null), List.of("FOO"));
+
+            var writerTest = new ParquetWriterTest<>("/tmp/nullElementInCollection.parquet", SimpleCollection.class);
+            assertThrows(RecordTypeConversionException.class, () -> writerTest.write(rec));
+        }
+
+        @Test
+        void nullRecordInCollectionNotSupported() throws IOException {
+            CompositeMain rec = new CompositeMain("Amazon", Arrays.asList(new CompositeChild("Amount", 100), null));
+
+            var writerTest = new ParquetWriterTest<>("/tmp/nullRecordInCollection.parquet", CompositeMain.class);
+            assertThrows(RecordTypeConversionException.class, () -> writerTest.write(rec));
+        }
+
+    }
+
+    @Nested
+    class CompiledMapping {
+
+        public enum Category {
+            FOO, BAR, BAZ
+        }
+
+        public record CompiledChild(String id, Short size, Category category) {
+        }
+
+        @GenerateMapper
+        public record Compiled(@Alias("nm") String name, int intPrimitive, Long longObject, Category category,
+                CompiledChild child, List<CompiledChild> children, List<String> names) {
+        }
+
+        @Test
+        void compiledMapperIsGenerated() {
+            var compiled = CompiledMappers.find(Compiled.class);
+            assertNotNull(compiled);
+            assertNotNull(compiled.constructor(Compiled.class));
+            assertNotNull(compiled.constructor(CompiledChild.class));
+            assertEquals(7, compiled.accessors(Compiled.class).size());
+            assertEquals(3, compiled.accessors(CompiledChild.class).size());
+        }
+
+        @Test
+        void writeAndReadCompiled() throws IOException {
+            var rec = new Compiled("Amazon", 1, 2L, Category.BAR, new CompiledChild("foo", (short) 3, Category.FOO),
+                    List.of(new CompiledChild("bar", null, null)), List.of("FOO", "BAR"));
+            var empty = new Compiled(null, 1, null, null, null, List.of(), List.of());
+            var writerTest = new ParquetWriterTest<>("/tmp/compiledMapper.parquet", Compiled.class);
+            writerTest.write(rec, empty);
+
+            var it = writerTest.getReadIterator();
+            assertEquals(rec, it.next());
+            assertEquals(empty, it.next());
+            assertFalse(it.hasNext());
+        }
+
+        public record ReflectedCompiled(@Alias("nm") String name, int intPrimitive, Long longObject,
+                Category category, CompiledChild child, List<CompiledChild> children, List<String> names) {
+        }
+
+        @Test
+        void compiledAndReflectedFilesAreEquivalent() throws IOException {
+            var rec = new Compiled("Amazon", 1, 2L, Category.BAR, new CompiledChild("foo", (short) 3, Category.FOO),
+                    List.of(new CompiledChild("bar", null, Category.BAZ)), List.of("FOO"));
+            var writerTest = new ParquetWriterTest<>("/tmp/compiledMapper.parquet", Compiled.class);
+            writerTest.write(rec);
+
+            var reader = new ParquetRecordReader<>("/tmp/compiledMapper.parquet", ReflectedCompiled.class);
+            assertEquals(List.of(new ReflectedCompiled("Amazon", 1, 2L, Category.BAR, rec.child(), rec.children(),
+                    rec.names())), reader.toList());
+        }
+
     }
 
     public enum Options {